@@ -2,6 +2,7 @@
 plugins {
     id("java")
     id("com.gradleup.shadow") version "8.3.0"
+    id("me.champeau.jmh") version "0.7.2"
 
 }
 
@@ -34,8 +35,18 @@ dependencies {
     implementation("org.slf4j:slf4j-jdk-platform-logging:2.0.7")
     implementation("com.fazecast:jSerialComm:2.11.2")
     implementation("io.netty:netty-all:4.2.6.Final")
-    implementation("org.quartz-scheduler:quartz:2.5.1")
-    implementation("org.quartz-scheduler:quartz-jobs:2.5.1")
+
+    jmh("com.pi4j:pi4j-plugin-mock:${gradle.extra["pi4j-ver"]}")
+}
+
+jmh {
+    // Report ns/op and, through the gc profiler, allocation rate per benchmark
+    benchmarkMode.add("avgt")
+    timeUnit.set("ns")
+    profilers.add("gc")
+    fork.set(1)
+    warmupIterations.set(3)
+    iterations.set(5)
 }
 
 tasks {
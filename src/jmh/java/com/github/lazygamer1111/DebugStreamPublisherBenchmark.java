@@ -0,0 +1,41 @@
+package com.github.lazygamer1111;
+
+import com.github.lazygamer1111.dataTypes.ControllerSnapshot;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.PooledByteBufAllocator;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks encoding of the controller snapshot streamed to debug clients.
+ *
+ * @author lazygamer1111
+ * @version 1.0
+ * @since 2026-10-17
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class DebugStreamPublisherBenchmark {
+    private final ByteBufAllocator alloc = PooledByteBufAllocator.DEFAULT;
+    private final ControllerSnapshot snapshot = new ControllerSnapshot();
+
+    @Setup
+    public void setup() {
+        int[] data = new int[ControllerSnapshot.CHANNELS];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = 1000 + i * 50;
+        }
+        snapshot.publish(data, System.nanoTime());
+    }
+
+    @Benchmark
+    public int encodeChannels() {
+        ByteBuf buf = DebugStreamPublisher.encodeChannels(alloc, snapshot);
+        int size = buf.readableBytes();
+        buf.release();
+        return size;
+    }
+}
@@ -0,0 +1,43 @@
+package com.github.lazygamer1111.components.input;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks finding, validating and decoding an iBUS frame with {@link IBusParser}.
+ *
+ * @author lazygamer1111
+ * @version 1.0
+ * @since 2026-10-17
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class IBusParserBenchmark {
+    private final IBusParser parser = new IBusParser();
+    private final byte[] frame = new byte[IBusParser.FRAME_LENGTH];
+
+    @Setup
+    public void setup() {
+        frame[0] = 0x20;
+        frame[1] = 0x40;
+        for (int i = 0; i < IBusParser.CHANNELS; i++) {
+            frame[2 + i * 2] = (byte) (1000 + i * 50);
+            frame[3 + i * 2] = (byte) ((1000 + i * 50) >> 8);
+        }
+        int checksum = 0xFFFF;
+        for (int i = 0; i < IBusParser.FRAME_LENGTH - 2; i++) {
+            checksum -= frame[i] & 0xFF;
+        }
+        frame[30] = (byte) checksum;
+        frame[31] = (byte) (checksum >> 8);
+    }
+
+    @Benchmark
+    public int[] parseFrame() {
+        parser.write(frame, 0, frame.length);
+        parser.next();
+        return parser.channels();
+    }
+}
@@ -0,0 +1,65 @@
+package com.github.lazygamer1111.components.output;
+
+import com.github.lazygamer1111.sim.FrameGenerator;
+import com.github.lazygamer1111.sim.SimHardware;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks sending a throttle command to one ESC against the simulator's fake PIO
+ * helper on local named pipes.
+ * <p>
+ * {@code roundTrip} waits for the helper's reply with {@link ESCGroup#sendConfirmed},
+ * so the binary and text protocols are compared on the same work. {@code pipelined}
+ * is what the control loop does: with the binary protocol it is a bare pipe write,
+ * and once the in-flight window is full most calls write nothing, so its
+ * {@link ESCCounters} report how many sends went out and how many were dropped. With
+ * the text protocol both are a full round trip.
+ *
+ * @author lazygamer1111
+ * @version 1.0
+ * @since 2026-10-17
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ESCBenchmark {
+    private SimHardware sim;
+    private ESC esc;
+    private static final long ACK_TIMEOUT_NANOS = 100_000_000L;
+
+    private int throttle = 0;
+
+    /** Whether the fake helper accepts the binary frame protocol or forces the text fallback */
+    @Param({"true", "false"})
+    private boolean binaryProtocol;
+
+    @Setup
+    public void setup() throws IOException {
+        // Nothing reads the simulated receiver pipe here, so the frame generator stays idle
+        sim = SimHardware.start(FrameGenerator.NOMINAL_FRAME_RATE, binaryProtocol);
+        esc = new ESC(4, 300, sim.escTelemetryPipe(), sim.escCommandPipe());
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        sim.close();
+    }
+
+    @Benchmark
+    public boolean roundTrip() throws IOException {
+        throttle = (throttle + 1) & 1023;
+        esc.set(0, throttle, false);
+        return esc.sendConfirmed(ACK_TIMEOUT_NANOS);
+    }
+
+    @Benchmark
+    public void pipelined(ESCCounters counters) {
+        throttle = (throttle + 1) & 1023;
+        long overruns = esc.overruns();
+        esc.sendFrame(throttle, false);
+        counters.record(overruns, esc.overruns());
+    }
+}
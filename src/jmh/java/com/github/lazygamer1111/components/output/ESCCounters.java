@@ -0,0 +1,42 @@
+package com.github.lazygamer1111.components.output;
+
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Per-iteration counts reported next to the pipelined ESC benchmarks. A pipelined
+ * send that finds the in-flight window full writes nothing and returns at once, so
+ * its time only means something together with how many sends actually went out.
+ *
+ * @author lazygamer1111
+ * @version 1.0
+ * @since 2026-10-17
+ */
+@State(Scope.Thread)
+@AuxCounters(AuxCounters.Type.EVENTS)
+public class ESCCounters {
+    /** Sends that were written to the pipe */
+    public long written;
+
+    /** Sends dropped because the window was full */
+    public long overruns;
+
+    @Setup(Level.Iteration)
+    public void reset() {
+        written = 0;
+        overruns = 0;
+    }
+
+    /**
+     * Counts one send by comparing the group's overrun counter around it.
+     *
+     * @param overrunsBefore {@link ESCGroup#overruns()} before the send
+     * @param overrunsAfter  {@link ESCGroup#overruns()} after the send
+     */
+    void record(long overrunsBefore, long overrunsAfter) {
+        if (overrunsAfter == overrunsBefore) {
+            written++;
+        } else {
+            overruns++;
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.github.lazygamer1111.components.output;
+
+import com.github.lazygamer1111.sim.FrameGenerator;
+import com.github.lazygamer1111.sim.SimHardware;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks sending one control tick's throttles to a group of 1, 4 and 8 motors
+ * against the simulator's fake PIO helper. With the binary protocol the cost should
+ * stay flat as motors are added.
+ * <p>
+ * {@code roundTrip} waits for the replies with {@link ESCGroup#sendConfirmed}, so
+ * binary and text are compared on the same work. {@code pipelined} measures
+ * {@link ESCGroup#send} as the control loop uses it, with {@link ESCCounters}
+ * reporting how many ticks went out and how many were dropped on a full window.
+ *
+ * @author lazygamer1111
+ * @version 1.0
+ * @since 2026-10-17
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ESCGroupBenchmark {
+    private SimHardware sim;
+    private ESCGroup group;
+    private static final long ACK_TIMEOUT_NANOS = 100_000_000L;
+
+    private int throttle = 0;
+
+    @Param({"1", "4", "8"})
+    private int motors;
+
+    /** Whether the fake helper accepts the binary frame protocol or forces the text fallback */
+    @Param({"true", "false"})
+    private boolean binaryProtocol;
+
+    @Setup
+    public void setup() throws IOException {
+        // Nothing reads the simulated receiver pipe here, so the frame generator stays idle
+        sim = SimHardware.start(FrameGenerator.NOMINAL_FRAME_RATE, binaryProtocol);
+        int[] pins = new int[motors];
+        for (int i = 0; i < motors; i++) {
+            pins[i] = 4 + i;
+        }
+        group = new ESCGroup(pins, 300, sim.escTelemetryPipe(), sim.escCommandPipe());
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        sim.close();
+    }
+
+    @Benchmark
+    public boolean roundTrip() throws IOException {
+        stage();
+        return group.sendConfirmed(ACK_TIMEOUT_NANOS);
+    }
+
+    @Benchmark
+    public void pipelined(ESCCounters counters) {
+        stage();
+        long overruns = group.overruns();
+        group.send(null, 0);
+        counters.record(overruns, group.overruns());
+    }
+
+    private void stage() {
+        throttle = (throttle + 1) & 1023;
+        for (int i = 0; i < motors; i++) {
+            group.set(i, throttle, false);
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.github.lazygamer1111.components.output;
+
+import com.github.lazygamer1111.sim.SimHardware;
+import com.pi4j.Pi4J;
+import com.pi4j.context.Context;
+import com.pi4j.io.pwm.Pwm;
+import com.pi4j.io.pwm.PwmConfigBuilder;
+import com.pi4j.plugin.mock.provider.pwm.MockPwmProvider;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Benchmarks the servo duty cycle calculation and {@link Servo#setAngle(double)}
+ * against the Pi4J mock PWM provider, and against {@link SysfsPwm} on a fake sysfs
+ * tree in a temp directory.
+ *
+ * @author lazygamer1111
+ * @version 1.0
+ * @since 2026-10-17
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ServoBenchmark {
+    private Context pi4j;
+    private Servo servo;
+    private Servo sysfsServo;
+    private SysfsPwm sysfs;
+    private Path sysfsRoot;
+    private int step = 0;
+
+    @Setup
+    public void setup() throws IOException {
+        pi4j = Pi4J.newContextBuilder()
+                .add(MockPwmProvider.newInstance())
+                .build();
+        PwmConfigBuilder config = Pwm.newConfigBuilder(pi4j)
+                .id("servo")
+                .name("servo")
+                .address(2)
+                .provider(MockPwmProvider.ID)
+                .frequency(50)
+                .initial(5);
+        servo = new Servo(pi4j.create(config), 0d, 90d, 1d/1000d, 2d/1000d, 50);
+
+        sysfsRoot = Files.createTempDirectory("servo-bench");
+        SimHardware.createPwmTree(sysfsRoot);
+        sysfs = new SysfsPwm(sysfsRoot, 0, 2);
+        sysfsServo = new Servo(sysfs, 0d, 90d, 1d/1000d, 2d/1000d, 50);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        pi4j.shutdown();
+        sysfs.close();
+        try (Stream<Path> files = Files.walk(sysfsRoot)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    @Benchmark
+    public float calcDutyCycle() {
+        step = (step + 1) % 90;
+        return servo.calcDutyCycle(2d/1000d, 1d/1000d, step / 90d, 50);
+    }
+
+    @Benchmark
+    public void setAngle() {
+        step = (step + 1) % 90;
+        servo.setAngle(step);
+    }
+
+    @Benchmark
+    public void setAngleSysfs() {
+        step = (step + 1) % 90;
+        sysfsServo.setAngle(step);
+    }
+
+    @Benchmark
+    public void setAngleSysfsUnchanged() {
+        sysfsServo.setAngle(45);
+    }
+}
@@ -0,0 +1,49 @@
+package com.github.lazygamer1111.dataTypes;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks publishing and reading the shared controller snapshot, alone and with
+ * one writer racing two readers as on the vehicle.
+ *
+ * @author lazygamer1111
+ * @version 1.0
+ * @since 2026-10-17
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ControllerSnapshotBenchmark {
+    private final ControllerSnapshot shared = new ControllerSnapshot();
+    private final int[] frame = new int[ControllerSnapshot.CHANNELS];
+
+    @State(Scope.Thread)
+    public static class Reader {
+        final ControllerSnapshot copy = new ControllerSnapshot();
+    }
+
+    @Benchmark
+    @Group("uncontended")
+    public void publish() {
+        frame[2]++;
+        shared.publish(frame, System.nanoTime());
+    }
+
+    @Benchmark
+    @Group("contended")
+    @GroupThreads(1)
+    public void writer() {
+        frame[2]++;
+        shared.publish(frame, System.nanoTime());
+    }
+
+    @Benchmark
+    @Group("contended")
+    @GroupThreads(2)
+    public long reader(Reader reader) {
+        shared.copyTo(reader.copy);
+        return reader.copy.sequence;
+    }
+}
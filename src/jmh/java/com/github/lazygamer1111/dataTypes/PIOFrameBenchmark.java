@@ -0,0 +1,38 @@
+package com.github.lazygamer1111.dataTypes;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks encoding and decoding of the binary PIO helper frame.
+ *
+ * @author lazygamer1111
+ * @version 1.0
+ * @since 2026-10-17
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class PIOFrameBenchmark {
+    private final byte[] buf = new byte[PIOFrame.LENGTH];
+    private final PIOFrame frame = new PIOFrame();
+    private int throttle = 0;
+
+    @Setup
+    public void setup() {
+        PIOFrame.encode(buf, 0, PIOFrame.OK, 0, 512, 0, 1);
+    }
+
+    @Benchmark
+    public byte[] encode() {
+        throttle = (throttle + 1) & 1023;
+        PIOFrame.encode(buf, 0, PIOFrame.THROTTLE, 0, throttle, 0, throttle);
+        return buf;
+    }
+
+    @Benchmark
+    public boolean decode() {
+        return frame.decode(buf, 0);
+    }
+}
@@ -0,0 +1,42 @@
+package com.github.lazygamer1111.dataTypes;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks building and formatting the text throttle message sent to the PIO helper.
+ *
+ * @author lazygamer1111
+ * @version 1.0
+ * @since 2026-10-17
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class PIOMSGBenchmark {
+    private int throttle = 0;
+    private PIOMSG msg;
+
+    @Setup
+    public void setup() {
+        msg = PIOMSG.fromThrottle(0, 512, false);
+    }
+
+    @Benchmark
+    public PIOMSG fromThrottle() {
+        throttle = (throttle + 1) & 1023;
+        return PIOMSG.fromThrottle(0, throttle, false);
+    }
+
+    @Benchmark
+    public String toText() {
+        return msg.toString();
+    }
+
+    @Benchmark
+    public String fromThrottleToText() {
+        throttle = (throttle + 1) & 1023;
+        return PIOMSG.fromThrottle(0, throttle, false).toString();
+    }
+}
@@ -0,0 +1,73 @@
+package com.github.lazygamer1111.mixer;
+
+import com.github.lazygamer1111.dataTypes.ControllerSnapshot;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks shaping a frame with baked {@link ChannelCurves} tables against
+ * evaluating the same expo directly with {@link Math#pow}, and one tick of the
+ * default {@link Mixer} outputs.
+ *
+ * @author lazygamer1111
+ * @version 1.0
+ * @since 2026-10-17
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ChannelCurvesBenchmark {
+    private static final double EXPO = 0.4;
+    private static final double RATE = 0.8;
+
+    private final ChannelCurves curves = new ChannelCurves();
+    private final Mixer mixer = Mixer.defaults();
+    private final int[] channels = new int[ControllerSnapshot.CHANNELS];
+    private int servo;
+    private int esc;
+    private int step = 0;
+
+    @Setup
+    public void setup() {
+        Curve[] shapes = new Curve[ControllerSnapshot.CHANNELS];
+        shapes[0] = new Curve(10, EXPO, RATE, null);
+        shapes[2] = new Curve(0, 0, 1, new double[] {1000, 1150, 1400, 1700, 2000});
+        curves.update(shapes);
+        servo = mixer.output("servo");
+        esc = mixer.output("esc");
+        channels[8] = 2000;
+        channels[9] = 2000;
+    }
+
+    private void nextFrame() {
+        step = (step + 7) % 1001;
+        channels[0] = 1000 + step;
+        channels[2] = 2000 - step;
+    }
+
+    @Benchmark
+    public int lookupTables() {
+        nextFrame();
+        curves.apply(channels);
+        return channels[0] + channels[2];
+    }
+
+    @Benchmark
+    public int directExpo() {
+        nextFrame();
+        double d = (channels[0] - 1500) / 500d;
+        double shaped = RATE * ((1 - EXPO) * d + EXPO * Math.pow(d, 3));
+        channels[0] = (int) Math.round(1500 + 500 * shaped);
+        return channels[0];
+    }
+
+    @Benchmark
+    public double mix() {
+        nextFrame();
+        int rule = mixer.rule(esc, channels);
+        double throttle = rule < 0 ? 0 : mixer.value(esc, rule, channels);
+        rule = mixer.rule(servo, channels);
+        return throttle + (rule < 0 ? 0 : mixer.value(servo, rule, channels));
+    }
+}
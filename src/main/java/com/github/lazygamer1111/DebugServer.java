@@ -1,13 +1,19 @@
 package com.github.lazygamer1111;
 
+import com.github.lazygamer1111.config.Settings;
 import io.netty.bootstrap.ServerBootstrap;
+import io.netty.buffer.PooledByteBufAllocator;
 import io.netty.channel.ChannelFuture;
 import io.netty.channel.ChannelInitializer;
 import io.netty.channel.ChannelOption;
 import io.netty.channel.EventLoopGroup;
+import io.netty.channel.WriteBufferWaterMark;
 import io.netty.channel.nio.NioEventLoopGroup;
 import io.netty.channel.socket.SocketChannel;
 import io.netty.channel.socket.nio.NioServerSocketChannel;
+import io.netty.handler.codec.FixedLengthFrameDecoder;
+
+import java.util.concurrent.TimeUnit;
 
 /**
  * Debug server for remote monitoring and diagnostics.
@@ -17,7 +23,10 @@ import io.netty.channel.socket.nio.NioServerSocketChannel;
  * real-time access to controller data and system status.
  * 
  * The server uses the Netty framework for non-blocking I/O and delegates request
- * handling to the DebugServerHandler class.
+ * handling to the DebugServerHandler class. Clients stay connected and subscribe
+ * to a stream; all connections share one event loop and one
+ * {@link DebugStreamPublisher}, so every sample is encoded once no matter how many
+ * clients are watching.
  * 
  * @author lazygamer1111
  * @version 1.0
@@ -47,19 +56,30 @@ public class DebugServer {
      */
     public void run() throws Exception {
         EventLoopGroup bossGroup = new NioEventLoopGroup(); // (1)
-        EventLoopGroup workerGroup = new NioEventLoopGroup();
+        // One worker thread: the publisher and all clients share it, so fan-out needs no locking
+        EventLoopGroup workerGroup = new NioEventLoopGroup(1);
+        Settings config = Main.settings.get();
+        DebugStreamPublisher publisher = new DebugStreamPublisher(Main.controllerData, Main.telemetry, Main.scheduler,
+                PooledByteBufAllocator.DEFAULT, config.debugMaxRateHz);
+        // Slow clients stop being written to above the high watermark until they drain below the low one
+        WriteBufferWaterMark waterMark = new WriteBufferWaterMark(config.debugLowWaterMark, config.debugHighWaterMark);
         try {
+            workerGroup.next().scheduleAtFixedRate(publisher, publisher.periodNanos(), publisher.periodNanos(), TimeUnit.NANOSECONDS);
+
             ServerBootstrap b = new ServerBootstrap(); // (2)
             b.group(bossGroup, workerGroup)
                     .channel(NioServerSocketChannel.class) // (3)
                     .childHandler(new ChannelInitializer<SocketChannel>() { // (4)
                         @Override
                         public void initChannel(SocketChannel ch) throws Exception {
-                            ch.pipeline().addLast(new DebugServerHandler());
+                            ch.pipeline().addLast(new FixedLengthFrameDecoder(DebugServerHandler.REQUEST_LENGTH),
+                                    new DebugServerHandler(publisher));
                         }
                     })
                     .option(ChannelOption.SO_BACKLOG, 128)          // (5)
-                    .childOption(ChannelOption.SO_KEEPALIVE, true); // (6)
+                    .childOption(ChannelOption.SO_KEEPALIVE, true) // (6)
+                    .childOption(ChannelOption.TCP_NODELAY, true)
+                    .childOption(ChannelOption.WRITE_BUFFER_WATER_MARK, waterMark);
 
             // Bind and start to accept incoming connections.
             ChannelFuture f = b.bind(port).sync(); // (7)
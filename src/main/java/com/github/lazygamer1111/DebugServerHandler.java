@@ -1,9 +1,6 @@
 package com.github.lazygamer1111;
 
 import io.netty.buffer.ByteBuf;
-import io.netty.buffer.Unpooled;
-import io.netty.channel.ChannelFuture;
-import io.netty.channel.ChannelFutureListener;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.ChannelInboundHandlerAdapter;
 import org.slf4j.Logger;
@@ -12,8 +9,12 @@ import org.slf4j.LoggerFactory;
 /**
  * Handler for debug server connections.
  * 
- * This class handles incoming connections to the debug server by sending
- * the current controller data to the client and then closing the connection.
+ * This class handles subscription requests from debug clients. A client keeps its
+ * connection open and sends a {@value #REQUEST_LENGTH}-byte request: the byte
+ * {@code 'S'}, a topic mask (see {@link DebugStreamPublisher}) and a big-endian 16-bit
+ * update rate in Hz. It can send a new request at any time to change its
+ * subscription; a topic mask of 0 stops the stream. The data itself is written by
+ * the shared {@link DebugStreamPublisher}.
  * It extends Netty's ChannelInboundHandlerAdapter to process channel events.
  * 
  * @author lazygamer1111
@@ -23,32 +24,55 @@ import org.slf4j.LoggerFactory;
  */
 public class DebugServerHandler extends ChannelInboundHandlerAdapter {
 
+    /** Length of a subscription request, framed by a {@code FixedLengthFrameDecoder} */
+    public static final int REQUEST_LENGTH = 4;
+
+    /** First byte of a subscription request */
+    public static final int SUBSCRIBE = 'S';
+
+    /** The publisher that streams data to this client */
+    private final DebugStreamPublisher publisher;
+
+    /**
+     * @param publisher the publisher shared by all connections, running on the same event loop
+     */
+    public DebugServerHandler(DebugStreamPublisher publisher) {
+        this.publisher = publisher;
+    }
+
     /**
-     * Handles a new active connection to the debug server.
+     * Handles a subscription request.
      * <p>
-     * This method is called when a new client connects to the debug server.
-     * It creates a buffer, writes the current controller data values to it,
-     * sends the buffer to the client, and then closes the connection.
+     * Requests are already framed to {@value #REQUEST_LENGTH} bytes. Anything that
+     * is not a subscription request closes the connection.
      *
      * @param ctx the channel handler context
-     * @throws Exception if an error occurs during processing
+     * @param msg the framed request
      */
     @Override
-    public void channelActive(ChannelHandlerContext ctx) throws Exception {
-        // Allocate a buffer to hold the controller data
-        final ByteBuf buf = ctx.alloc().buffer(1024);
-        
-        // Write each controller data value to the buffer
-        for (int val : Main.controllerData) {
-            buf.writeInt(val);
+    public void channelRead(ChannelHandlerContext ctx, Object msg) {
+        ByteBuf request = (ByteBuf) msg;
+        try {
+            if (request.readUnsignedByte() != SUBSCRIBE) {
+                ctx.close();
+                return;
+            }
+            int topics = request.readUnsignedByte();
+            int rateHz = request.readUnsignedShort();
+            publisher.subscribe(ctx.channel(), topics, rateHz);
+        } finally {
+            request.release();
         }
+    }
 
-        // Send the buffer to the client and close the connection when complete
-        final ChannelFuture f = ctx.writeAndFlush(buf);
-        f.addListener((ChannelFutureListener) future -> {
-            assert f == future;
-            ctx.close();
-        });
+    /**
+     * Stops streaming to a client that disconnected.
+     *
+     * @param ctx the channel handler context
+     */
+    @Override
+    public void channelInactive(ChannelHandlerContext ctx) {
+        publisher.unsubscribe(ctx.channel());
     }
 
     /**
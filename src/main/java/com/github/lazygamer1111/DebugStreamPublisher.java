@@ -0,0 +1,281 @@
+package com.github.lazygamer1111;
+
+import com.github.lazygamer1111.dataTypes.ControllerSnapshot;
+import com.github.lazygamer1111.dataTypes.KissTelemetry;
+import com.github.lazygamer1111.threads.ControlScheduler;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.channel.Channel;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Fans live data out to every subscribed debug client.
+ * <p>
+ * Runs on the debug server's single event loop, so subscriptions need no locking.
+ * On every tick each topic that at least one client is due for is encoded once into
+ * a pooled buffer, and every due client gets a retained duplicate of that same
+ * buffer; the cost per extra client is one reference and one write. Clients whose
+ * outbound buffer is above the high write watermark are skipped: they are conflated
+ * to the newest sample once they drain, instead of queueing old ones.
+ * <p>
+ * Each message is a type byte, a big-endian 16-bit payload length and the payload,
+ * see {@link #CHANNELS}, {@link #TELEMETRY} and {@link #LOOP_STATS}.
+ *
+ * @author lazygamer1111
+ * @version 1.0
+ * @since 2026-10-17
+ * @see DebugServerHandler
+ */
+public class DebugStreamPublisher implements Runnable {
+    /** Topic bit and message type: sequence (u64), receive nanoTime (u64), 14 channels (u16 each) */
+    public static final int CHANNELS = 1;
+
+    /** Topic bit and message type: receive nanoTime (u64), temperature (u8), voltage, current, consumption (u16), eRPM (u32) */
+    public static final int TELEMETRY = 2;
+
+    /** Topic bit and message type: task count (u8), then per task ticks, overruns, p99 jitter ns, max execution ns (u64 each) */
+    public static final int LOOP_STATS = 4;
+
+    /** Length of the type and length prefix of every message */
+    static final int HEADER_LENGTH = 3;
+
+    private final ControllerSnapshot source;
+    private final KissTelemetry telemetrySource;
+    private final ControlScheduler scheduler;
+    private final ByteBufAllocator alloc;
+    private final int maxRateHz;
+
+    private final ControllerSnapshot snapshot = new ControllerSnapshot();
+    private final KissTelemetry telemetry = new KissTelemetry();
+    private final List<Subscription> subscriptions = new ArrayList<>();
+
+    /**
+     * @param source          the shared controller snapshot
+     * @param telemetrySource the shared KISS telemetry
+     * @param scheduler       the control scheduler to report loop statistics for, or null
+     * @param alloc           the allocator for the shared message buffers
+     * @param maxRateHz       the highest rate a client may subscribe at, also the tick rate
+     */
+    public DebugStreamPublisher(ControllerSnapshot source, KissTelemetry telemetrySource, ControlScheduler scheduler,
+                                ByteBufAllocator alloc, int maxRateHz) {
+        this.source = source;
+        this.telemetrySource = telemetrySource;
+        this.scheduler = scheduler;
+        this.alloc = alloc;
+        this.maxRateHz = maxRateHz;
+    }
+
+    /**
+     * Adds, changes or (with no topics) removes a client's subscription.
+     * Must be called on the publisher's event loop.
+     *
+     * @param channel the client
+     * @param topics  a combination of {@link #CHANNELS}, {@link #TELEMETRY} and {@link #LOOP_STATS}
+     * @param rateHz  the requested update rate, capped at the maximum rate
+     */
+    public void subscribe(Channel channel, int topics, int rateHz) {
+        unsubscribe(channel);
+        if (topics == 0) {
+            return;
+        }
+        long interval = 1_000_000_000L / Math.max(1, Math.min(rateHz, maxRateHz));
+        subscriptions.add(new Subscription(channel, topics, interval));
+    }
+
+    /**
+     * Removes a client. Must be called on the publisher's event loop.
+     */
+    public void unsubscribe(Channel channel) {
+        subscriptions.removeIf(s -> s.channel == channel);
+    }
+
+    /**
+     * @return the number of subscribed clients
+     */
+    public int subscribers() {
+        return subscriptions.size();
+    }
+
+    /**
+     * @return the tick period in nanoseconds
+     */
+    public long periodNanos() {
+        return 1_000_000_000L / maxRateHz;
+    }
+
+    /**
+     * One publishing tick: encodes what is due and writes it to every due client.
+     */
+    @Override
+    public void run() {
+        if (subscriptions.isEmpty()) {
+            return;
+        }
+        long now = System.nanoTime();
+        int due = 0;
+        for (Subscription s : subscriptions) {
+            if (now - s.nextDue >= 0 && s.channel.isWritable()) {
+                s.due = true;
+                due |= s.topics;
+            } else {
+                s.due = false;
+            }
+        }
+        if (due == 0) {
+            return;
+        }
+
+        ByteBuf channels = null;
+        ByteBuf telemetryMessage = null;
+        ByteBuf stats = null;
+        if ((due & CHANNELS) != 0) {
+            source.copyTo(snapshot);
+            if (snapshot.sequence != 0 && anyUnseen(CHANNELS, snapshot.sequence)) {
+                channels = encodeChannels(alloc, snapshot);
+            }
+        }
+        if ((due & TELEMETRY) != 0) {
+            telemetrySource.copyTo(telemetry);
+            if (telemetry.timestamp != 0 && anyUnseen(TELEMETRY, telemetry.timestamp)) {
+                telemetryMessage = encodeTelemetry(alloc, telemetry);
+            }
+        }
+        if ((due & LOOP_STATS) != 0 && scheduler != null) {
+            stats = encodeLoopStats(alloc, scheduler);
+        }
+
+        for (Subscription s : subscriptions) {
+            if (!s.due) {
+                continue;
+            }
+            boolean wrote = write(s, CHANNELS, channels, snapshot.sequence != s.lastSequence);
+            if (wrote) {
+                s.lastSequence = snapshot.sequence;
+            }
+            if (write(s, TELEMETRY, telemetryMessage, telemetry.timestamp != s.lastTelemetry)) {
+                s.lastTelemetry = telemetry.timestamp;
+                wrote = true;
+            }
+            wrote |= write(s, LOOP_STATS, stats, true);
+            // A client with nothing new stays due, so the next sample goes out on the next tick
+            if (wrote) {
+                s.channel.flush();
+                s.nextDue = now + s.interval;
+            }
+        }
+
+        if (channels != null) {
+            channels.release();
+        }
+        if (telemetryMessage != null) {
+            telemetryMessage.release();
+        }
+        if (stats != null) {
+            stats.release();
+        }
+    }
+
+    /**
+     * Checks whether a due client subscribed to {@code topic} has not yet been sent
+     * the sample identified by {@code version}, so idle data is not re-encoded.
+     */
+    private boolean anyUnseen(int topic, long version) {
+        for (Subscription s : subscriptions) {
+            if (s.due && (s.topics & topic) != 0
+                    && (topic == CHANNELS ? s.lastSequence : s.lastTelemetry) != version) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Writes a shared message to a client if it subscribed to the topic and has not seen it.
+     *
+     * @return true if something was written
+     */
+    private static boolean write(Subscription s, int topic, ByteBuf message, boolean unseen) {
+        if ((s.topics & topic) == 0 || message == null || !unseen) {
+            return false;
+        }
+        s.channel.write(message.retainedDuplicate());
+        return true;
+    }
+
+    /**
+     * Encodes a {@link #CHANNELS} message.
+     *
+     * @param alloc    the allocator to take the buffer from
+     * @param snapshot a consistent copy of the controller data
+     * @return a buffer containing the message, owned by the caller
+     */
+    static ByteBuf encodeChannels(ByteBufAllocator alloc, ControllerSnapshot snapshot) {
+        int length = 16 + 2 * ControllerSnapshot.CHANNELS;
+        ByteBuf buf = alloc.directBuffer(HEADER_LENGTH + length);
+        buf.writeByte(CHANNELS);
+        buf.writeShort(length);
+        buf.writeLong(snapshot.sequence);
+        buf.writeLong(snapshot.timestamp);
+        for (int val : snapshot.channels) {
+            buf.writeShort(val);
+        }
+        return buf;
+    }
+
+    /**
+     * Encodes a {@link #TELEMETRY} message.
+     */
+    static ByteBuf encodeTelemetry(ByteBufAllocator alloc, KissTelemetry telemetry) {
+        int length = 8 + 1 + 3 * 2 + 4;
+        ByteBuf buf = alloc.directBuffer(HEADER_LENGTH + length);
+        buf.writeByte(TELEMETRY);
+        buf.writeShort(length);
+        buf.writeLong(telemetry.timestamp);
+        buf.writeByte(telemetry.temperature);
+        buf.writeShort(telemetry.voltage);
+        buf.writeShort(telemetry.current);
+        buf.writeShort(telemetry.consumption);
+        buf.writeInt(telemetry.erpm);
+        return buf;
+    }
+
+    /**
+     * Encodes a {@link #LOOP_STATS} message.
+     */
+    static ByteBuf encodeLoopStats(ByteBufAllocator alloc, ControlScheduler scheduler) {
+        List<ControlScheduler.ScheduledTask> tasks = scheduler.tasks();
+        int length = 1 + tasks.size() * 4 * 8;
+        ByteBuf buf = alloc.directBuffer(HEADER_LENGTH + length);
+        buf.writeByte(LOOP_STATS);
+        buf.writeShort(length);
+        buf.writeByte(tasks.size());
+        for (ControlScheduler.ScheduledTask task : tasks) {
+            buf.writeLong(task.ticks());
+            buf.writeLong(task.overruns());
+            buf.writeLong(task.jitter().percentile(0.99));
+            buf.writeLong(task.executionTime().max());
+        }
+        return buf;
+    }
+
+    /**
+     * One client's subscription. Only touched on the event loop.
+     */
+    private static class Subscription {
+        final Channel channel;
+        final int topics;
+        final long interval;
+        long nextDue = System.nanoTime();
+        long lastSequence = -1;
+        long lastTelemetry = -1;
+        boolean due;
+
+        Subscription(Channel channel, int topics, long interval) {
+            this.channel = channel;
+            this.topics = topics;
+            this.interval = interval;
+        }
+    }
+}
@@ -1,8 +1,29 @@
 package com.github.lazygamer1111;
 
 
-import com.github.lazygamer1111.components.output.ESC;
+import com.fazecast.jSerialComm.SerialPort;
+import com.github.lazygamer1111.components.input.SerialSource;
+import com.github.lazygamer1111.components.input.UartSerialSource;
+import com.github.lazygamer1111.components.output.ESCGroup;
 import com.github.lazygamer1111.components.output.Servo;
+import com.github.lazygamer1111.components.output.SysfsPwm;
+import com.github.lazygamer1111.config.LiveSettings;
+import com.github.lazygamer1111.config.Settings;
+import com.github.lazygamer1111.dataTypes.ControllerSnapshot;
+import com.github.lazygamer1111.dataTypes.KissTelemetry;
+import com.github.lazygamer1111.dashboard.Dashboard;
+import com.github.lazygamer1111.logging.AsyncBatchAppender;
+import com.github.lazygamer1111.metrics.LatencyTracer;
+import com.github.lazygamer1111.metrics.MetricsEndpoint;
+import com.github.lazygamer1111.metrics.MetricsRegistry;
+import com.github.lazygamer1111.metrics.TelemetryStore;
+import com.github.lazygamer1111.mixer.ChannelCurves;
+import com.github.lazygamer1111.mixer.Mixer;
+import com.github.lazygamer1111.recorder.FlightRecorder;
+import com.github.lazygamer1111.sim.FrameGenerator;
+import com.github.lazygamer1111.sim.SimHardware;
+import com.github.lazygamer1111.startup.Startup;
+import com.github.lazygamer1111.startup.Supervisor;
 import com.github.lazygamer1111.threads.*;
 import com.pi4j.Pi4J;
 import com.pi4j.context.Context;
@@ -14,17 +35,15 @@ import com.pi4j.io.pwm.PwmType;
 import com.pi4j.plugin.gpiod.provider.gpio.digital.GpioDDigitalInputProvider;
 import com.pi4j.plugin.gpiod.provider.gpio.digital.GpioDDigitalOutputProvider;
 import com.pi4j.plugin.linuxfs.provider.pwm.LinuxFsPwmProvider;
-import io.avaje.config.Config;
-import org.quartz.*;
-import org.quartz.impl.StdSchedulerFactory;
+import org.apache.log4j.Level;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import static org.quartz.SimpleScheduleBuilder.*;
 
 import java.io.File;
+import java.io.IOException;
 import java.net.URI;
 import java.nio.file.Path;
-import java.util.ArrayList;
+import java.util.Map;
 
 /**
  * The type Main.
@@ -33,13 +52,35 @@ public class Main {
 
     private static final Logger log = LoggerFactory.getLogger(Main.class);
 
-    private static final ArrayList<Thread> threads = new ArrayList<>();
-    static volatile int[] controllerData = new int[14];
+    public static final LiveSettings settings = LiveSettings.load();
+    static final ControllerSnapshot controllerData = new ControllerSnapshot();
+    public static final KissTelemetry telemetry = new KissTelemetry();
+    public static final TelemetryStore telemetryHistory = new TelemetryStore(
+            settings.get().telemetryRawCapacity,
+            settings.get().telemetryFineCapacity,
+            settings.get().telemetryCoarseCapacity);
+    static final FrameNotifier frameNotifier = new FrameNotifier();
     static boolean DEBUG = false;
-    public static ESC esc;
+    static boolean SIM = false;
+    public static ESCGroup esc;
+    public static ChannelCurves curves;
     public static Servo servo;
-    public static Scheduler scheduler;
+    public static ControlScheduler scheduler;
     public static Context pi4j;
+    public static SimHardware sim;
+    public static InputWatchdog ioWatchdog;
+    public static InputWatchdog pioWatchdog;
+    public static FlightRecorder recorder;
+    public static AsyncBatchAppender asyncLog;
+    public static Dashboard dashboard;
+    public static SerialThread serialThread;
+    public static SerialKiss kissThread;
+    public static final MetricsRegistry metrics = new MetricsRegistry("eindwerk_");
+    public static MetricsEndpoint metricsEndpoint;
+    public static LatencyTracer tracer;
+    public static final Startup startup = new Startup();
+    public static final Supervisor supervisor = new Supervisor(settings.get().supervisorCheckMillis,
+            settings.get().shutdownStepTimeoutMillis);
 
     /**
      * The entry point of application.
@@ -47,125 +88,414 @@ public class Main {
      * @param args the input arguments
      */
     public static void main(String[] args) throws Exception {
-        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
-            try {
-                log.info("Shutting down...");
-                scheduler.shutdown();
+        Settings config = settings.get();
+        applyLogLevels(config);
+
+        // Write log output from a background thread so the SD card never stalls the I/O threads
+        if (config.logAsync) {
+            asyncLog = AsyncBatchAppender.install(config.logQueueCapacity, config.logBatchSize);
+        }
+
+        // Outputs are made safe first, then their pipes closed, then the hardware released
+        supervisor.onShutdown("control", () -> {
+            log.info("Shutting down...");
+            if (scheduler != null && !scheduler.shutdown(settings.get().shutdownStepTimeoutMillis / 2)) {
+                log.error("Control tasks did not stop, the output steps wait for them once more");
+            }
+        });
+        supervisor.onShutdown("throttle", () -> {
+            if (esc != null && controlStopped("ESCs")) {
+                for (int m = 0; m < esc.motors(); m++) {
+                    esc.set(m, PIOJob.FAILSAFE_THROTTLE, false);
+                }
+                // Waits for window room and the reply, so the pipes are not closed on an unsent zero
+                long timeoutNanos = settings.get().shutdownStepTimeoutMillis * 1_000_000L / 2;
+                if (esc.sendConfirmed(timeoutNanos)) {
+                    log.info("ESCs acknowledged zero throttle");
+                } else {
+                    log.error("ESCs did not acknowledge zero throttle");
+                }
+            }
+        });
+        supervisor.onShutdown("servo", () -> {
+            if (servo != null && controlStopped("servo")) {
+                servo.setAngle(IOJob.FAILSAFE_ANGLE);
+            }
+        });
+        supervisor.onShutdown("recorder", () -> {
+            if (recorder != null) {
+                recorder.close();
+            }
+        });
+        supervisor.onShutdown("pipes", () -> {
+            if (esc != null) {
+                esc.close();
+            }
+            if (sim != null) {
+                sim.close();
+            }
+        });
+        supervisor.onShutdown("pi4j", () -> {
+            if (pi4j != null) {
                 pi4j.shutdown();
-            } catch (SchedulerException e) {
-                throw new RuntimeException(e);
             }
-            for (Thread thread : threads) {
-                thread.interrupt();
+        });
+        supervisor.onShutdown("servers", () -> {
+            if (dashboard != null) {
+                dashboard.stop();
+            }
+            if (metricsEndpoint != null) {
+                metricsEndpoint.stop();
+            }
+        });
+        supervisor.onShutdown("log", () -> {
+            if (asyncLog != null) {
+                asyncLog.close();
             }
-        }));
+        });
+        Runtime.getRuntime().addShutdownHook(new Thread(supervisor::shutdown, "Shutdown"));
 
+        SIM = config.sim;
+        DEBUG = config.debug;
 
-        log.debug("Starting I/O...");
-        createIO();
+        // Independent subsystems start in parallel; the outputs are armed last
+        long timeout = config.startupTimeoutMillis;
+        startup.stage("sim", true, timeout, Main::createSim)
+                .stage("servo", true, timeout, Main::createServo, "sim")
+                .stage("esc", false, timeout, Main::createEsc, "sim")
+                .stage("serial", true, timeout, Main::createThreads, "sim")
+                .stage("recorder", false, timeout, Main::createRecorder, "servo")
+                .stage("scheduler", true, timeout, Main::createScheduler, "servo", "esc", "serial", "recorder")
+                .stage("tracer", false, timeout, Main::createTracer, "servo", "esc")
+                .stage("dashboard", false, timeout, Main::createDashboard, "servo", "esc")
+                .stage("metrics", false, timeout, Main::createMetrics, "scheduler", "tracer", "dashboard");
+        if (DEBUG) {
+            int port = args.length > 0 ? Integer.parseInt(args[0]) : 8080;
+            startup.stage("debug", false, timeout, () -> startDebugServer(port), "scheduler");
+        }
+        if (!config.startupTrainArchive) {
+            startup.stage("arm", true, timeout, () -> scheduler.start(), "scheduler", "tracer");
+        }
 
-        log.debug("Starting scheduler...");
+        boolean ready = startup.await();
+        log.info("Startup took {} ms{}{}", startup.readyAtNanos(config.startupTrainArchive ? "scheduler" : "arm") / 1_000_000,
+                System.lineSeparator(), startup.report());
+        if (config.startupTrainArchive) {
+            // Only loads the startup classes for the AppCDS archive written at exit, never arms
+            log.info("Class archive training run done");
+            System.exit(0);
+        }
+        if (!ready) {
+            log.error("A required subsystem is not ready, outputs stay disarmed");
+            System.exit(1);
+        }
 
-        createScheduler();
+        // Tunables apply live from here on; hardware and threads keep the startup values
+        settings.listen(next -> curves.update(next.curves()));
+        settings.listen(Main::applyLogLevels);
+        settings.watch();
 
-        DEBUG = Config.getBool("debug");
+        // The main thread only wakes up for health checks from here on
+        supervisor.run();
+    }
 
-        try {
-            createThreads();
-        } catch (Exception e) {
-            log.error(e.getMessage(), e);
-        }
-        if (DEBUG) {
-            int port = 8080;
-            if (args.length > 0) {
-                port = Integer.parseInt(args[0]);
+    private static void startDebugServer(int port) {
+        supervisor.supervise("debug", debugServer(port), previous -> debugServer(port), settings.get().supervisorRestart);
+    }
+
+    private static Thread debugServer(int port) {
+        Thread server = new Thread(() -> {
+            try {
+                new DebugServer(port).run();
+            } catch (Exception e) {
+                log.error("Debug server stopped: {}", e.getMessage(), e);
             }
+        }, "Debug Server");
+        server.setDaemon(true);
+        return server;
+    }
 
-            new DebugServer(port).run();
+    private static void createTracer() {
+        Settings config = settings.get();
+        if (config.trace) {
+            tracer = new LatencyTracer(config.traceSampleEvery, config.traceSampleBuffer);
+            servo.tracer(tracer);
+            if (esc != null) {
+                esc.tracer(tracer);
+            }
         }
+    }
 
-        while (true);
+    private static void createDashboard() {
+        Settings config = settings.get();
+        if (config.dashboard) {
+            dashboard = new Dashboard(controllerData, telemetry, servo, esc, config.dashboardMaxRateHz);
+            dashboard.start(config.dashboardPort);
+        }
+    }
+
+    private static void createMetrics() {
+        Settings config = settings.get();
+        if (config.metrics) {
+            registerMetrics();
+            metricsEndpoint = new MetricsEndpoint(metrics, tracer);
+            metricsEndpoint.start(config.metricsPort);
+        }
     }
 
     /**
      * Create threads.
      */
     private static void createThreads() {
-        Thread serial = new SerialThread(controllerData);
-        Thread serialKiss = new SerialKiss();
-        Thread serialTelem = new SerialTelem();
-        threads.add(serial);
-        threads.add(serialKiss);
-//        threads.add(serialTelem);
+        Settings config = settings.get();
+        SerialSource receiver = SIM ? sim.receiverSource() : new UartSerialSource(config.receiverPort, config.receiverBaud, SerialPort.TIMEOUT_READ_SEMI_BLOCKING);
+        SerialSource kiss = SIM ? sim.kissSource() : new UartSerialSource(config.kissPort, config.kissBaud, SerialPort.TIMEOUT_READ_SEMI_BLOCKING);
+
+        serialThread = new SerialThread(controllerData, receiver, frameNotifier);
+        kissThread = new SerialKiss(kiss, telemetry, telemetryHistory);
 
-        for (Thread thread : threads) {
-            thread.start();
+        // A reader that stops on an I/O error is replaced by one that reopens its port
+        Supervisor.RestartPolicy restart = config.supervisorRestart;
+        supervisor.supervise("serial", serialThread, previous -> serialThread = new SerialThread(previous), restart);
+        supervisor.supervise("kiss", kissThread, previous -> kissThread = new SerialKiss(previous), restart);
+    }
+
+    private static void createSim() throws IOException {
+        if (SIM) {
+            // Swap the Pi hardware for local stand-ins, driven at 10x the nominal frame rate by default
+            Settings config = settings.get();
+            sim = SimHardware.start(FrameGenerator.NOMINAL_FRAME_RATE * config.simRateMultiplier, config.simBinaryProtocol);
         }
     }
 
-    private static void createIO() {
+    private static void createServo() throws IOException {
+        Settings config = settings.get();
+        String pwmRoot = SIM ? sim.pwmPath() : config.pwmRoot;
+        LinuxFsPwmProvider pwmProvider = LinuxFsPwmProvider.newInstance(pwmRoot, config.pwmChip);
+
         pi4j = Pi4J.newContextBuilder()
-                .add(LinuxFsPwmProvider.newInstance(0))
+                .add(pwmProvider)
                 .build();
 
-        PwmConfigBuilder servoConfig = Pwm.newConfigBuilder(pi4j)
-                .id("servo")
-                .name("servo")
-                .address(2)
-                .pwmType(PwmType.HARDWARE)
-                .provider("linuxfs-pwm")
-                .frequency(50)
-                .initial(5);
-        servo = new Servo(pi4j.create(servoConfig), 0d, 90d, 1d/1000d, 2d/1000d, 50);
-        try {
-            esc = new ESC(4, 300, new File("/home/pi/NamedPipes/PIOTelemetry"), new File("/home/pi/NamedPipes/PIOPipe"));
-            log.info("ESC created successfully");
-        } catch (Exception e) {
-            log.error(e.getMessage(), e);
+        if (config.servoSysfs) {
+            // Keeps duty_cycle open and writes precomputed values instead of going through Pi4J
+            servo = new Servo(new SysfsPwm(Path.of(pwmRoot), config.pwmChip, config.pwmChannel), 0d, 90d, 1d/1000d, 2d/1000d, config.servoFrequency);
+        } else {
+            PwmConfigBuilder servoConfig = Pwm.newConfigBuilder(pi4j)
+                    .id("servo")
+                    .name("servo")
+                    .address(config.pwmChannel)
+                    .pwmType(PwmType.HARDWARE)
+                    .provider("linuxfs-pwm")
+                    .frequency(config.servoFrequency)
+                    .initial(5);
+            servo = new Servo(pi4j.create(servoConfig), 0d, 90d, 1d/1000d, 2d/1000d, config.servoFrequency);
+        }
+    }
+
+    /**
+     * Output steps write from the shutdown thread, so the control tasks, which write
+     * the same outputs from their own threads, must have exited first.
+     *
+     * @param output what the step sets, for the log
+     * @return true if no control task is running anymore
+     */
+    private static boolean controlStopped(String output) {
+        if (scheduler == null || scheduler.stopped()
+                || scheduler.shutdown(settings.get().shutdownStepTimeoutMillis / 4)) {
+            return true;
+        }
+        log.error("Control tasks still running, leaving the {} to them", output);
+        return false;
+    }
+
+    /**
+     * Registers the ESCs with the PIO helper, which blocks until the helper answers.
+     */
+    private static void createEsc() throws IOException {
+        Settings config = settings.get();
+        File escIn = SIM ? sim.escTelemetryPipe() : new File(config.escTelemetryPipe);
+        File escOut = SIM ? sim.escCommandPipe() : new File(config.escCommandPipe);
+        ESCGroup group = new ESCGroup(config.escPins(), config.escSpeedKbs, escIn, escOut);
+        if (!startup.commit("esc", () -> esc = group)) {
+            // Startup gave up on the helper and went on without ESCs, so this one stays unused
+            group.close();
+            throw new IOException("PIO helper answered after the startup timeout");
         }
+        log.info("{} ESC(s) created successfully", group.motors());
+    }
 
+    private static void createRecorder() {
+        Settings config = settings.get();
+        if (config.recorder) {
+            String recorderDir = SIM
+                    ? Path.of(System.getProperty("java.io.tmpdir"), "eindwerk-flightlog").toString()
+                    : config.recorderDir;
+            try {
+                recorder = new FlightRecorder(Path.of(recorderDir),
+                        config.recorderSegmentBytes,
+                        config.recorderMaxSegments,
+                        servo, telemetry);
+            } catch (IOException e) {
+                log.error("Flight recorder disabled: {}", e.getMessage(), e);
+            }
+        }
     }
 
-    private static void createScheduler() throws SchedulerException {
+    /**
+     * Builds the control tasks. They only start running, and the outputs are only
+     * armed, in the {@code arm} startup stage.
+     */
+    private static void createScheduler() {
         log.debug("ESC = {}", esc);
 
-        scheduler = StdSchedulerFactory.getDefaultScheduler();
+        scheduler = new ControlScheduler();
+        Settings config = settings.get();
 
-        scheduler.start();
+        ioWatchdog = new InputWatchdog("IOJob", config.failsafeDeadlineNanos);
+        pioWatchdog = new InputWatchdog("PIOJob", config.failsafeDeadlineNanos);
 
-        JobDataMap JobMapIO = new JobDataMap();
-        JobMapIO.put("servo", servo);
-        JobMapIO.put("ControllerData", controllerData);
+        long spinNanos = config.spinNanos;
+        ControlScheduler.OverrunPolicy overrunPolicy = config.overrunPolicy;
+        long servoPeriod = config.servoPeriodNanos;
+        long escPeriod = config.escPeriodNanos;
 
-        JobDetail IOJob = JobBuilder.newJob(IOJob.class)
-                .withIdentity("IOJob")
-                .usingJobData(JobMapIO)
-                .build();
-        Trigger IOJobTrigger = TriggerBuilder.newTrigger().withIdentity("IOJobTrigger")
-                .startNow()
-                .withSchedule(simpleSchedule()
-                        .withIntervalInMilliseconds(21)
-                        .repeatForever())
-                .build();
+        // In input mode the stages run on every new frame and the periods only act as minimum refresh
+        boolean inputTriggered = config.inputTriggered;
 
-        JobDataMap jobMapPIO = new JobDataMap();
-        jobMapPIO.put("ESC", esc);
-        jobMapPIO.put("ControllerData", controllerData);
+        Mixer mixer = config.mixer;
+        log.info("Mixer compiled with {} outputs", mixer.outputs());
+        curves = new ChannelCurves();
+        curves.update(config.curves());
 
-        JobDetail PIOJob = JobBuilder.newJob(PIOJob.class)
-                .withIdentity("PIOJob")
-                .usingJobData(jobMapPIO)
-                .build();
-        Trigger PIOJobTrigger = TriggerBuilder.newTrigger().withIdentity("PIOJobTrigger")
-                .startNow()
-                .withSchedule(simpleSchedule()
-                        .withIntervalInMilliseconds(10)
-                        .repeatForever())
-                .build();
+        ControlScheduler.ScheduledTask io = scheduler.schedule("IOJob",
+                        new IOJob(controllerData, servo, ioWatchdog, inputTriggered ? deadband(servoPeriod) : null,
+                                curves, mixer, "servo"),
+                        servoPeriod)
+                .priority(Thread.MAX_PRIORITY - 1)
+                .spinNanos(spinNanos)
+                .overrunPolicy(overrunPolicy);
+
+        ControlScheduler.ScheduledTask pio = scheduler.schedule("PIOJob",
+                        new PIOJob(controllerData, esc, pioWatchdog, inputTriggered ? deadband(escPeriod) : null, recorder, curves, mixer),
+                        escPeriod)
+                .priority(Thread.MAX_PRIORITY)
+                .spinNanos(spinNanos)
+                .overrunPolicy(overrunPolicy);
 
-        scheduler.scheduleJob(IOJob, IOJobTrigger);
-        scheduler.scheduleJob(PIOJob, PIOJobTrigger);
+        if (inputTriggered) {
+            io.triggeredBy(frameNotifier, config.servoMinIntervalNanos);
+            pio.triggeredBy(frameNotifier, config.escMinIntervalNanos);
+        }
+
+        // A control thread cannot be replaced, but its failure is logged and exported
+        for (ControlScheduler.ScheduledTask task : scheduler.tasks()) {
+            supervisor.watch(task.name(), task::alive);
+        }
+    }
+
+    /**
+     * Exposes the counters and histograms the components keep. Only reads them when
+     * scraped, so nothing is added to the I/O threads.
+     */
+    private static void registerMetrics() {
+        if (serialThread != null) {
+            metrics.counter("ibus_frames_total", "Valid iBUS frames received", null, serialThread.parser()::goodFrames);
+            metrics.counter("ibus_bad_frames_total", "iBUS frames that failed the checksum", null, serialThread.parser()::badFrames);
+            metrics.counter("ibus_resyncs_total", "Times the iBUS parser regained frame sync", null, serialThread.parser()::resyncs);
+            metrics.timer("ibus_frame_interval_seconds", "Time between received iBUS frames", null, serialThread.frameInterval());
+        }
+        if (kissThread != null) {
+            metrics.counter("kiss_frames_total", "Valid KISS telemetry frames received", null, kissThread::frames);
+            metrics.counter("kiss_crc_errors_total", "KISS telemetry frames that failed the CRC", null, kissThread::crcErrors);
+        }
+
+        for (ControlScheduler.ScheduledTask task : scheduler.tasks()) {
+            String labels = "task=\"" + task.name() + "\"";
+            metrics.counter("control_ticks_total", "Control ticks run", labels, task::ticks);
+            metrics.counter("control_overruns_total", "Control ticks that ran past the next deadline", labels, task::overruns);
+            metrics.counter("control_errors_total", "Control ticks that threw", labels, task::errors);
+            metrics.timer("control_interval_seconds", "Time between control tick starts", labels, task.interval());
+            metrics.timer("control_jitter_seconds", "Control tick start minus its deadline or frame receive time", labels, task.jitter());
+            metrics.timer("control_execution_seconds", "Control tick duration", labels, task.executionTime());
+        }
+        for (InputWatchdog watchdog : new InputWatchdog[] {ioWatchdog, pioWatchdog}) {
+            String labels = "stage=\"" + watchdog.stage() + "\"";
+            metrics.counter("failsafe_entries_total", "Times a stage entered failsafe", labels, watchdog::failsafeEntries);
+            metrics.gauge("failsafe_active", "1 while a stage outputs failsafe values", labels, () -> watchdog.inFailsafe() ? 1 : 0);
+            metrics.timer("input_frame_age_seconds", "Age of the controller frame a tick acted on", labels, watchdog.frameAge());
+        }
 
-        log.debug("Scheduler started");
+        if (esc != null) {
+            metrics.gauge("esc_motors", "ESCs driven through the PIO helper", null, esc::motors);
+            metrics.counter("esc_pipe_writes_total", "Writes to the PIO helper pipe, one per control tick", null, esc::pipeWrites);
+            metrics.counter("esc_frames_sent_total", "Binary frames written to the PIO helper", null, esc::sentFrames);
+            metrics.counter("esc_frames_acked_total", "Binary frames answered by the PIO helper", null, esc::ackedFrames);
+            metrics.counter("esc_overruns_total", "Frames dropped because the reply window was full", null, esc::overruns);
+            metrics.counter("esc_timeouts_total", "Frames never answered within the ack timeout", null, esc::timeouts);
+            metrics.gauge("esc_in_flight", "Frames awaiting a reply from the PIO helper", null, esc::inFlight);
+            metrics.timer("esc_round_trip_seconds", "PIO helper pipe round-trip time", null, esc.roundTrip());
+        }
+        metrics.timer("servo_write_seconds", "Servo PWM duty cycle write time", null, servo.writeTime());
+
+        for (String stage : startup.names()) {
+            metrics.gauge("startup_stage_seconds", "Time a startup stage took", "stage=\"" + stage + "\"",
+                    () -> startup.durationNanos(stage) / 1e9);
+        }
+        if (startup.names().contains("arm")) {
+            metrics.gauge("startup_armed_seconds", "Time from startup until the outputs were armed", null,
+                    () -> startup.readyAtNanos("arm") / 1e9);
+        }
+
+        for (String worker : supervisor.names()) {
+            String labels = "worker=\"" + worker + "\"";
+            metrics.gauge("supervisor_healthy", "1 while a worker passes its health check", labels, () -> supervisor.healthy(worker) ? 1 : 0);
+            metrics.counter("supervisor_restarts_total", "Times a failed worker was restarted", labels, () -> supervisor.restarts(worker));
+        }
+
+        if (tracer != null) {
+            for (int output = 0; output < LatencyTracer.OUTPUT_NAMES.length; output++) {
+                for (int stage = 0; stage < LatencyTracer.STAGE_NAMES.length; stage++) {
+                    if (output == LatencyTracer.SERVO && stage == LatencyTracer.ACK) {
+                        continue;
+                    }
+                    String labels = "output=\"" + LatencyTracer.OUTPUT_NAMES[output] + "\",stage=\"" + LatencyTracer.STAGE_NAMES[stage] + "\"";
+                    metrics.timer("latency_seconds", "Controller frame to output latency per stage", labels, tracer.stage(output, stage));
+                }
+            }
+        }
+
+        if (recorder != null) {
+            metrics.counter("recorder_records_total", "Flight recorder records written", null, recorder::records);
+            metrics.counter("recorder_dropped_total", "Flight recorder records dropped", null, recorder::dropped);
+        }
+        if (asyncLog != null) {
+            metrics.gauge("log_queue_depth", "Log events waiting to be written", null, asyncLog::backlog);
+            metrics.counter("log_dropped_total", "Log events dropped because the queue was full", null, asyncLog::dropped);
+        }
+        if (dashboard != null) {
+            metrics.gauge("dashboard_sessions", "Open dashboard WebSocket sessions", null, dashboard::sessions);
+            metrics.counter("dashboard_frames_conflated_total", "Dashboard frames skipped for slow sessions", null, dashboard::framesConflated);
+        }
+    }
+
+    /**
+     * Builds a deadband on the live {@code control.deadband} thresholds.
+     */
+    private static ChannelDeadband deadband(long refreshNanos) {
+        return new ChannelDeadband(settings, refreshNanos);
+    }
+
+    /**
+     * Sets the reload4j level of every logger named in {@code log.level.<logger>},
+     * {@code log.level.root} for the root logger.
+     */
+    private static void applyLogLevels(Settings config) {
+        for (Map.Entry<String, String> entry : config.logLevels.entrySet()) {
+            org.apache.log4j.Logger logger = entry.getKey().equals("root")
+                    ? org.apache.log4j.Logger.getRootLogger()
+                    : org.apache.log4j.Logger.getLogger(entry.getKey());
+            logger.setLevel(Level.toLevel(entry.getValue(), Level.INFO));
+        }
     }
 }
@@ -0,0 +1,60 @@
+package com.github.lazygamer1111.components.input;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+
+/**
+ * Serial source that reads from a file, named pipe or character device.
+ * <p>
+ * Used by the simulator to feed generated frames into the serial threads without
+ * any UART hardware. Opening a named pipe blocks until a writer connects.
+ *
+ * @author lazygamer1111
+ * @version 1.0
+ * @since 2026-10-17
+ */
+public class FileSerialSource implements SerialSource {
+
+    /** The file to read from */
+    private final File file;
+
+    /** The open stream, or null before {@link #open()} */
+    private FileInputStream in;
+
+    /**
+     * Creates a source for the given file.
+     *
+     * @param file the file, named pipe or device to read from
+     */
+    public FileSerialSource(File file) {
+        this.file = file;
+    }
+
+    @Override
+    public void open() throws IOException {
+        in = new FileInputStream(file);
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int length) throws IOException {
+        return in.read(buffer, offset, length);
+    }
+
+    @Override
+    public int available() throws IOException {
+        return in.available();
+    }
+
+    @Override
+    public String name() {
+        return file.getPath();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (in != null) {
+            in.close();
+        }
+    }
+}
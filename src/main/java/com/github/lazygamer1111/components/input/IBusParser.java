@@ -0,0 +1,161 @@
+package com.github.lazygamer1111.components.input;
+
+import java.io.IOException;
+
+/**
+ * Incremental, allocation-free parser for FlySky iBUS servo frames.
+ * <p>
+ * Received bytes are kept in a fixed ring buffer and scanned for the iBUS header
+ * (length {@code 0x20}, command {@code 0x40}). A candidate frame is only accepted
+ * when its checksum ({@code 0xFFFF} minus the sum of the first 30 bytes, sent
+ * little-endian) matches; otherwise the parser advances by a single byte, so a
+ * real header hidden inside a corrupt frame is still found. Valid frames are
+ * decoded into a preallocated channel array.
+ * <p>
+ * Not thread-safe; intended to be owned by the serial reader thread.
+ *
+ * @author lazygamer1111
+ * @version 1.0
+ * @since 2026-10-17
+ */
+public class IBusParser {
+    /** Length of an iBUS frame including length byte and checksum */
+    public static final int FRAME_LENGTH = 32;
+
+    /** Number of channels carried by a frame */
+    public static final int CHANNELS = 14;
+
+    private static final int LENGTH_BYTE = 0x20;
+    private static final int COMMAND_SERVO = 0x40;
+
+    /** Ring buffer of received, not yet consumed bytes, size is a power of two */
+    private final byte[] ring = new byte[256];
+    private final int mask = ring.length - 1;
+
+    /** Total bytes written into / consumed from the ring, only their difference matters */
+    private int head = 0;
+    private int tail = 0;
+
+    /** Channel values of the last valid frame */
+    private final int[] channels = new int[CHANNELS];
+
+    /** Whether the last scanned bytes formed valid frames */
+    private boolean synced = true;
+
+    // Single writer; volatile so the metrics scraper reads whole, current values
+    private volatile long goodFrames = 0;
+    private volatile long badFrames = 0;
+    private volatile long resyncs = 0;
+    private volatile long skippedBytes = 0;
+
+    /**
+     * Reads whatever the source has available into the ring buffer, blocking until
+     * at least one byte arrives.
+     *
+     * @param source the serial source to read from
+     * @return the number of bytes read, or -1 if the source is closed
+     * @throws IOException if reading fails
+     */
+    public int fill(SerialSource source) throws IOException {
+        int free = ring.length - (head - tail);
+        int offset = head & mask;
+        int n = source.read(ring, offset, Math.min(free, ring.length - offset));
+        if (n > 0) {
+            head += n;
+        }
+        return n;
+    }
+
+    /**
+     * Copies bytes into the ring buffer.
+     *
+     * @param src    the source array
+     * @param offset the index of the first byte
+     * @param length the number of bytes
+     * @return the number of bytes copied, less than {@code length} if the buffer is full
+     */
+    public int write(byte[] src, int offset, int length) {
+        int copied = Math.min(length, ring.length - (head - tail));
+        for (int i = 0; i < copied; i++) {
+            ring[(head + i) & mask] = src[offset + i];
+        }
+        head += copied;
+        return copied;
+    }
+
+    /**
+     * Decodes the next valid frame from the buffered bytes.
+     *
+     * @return true if a new frame was decoded into {@link #channels()}, false if more
+     *         bytes are needed
+     */
+    public boolean next() {
+        while (head - tail >= FRAME_LENGTH) {
+            if (at(0) == LENGTH_BYTE && at(1) == COMMAND_SERVO) {
+                int checksum = 0xFFFF;
+                for (int i = 0; i < FRAME_LENGTH - 2; i++) {
+                    checksum -= at(i);
+                }
+                if ((checksum & 0xFFFF) == (at(30) | at(31) << 8)) {
+                    for (int i = 0; i < CHANNELS; i++) {
+                        channels[i] = at(2 + i * 2) | at(3 + i * 2) << 8;
+                    }
+                    tail += FRAME_LENGTH;
+                    goodFrames++;
+                    synced = true;
+                    return true;
+                }
+                badFrames++;
+            }
+            if (synced) {
+                resyncs++;
+                synced = false;
+            }
+            tail++;
+            skippedBytes++;
+        }
+        return false;
+    }
+
+    private int at(int index) {
+        return ring[(tail + index) & mask] & 0xFF;
+    }
+
+    /**
+     * Returns the channel values of the last valid frame. The array is reused and
+     * overwritten by the next successful {@link #next()}.
+     *
+     * @return the channel values in microseconds (typically 1000-2000)
+     */
+    public int[] channels() {
+        return channels;
+    }
+
+    /**
+     * @return the number of frames that passed the checksum
+     */
+    public long goodFrames() {
+        return goodFrames;
+    }
+
+    /**
+     * @return the number of frames with a valid header but a wrong checksum
+     */
+    public long badFrames() {
+        return badFrames;
+    }
+
+    /**
+     * @return the number of times frame alignment was lost
+     */
+    public long resyncs() {
+        return resyncs;
+    }
+
+    /**
+     * @return the number of bytes skipped while searching for a frame header
+     */
+    public long skippedBytes() {
+        return skippedBytes;
+    }
+}
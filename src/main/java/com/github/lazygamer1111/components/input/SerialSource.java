@@ -0,0 +1,73 @@
+package com.github.lazygamer1111.components.input;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Byte source for the serial reader threads.
+ * <p>
+ * This interface decouples the serial threads from the physical UART so the same
+ * parsing code can run against a real port on the Raspberry Pi or against a local
+ * stand-in (for example a named pipe fed by the simulator) on a development machine.
+ *
+ * @author lazygamer1111
+ * @version 1.0
+ * @since 2026-10-17
+ * @see UartSerialSource
+ * @see FileSerialSource
+ */
+public interface SerialSource extends Closeable {
+
+    /**
+     * Opens the underlying device. Must be called once before reading.
+     *
+     * @throws IOException if the device could not be opened
+     */
+    void open() throws IOException;
+
+    /**
+     * Reads up to {@code length} bytes into {@code buffer}, blocking until at least
+     * one byte is available.
+     *
+     * @param buffer the destination buffer
+     * @param offset the offset in the buffer at which to start writing
+     * @param length the maximum number of bytes to read
+     * @return the number of bytes read, or -1 if the source has been closed
+     * @throws IOException if reading fails
+     */
+    int read(byte[] buffer, int offset, int length) throws IOException;
+
+    /**
+     * Returns the number of bytes that can be read without blocking.
+     *
+     * @return the number of buffered bytes
+     * @throws IOException if the device state could not be queried
+     */
+    int available() throws IOException;
+
+    /**
+     * Returns a human-readable name of the device, used in log messages.
+     *
+     * @return the device name
+     */
+    String name();
+
+    /**
+     * Reads exactly {@code length} bytes into {@code buffer}.
+     *
+     * @param buffer the destination buffer
+     * @param offset the offset in the buffer at which to start writing
+     * @param length the number of bytes to read
+     * @throws IOException if reading fails or the source reaches end of stream
+     */
+    default void readFully(byte[] buffer, int offset, int length) throws IOException {
+        int read = 0;
+        while (read < length) {
+            int n = read(buffer, offset + read, length - read);
+            if (n < 0) {
+                throw new IOException(name() + " closed");
+            }
+            read += n;
+        }
+    }
+}
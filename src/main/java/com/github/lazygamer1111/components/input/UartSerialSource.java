@@ -0,0 +1,65 @@
+package com.github.lazygamer1111.components.input;
+
+import com.fazecast.jSerialComm.SerialPort;
+
+import java.io.IOException;
+
+/**
+ * Serial source backed by a jSerialComm UART port.
+ * <p>
+ * The port is configured as 8N1 at the given baud rate, matching the receiver and
+ * ESC telemetry wiring on the Raspberry Pi.
+ *
+ * @author lazygamer1111
+ * @version 1.0
+ * @since 2026-10-17
+ */
+public class UartSerialSource implements SerialSource {
+
+    /** The underlying jSerialComm port */
+    private final SerialPort port;
+
+    /**
+     * Creates a source for the given system port.
+     *
+     * @param portName    the system port name (e.g. {@code ttyAMA0})
+     * @param baudRate    the baud rate
+     * @param timeoutMode one of the jSerialComm {@code TIMEOUT_*} modes
+     */
+    public UartSerialSource(String portName, int baudRate, int timeoutMode) {
+        port = SerialPort.getCommPort(portName);
+        port.setComPortTimeouts(timeoutMode, 0, 0);
+        port.setComPortParameters(baudRate, 8, SerialPort.ONE_STOP_BIT, SerialPort.NO_PARITY);
+    }
+
+    @Override
+    public void open() throws IOException {
+        if (!port.openPort()) {
+            throw new IOException("Failed to open serial port " + name());
+        }
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int length) throws IOException {
+        int n = port.readBytes(buffer, length, offset);
+        if (n < 0) {
+            throw new IOException("Failed to read from serial port " + name());
+        }
+        return n;
+    }
+
+    @Override
+    public int available() {
+        return port.bytesAvailable();
+    }
+
+    @Override
+    public String name() {
+        return port.getSystemPortName();
+    }
+
+    @Override
+    public void close() {
+        port.closePort();
+    }
+}
@@ -1,34 +1,38 @@
 package com.github.lazygamer1111.components.output;
 
-import com.github.lazygamer1111.dataTypes.PIOMSG;
-import kotlin.text.Charsets;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
+import com.github.lazygamer1111.dataTypes.ControllerSnapshot;
+import com.github.lazygamer1111.metrics.LatencyTracer;
 
 import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileOutputStream;
 import java.io.IOException;
-import java.nio.file.Path;
 
-public class ESC {
-    private static final Logger log = LoggerFactory.getLogger(ESC.class);
-    private final FileInputStream in;
-    private final FileOutputStream out;
+/**
+ * A single ESC: an {@link ESCGroup} of one motor.
+ */
+public class ESC extends ESCGroup {
     public int id;
 
     public ESC(int pin, int speedkbs, File inPipe, File outPipe) throws IOException {
-        in = new FileInputStream(inPipe);
-        out = new FileOutputStream(outPipe);
-        id = init_SM(pin, speedkbs);
+        super(new int[] {pin}, speedkbs, inPipe, outPipe);
+        id = id(0);
     }
 
     public void sendFrame(int throttle, boolean telemetry) {
-        try {
-            write(PIOMSG.fromThrottle(id, throttle, telemetry));
-        } catch (IOException e) {
-            throw new RuntimeException(e);
-        }
+        sendFrame(throttle, telemetry, null, 0);
+    }
+
+    /**
+     * Sends a throttle command and traces its latency back to the controller frame it
+     * was computed from, see {@link #tracer(LatencyTracer)}.
+     *
+     * @param throttle  the DShot throttle value
+     * @param telemetry whether to request KISS telemetry
+     * @param frame     the controller frame the command was computed from, or null to not trace
+     * @param tick      the {@link System#nanoTime()} at which the control tick started
+     */
+    public void sendFrame(int throttle, boolean telemetry, ControllerSnapshot frame, long tick) {
+        set(0, throttle, telemetry);
+        send(frame, tick);
 //        short frame = (short) throttle;
 //        if (telemetry) {
 //            frame |= 2048;
@@ -40,59 +44,4 @@ public class ESC {
 //
 //        put(id, frame);
     }
-
-    public int init_SM(int pin, int speed) throws IOException {
-        assert out != null;
-        String command = String.format("ADD %d %d", pin, speed);
-        out.write(command.getBytes(Charsets.UTF_8));
-        log.debug("Sent command: {}", command);
-        while (true) {
-            if (in.available() > 0) {
-                byte[] buffer = new byte[in.available()];
-                in.read(buffer);
-                String response = new String(buffer, Charsets.UTF_8);
-                if (response.startsWith("OK")) {
-                    response = response.split(" ")[1].replace("\n", "");
-                    return Integer.parseInt(response);
-                } else {
-                    log.error("Failed to add ESC: {}", response);
-                }
-            }
-        }
-    }
-
-    public PIOMSG write(PIOMSG msg) throws IOException {
-        log.debug("Sending message: {}", msg);
-       put(msg);
-       return pop(true);
-    }
-
-    private void put(PIOMSG msg) throws IOException {
-        assert out != null;
-        out.write(msg.toString().getBytes(Charsets.UTF_8));
-    }
-
-    private PIOMSG pop(boolean blocking) throws IOException {
-        if (blocking){
-            while (true) {
-                if (in.available() > 0) {
-                    byte[] buffer = new byte[in.available()];
-                    in.read(buffer);
-                    String response = new String(buffer, Charsets.UTF_8);
-                    String[] responseArr = response.split(" ");
-                    return new PIOMSG(responseArr[0], Integer.parseInt(responseArr[1]), responseArr[2]);
-                }
-            }
-        } else {
-            if (in.available() > 0) {
-                byte[] buffer = new byte[in.available()];
-                in.read(buffer);
-                String response = new String(buffer, Charsets.UTF_8);
-                String[] responseArr = response.split(" ");
-                return new PIOMSG(responseArr[0], Integer.parseInt(responseArr[1]), responseArr[2]);
-            }
-
-            return null;
-        }
-    }
 }
@@ -0,0 +1,700 @@
+package com.github.lazygamer1111.components.output;
+
+import com.github.lazygamer1111.dataTypes.ControllerSnapshot;
+import com.github.lazygamer1111.dataTypes.PIOFrame;
+import com.github.lazygamer1111.dataTypes.PIOMSG;
+import com.github.lazygamer1111.metrics.Histogram;
+import com.github.lazygamer1111.metrics.LatencyTracer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Group of ESCs driven by one PIO helper over one pair of named pipes.
+ * <p>
+ * Every motor gets its own DShot state machine through {@code ADD <pin> <speed>}.
+ * The throttles for a control tick are staged with {@link #set} and sent with
+ * {@link #send}, which costs one pipe write however many motors there are. If the
+ * helper speaks protocol {@value PIOFrame#BATCH_VERSION} the tick is a single
+ * {@link PIOFrame#BATCH} frame with a single reply; a version 1 helper gets one
+ * {@link PIOFrame} per motor, still written in one go; a text-only helper gets one
+ * {@link PIOMSG} round trip per motor.
+ * <p>
+ * Binary messages are pipelined: {@link #send} writes and returns, and a reader
+ * thread matches replies by sequence number. See {@link ESC} for a single motor.
+ *
+ * @author lazygamer1111
+ * @version 1.0
+ * @since 2026-10-17
+ */
+public class ESCGroup {
+    private static final Logger log = LoggerFactory.getLogger(ESCGroup.class);
+    private static final long INIT_TIMEOUT_MS = 5000;
+    private static final long NEGOTIATE_TIMEOUT_MS = 500;
+    private static final long REPLY_TIMEOUT_MS = 100;
+
+    /** Maximum number of motors in a group */
+    public static final int MAX_MOTORS = PIOFrame.MAX_BATCH;
+
+    /** Maximum number of binary messages awaiting a reply, must be a power of two */
+    private static final int WINDOW = 16;
+
+    /** Age after which an unanswered message is counted as lost and its window slot reused */
+    private static final long ACK_TIMEOUT_NANOS = 100_000_000L;
+
+    /** How long {@link #sendConfirmed} parks between checks for window room and the reply */
+    private static final long CONFIRM_POLL_NANOS = 100_000L;
+
+    /** Negotiated protocol: text, one binary frame per motor, or one batch per tick */
+    private static final int TEXT = 0;
+    private static final int FRAMES = PIOFrame.VERSION;
+    private static final int BATCHED = PIOFrame.BATCH_VERSION;
+
+    private final FileChannel in;
+    private final FileOutputStream out;
+
+    /** Frames replies from the helper; also matches binary replies so the sender never waits for them */
+    private final PIOPipeReader reader;
+
+    /** State machine id per motor, handed out by the helper */
+    private final int[] ids;
+
+    private final int protocol;
+    private final byte[] tx = new byte[Math.max(PIOFrame.batchLength(MAX_MOTORS), MAX_MOTORS * PIOFrame.LENGTH)];
+
+    /** Staged throttle and flags per motor, only touched by the sending thread */
+    private final int[] throttles;
+    private final int[] flags;
+
+    /** Sequence number of the last message sent, only written by the sending thread */
+    private volatile int seq = 0;
+
+    /** Sequence number of the newest message that was answered or given up on */
+    private final AtomicInteger lastAcked = new AtomicInteger();
+
+    /** Send time of each in-flight message, indexed by {@code seq % WINDOW} */
+    private final AtomicLongArray sentAt = new AtomicLongArray(WINDOW);
+
+    private final PIOFrame reply = new PIOFrame();
+
+    private final AtomicLong sent = new AtomicLong();
+    private final AtomicLong writes = new AtomicLong();
+    private final AtomicLong acked = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong overruns = new AtomicLong();
+    private final AtomicLong timeouts = new AtomicLong();
+    private final AtomicLong corrupt = new AtomicLong();
+    private final AtomicLong lastRoundTrip = new AtomicLong();
+    private final AtomicLong maxRoundTrip = new AtomicLong();
+
+    /** Round-trip time of every answered binary message, in nanoseconds */
+    private final Histogram roundTrip = new Histogram();
+
+    /** Throttle of each motor at the last {@link #send}, -1 before the first */
+    private final AtomicIntegerArray lastThrottle;
+
+    /** Receives a latency trace for every acknowledged message sent with its controller frame, or null */
+    private volatile LatencyTracer tracer;
+
+    // Trace of each in-flight message, indexed like sentAt. The plain arrays are written
+    // before tracedSeq is set, and only read by the reader thread after it matched it.
+    // writtenAt is set once the pipe write returned, which may be after the reply.
+    private final long[] traceSequence = new long[WINDOW];
+    private final long[] traceReceived = new long[WINDOW];
+    private final long[] traceParsed = new long[WINDOW];
+    private final long[] traceTick = new long[WINDOW];
+    private final AtomicLongArray writtenAt = new AtomicLongArray(WINDOW);
+
+    /** Message sequence number each slot's trace belongs to, -1 while untraced or being written */
+    private final AtomicIntegerArray tracedSeq = new AtomicIntegerArray(WINDOW);
+
+    /**
+     * Opens the pipes, adds a state machine per pin and negotiates the protocol.
+     *
+     * @param pins     the GPIO pin of every motor, at most {@value #MAX_MOTORS}
+     * @param speedkbs the DShot speed in kbit/s
+     * @param inPipe   the pipe the helper replies on
+     * @param outPipe  the pipe commands are written to
+     * @throws IOException if the helper refuses a motor, does not answer in time or is gone
+     */
+    public ESCGroup(int[] pins, int speedkbs, File inPipe, File outPipe) throws IOException {
+        if (pins.length == 0 || pins.length > MAX_MOTORS) {
+            throw new IllegalArgumentException("An ESC group has 1 to " + MAX_MOTORS + " motors, not " + pins.length);
+        }
+        in = FileChannel.open(inPipe.toPath(), StandardOpenOption.READ);
+        out = new FileOutputStream(outPipe);
+        reader = new PIOPipeReader(in);
+        reader.start();
+        try {
+            ids = new int[pins.length];
+            for (int i = 0; i < pins.length; i++) {
+                ids[i] = init_SM(pins[i], speedkbs);
+            }
+            reader.setName("ESC " + Arrays.toString(ids) + " Reader");
+            throttles = new int[pins.length];
+            flags = new int[pins.length];
+            lastThrottle = new AtomicIntegerArray(pins.length);
+            for (int i = 0; i < pins.length; i++) {
+                lastThrottle.set(i, -1);
+            }
+            protocol = negotiate();
+        } catch (IOException | RuntimeException e) {
+            // The caller never gets the group, so nobody else could close the pipes
+            try {
+                close();
+            } catch (IOException suppressed) {
+                e.addSuppressed(suppressed);
+            }
+            throw e;
+        }
+
+        if (protocol != TEXT) {
+            reader.switchToBinary(this::onReply);
+        }
+    }
+
+    /**
+     * Asks the helper to start a DShot state machine on the given pin.
+     * <p>
+     * Waits up to {@value #INIT_TIMEOUT_MS} ms for {@code OK <id>}.
+     *
+     * @param pin   the GPIO pin the ESC is connected to
+     * @param speed the DShot speed in kbit/s
+     * @return the state machine id assigned by the helper
+     * @throws IOException if the helper refuses, does not answer in time or is gone
+     */
+    public int init_SM(int pin, int speed) throws IOException {
+        assert out != null;
+        String command = String.format("ADD %d %d", pin, speed);
+        out.write(command.getBytes(StandardCharsets.UTF_8));
+        log.debug("Sent command: {}", command);
+        String response = reader.readLine(INIT_TIMEOUT_MS);
+        if (response == null) {
+            throw new IOException("PIO helper did not answer " + command + " within " + INIT_TIMEOUT_MS + " ms");
+        }
+        if (!response.startsWith("OK")) {
+            throw new IOException("Failed to add ESC: " + response);
+        }
+        return Integer.parseInt(response.split(" ")[1]);
+    }
+
+    /**
+     * Asks the helper for the newest binary protocol it supports.
+     * <p>
+     * Sends {@code PROTO 2}, and {@code PROTO 1} once version 2 is refused or not
+     * answered within {@value #NEGOTIATE_TIMEOUT_MS} ms. The helper answers requests
+     * in order and switches to binary as soon as it sends {@code OK}, so every reply is
+     * matched to the oldest request still waiting for one, and an {@code OK} for any
+     * version asked for, however late, is the negotiated protocol; a request the helper
+     * receives after that is ignored by it as not a binary frame. The text protocol is
+     * only kept, so older helpers continue to work, once every request was refused or
+     * left unanswered for {@value #NEGOTIATE_TIMEOUT_MS} ms.
+     *
+     * @return the negotiated protocol
+     */
+    private int negotiate() throws IOException {
+        int[] versions = {BATCHED, FRAMES};
+        // Requests still waiting for a reply, oldest first
+        ArrayDeque<Integer> pending = new ArrayDeque<>();
+        int requested = 0;
+        long deadline = 0;
+        while (true) {
+            if (pending.isEmpty() || System.nanoTime() - deadline >= 0) {
+                if (requested == versions.length) {
+                    break;
+                }
+                if (!pending.isEmpty()) {
+                    log.info("PIO helper did not answer binary protocol v{} within {} ms", pending.peekLast(), NEGOTIATE_TIMEOUT_MS);
+                }
+                int version = versions[requested++];
+                out.write(String.format("PROTO %d", version).getBytes(StandardCharsets.UTF_8));
+                pending.add(version);
+                deadline = System.nanoTime() + NEGOTIATE_TIMEOUT_MS * 1_000_000L;
+            }
+            long remaining = (deadline - System.nanoTime()) / 1_000_000L;
+            String response = remaining <= 0 ? null : reader.readLine(remaining);
+            if (response == null) {
+                continue;
+            }
+            int asked = pending.remove();
+            for (int i = 0; i < requested; i++) {
+                if (response.equals("OK " + versions[i])) {
+                    log.info("PIO helper accepted binary protocol v{}", versions[i]);
+                    return versions[i];
+                }
+            }
+            log.info("PIO helper rejected binary protocol v{} ({})", asked, response);
+        }
+        if (!pending.isEmpty()) {
+            log.warn("PIO helper did not answer binary protocol {} within {} ms, giving up", pending, NEGOTIATE_TIMEOUT_MS);
+        }
+        log.info("Using text protocol");
+        return TEXT;
+    }
+
+    /**
+     * @return the number of motors
+     */
+    public int motors() {
+        return ids.length;
+    }
+
+    /**
+     * @param motor the motor index, in the order the pins were given
+     * @return the state machine id of that motor
+     */
+    public int id(int motor) {
+        return ids[motor];
+    }
+
+    /**
+     * Stages the throttle of one motor for the next {@link #send}. Sending thread only.
+     *
+     * @param motor     the motor index
+     * @param throttle  the DShot throttle value
+     * @param telemetry whether to request KISS telemetry from this motor
+     */
+    public void set(int motor, int throttle, boolean telemetry) {
+        throttles[motor] = throttle;
+        flags[motor] = telemetry ? PIOFrame.FLAG_TELEMETRY : 0;
+    }
+
+    /**
+     * Stages the same throttle for every motor and sends it.
+     *
+     * @param throttle  the DShot throttle value
+     * @param telemetry whether to request KISS telemetry from the first motor
+     * @param frame     the controller frame the command was computed from, or null to not trace
+     * @param tick      the {@link System#nanoTime()} at which the control tick started
+     */
+    public void sendAll(int throttle, boolean telemetry, ControllerSnapshot frame, long tick) {
+        for (int i = 0; i < ids.length; i++) {
+            // Telemetry comes back on one shared UART, so only one ESC may answer
+            set(i, throttle, telemetry && i == 0);
+        }
+        send(frame, tick);
+    }
+
+    /**
+     * Sends the staged throttles of all motors and traces their latency back to the
+     * controller frame they were computed from, see {@link #tracer(LatencyTracer)}.
+     *
+     * @param frame the controller frame the throttles were computed from, or null to not trace
+     * @param tick  the {@link System#nanoTime()} at which the control tick started
+     */
+    public void send(ControllerSnapshot frame, long tick) {
+        for (int i = 0; i < ids.length; i++) {
+            lastThrottle.lazySet(i, throttles[i]);
+        }
+        LatencyTracer t = tracer;
+        if (t == null) {
+            frame = null;
+        }
+        try {
+            if (protocol != TEXT) {
+                writeBinary(frame, tick);
+            } else {
+                for (int i = 0; i < ids.length; i++) {
+                    PIOMSG msg = PIOMSG.fromThrottle(ids[i], throttles[i], flags[i] != 0);
+                    if (frame != null) {
+                        writeTraced(msg, t, frame, tick);
+                    } else {
+                        write(msg);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Sends the staged throttles and waits until the helper answered them, for commands
+     * that must not be dropped, such as the zero throttle at shutdown.
+     * <p>
+     * Unlike {@link #send}, a full window is not an overrun: this waits for room, for
+     * at most the timeout, and then for the reply to the last message sent. With the
+     * text protocol every message is a round trip anyway. Sending thread only.
+     *
+     * @param timeoutNanos how long to wait for window room and the reply together
+     * @return true if every message was answered with OK in time
+     * @throws IOException if the pipe is gone, or a text reply did not arrive in time
+     */
+    public boolean sendConfirmed(long timeoutNanos) throws IOException {
+        for (int i = 0; i < ids.length; i++) {
+            lastThrottle.lazySet(i, throttles[i]);
+        }
+        if (protocol == TEXT) {
+            boolean ok = true;
+            for (int i = 0; i < ids.length; i++) {
+                ok &= write(PIOMSG.fromThrottle(ids[i], throttles[i], flags[i] != 0)).command().equals("OK");
+            }
+            return ok;
+        }
+
+        long deadline = System.nanoTime() + timeoutNanos;
+        int messages = protocol == BATCHED ? 1 : ids.length;
+        while (!reserve(messages)) {
+            if (System.nanoTime() - deadline >= 0) {
+                return false;
+            }
+            LockSupport.parkNanos(CONFIRM_POLL_NANOS);
+        }
+        long rejectedBefore = rejected.get();
+        writeReserved(messages, null, 0);
+        int last = seq;
+        while (!answered(last)) {
+            if (System.nanoTime() - deadline >= 0) {
+                return false;
+            }
+            LockSupport.parkNanos(CONFIRM_POLL_NANOS);
+        }
+        return rejected.get() == rejectedBefore;
+    }
+
+    /**
+     * @return true once the message with this sequence number was answered or given up on
+     */
+    private boolean answered(int messageSeq) {
+        int ahead = (messageSeq - lastAcked.get()) & 0xFFFF;
+        return ahead == 0 || ahead >= 0x8000;
+    }
+
+    /**
+     * Sends the staged throttles as binary messages in one pipe write, without
+     * waiting for the replies.
+     * <p>
+     * Replies are matched by sequence number on the reader thread. If there is no
+     * room for this tick's messages among the {@value #WINDOW} that may await a reply,
+     * nothing is sent and an overrun is counted; the next control tick sends fresh
+     * values anyway. A message that stays unanswered for longer than
+     * {@link #ACK_TIMEOUT_NANOS} is counted as timed out so a lost reply cannot block
+     * the window forever.
+     * <p>
+     * With a controller frame, the frame's timestamps are kept in each message's
+     * window slot so the reader thread can complete the trace when the reply arrives.
+     */
+    private void writeBinary(ControllerSnapshot frame, long tick) throws IOException {
+        int messages = protocol == BATCHED ? 1 : ids.length;
+        if (!reserve(messages)) {
+            overruns.incrementAndGet();
+            return;
+        }
+        writeReserved(messages, frame, tick);
+    }
+
+    /**
+     * Encodes and writes messages for which {@link #reserve} made room.
+     */
+    private void writeReserved(int messages, ControllerSnapshot frame, long tick) throws IOException {
+        int first = (seq + 1) & 0xFFFF;
+        int length = 0;
+        long now = System.nanoTime();
+        for (int i = 0; i < messages; i++) {
+            int s = (first + i) & 0xFFFF;
+            if (protocol == BATCHED) {
+                length = PIOFrame.encodeBatch(tx, 0, ids, throttles, flags, ids.length, s);
+            } else {
+                PIOFrame.encode(tx, length, PIOFrame.THROTTLE, ids[i], throttles[i], flags[i], s);
+                length += PIOFrame.LENGTH;
+            }
+            stamp(s, frame, tick, now);
+        }
+        seq = (first + messages - 1) & 0xFFFF;
+
+        out.write(tx, 0, length);
+        writes.incrementAndGet();
+        sent.addAndGet(messages);
+        if (frame != null) {
+            long written = System.nanoTime();
+            for (int i = 0; i < messages; i++) {
+                writtenAt.set((first + i) & (WINDOW - 1), written);
+            }
+        }
+    }
+
+    /**
+     * Makes room for {@code messages} more messages in the window, retiring the oldest
+     * ones if they timed out.
+     *
+     * @return false if the window is full of messages that may still be answered
+     */
+    private boolean reserve(int messages) {
+        while (true) {
+            int base = lastAcked.get();
+            if (((seq - base) & 0xFFFF) + messages <= WINDOW) {
+                return true;
+            }
+            long oldest = sentAt.get((base + 1) & (WINDOW - 1));
+            if (System.nanoTime() - oldest < ACK_TIMEOUT_NANOS) {
+                return false;
+            }
+            if (lastAcked.compareAndSet(base, (base + 1) & 0xFFFF)) {
+                timeouts.incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Records the send time and, with a controller frame, the trace of one message.
+     */
+    private void stamp(int s, ControllerSnapshot frame, long tick, long now) {
+        int slot = s & (WINDOW - 1);
+        tracedSeq.set(slot, -1);
+        if (frame != null) {
+            traceSequence[slot] = frame.sequence;
+            traceReceived[slot] = frame.timestamp;
+            traceParsed[slot] = frame.parsedAt;
+            traceTick[slot] = tick;
+            tracedSeq.set(slot, s);
+        }
+        sentAt.set(slot, now);
+    }
+
+    /**
+     * Called by the pipe reader for every binary reply: validates it and retires the
+     * matching in-flight message.
+     *
+     * @return false if the frame failed validation, so the reader resyncs
+     */
+    private boolean onReply(byte[] buf, int offset) {
+        if (!reply.decode(buf, offset)) {
+            corrupt.incrementAndGet();
+            return false;
+        }
+        long now = System.nanoTime();
+        if (reply.command == PIOFrame.ERR) {
+            rejected.incrementAndGet();
+            log.error("PIO helper rejected message {}: error {}", reply.seq, reply.value);
+        }
+        int slot = reply.seq & (WINDOW - 1);
+        long sentTime = sentAt.get(slot);
+        // Copy the trace before retiring the message, after which the sender may reuse its slot
+        LatencyTracer t = tracer;
+        boolean traced = t != null && tracedSeq.get(slot) == reply.seq;
+        long frameSequence = 0, received = 0, parsed = 0, tick = 0, written = 0;
+        if (traced) {
+            frameSequence = traceSequence[slot];
+            received = traceReceived[slot];
+            parsed = traceParsed[slot];
+            tick = traceTick[slot];
+            written = writtenAt.get(slot);
+            if (written - sentTime < 0) {
+                // Still an earlier message's: the reply beat the return of the write
+                written = now;
+            }
+        }
+        if (retire(reply.seq)) {
+            long rtt = now - sentTime;
+            lastRoundTrip.set(rtt);
+            maxRoundTrip.accumulateAndGet(rtt, Math::max);
+            roundTrip.record(rtt);
+            acked.incrementAndGet();
+            if (traced) {
+                t.record(LatencyTracer.ESC, frameSequence, received, parsed, tick, sentTime, written, now);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Marks every message up to and including {@code replySeq} as answered.
+     *
+     * @return false if the reply is for a message that was already retired (late or duplicate)
+     */
+    private boolean retire(int replySeq) {
+        while (true) {
+            int current = lastAcked.get();
+            int ahead = (replySeq - current) & 0xFFFF;
+            if (ahead == 0 || ahead >= 0x8000) {
+                return false;
+            }
+            if (lastAcked.compareAndSet(current, replySeq)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Enables latency tracing of messages sent with their controller frame.
+     *
+     * @param tracer the tracer to complete traces into, or null to stop tracing
+     */
+    public void tracer(LatencyTracer tracer) {
+        this.tracer = tracer;
+    }
+
+    /**
+     * @return the throttle of the first motor at the last {@link #send}, -1 if none yet
+     */
+    public int lastThrottle() {
+        return lastThrottle.get(0);
+    }
+
+    /**
+     * @param motor the motor index
+     * @return the throttle of that motor at the last {@link #send}, -1 if none yet
+     */
+    public int lastThrottle(int motor) {
+        return lastThrottle.get(motor);
+    }
+
+    /**
+     * @return the number of binary messages written to the helper
+     */
+    public long sentFrames() {
+        return sent.get();
+    }
+
+    /**
+     * @return the number of pipe writes made for binary messages, one per {@link #send}
+     */
+    public long pipeWrites() {
+        return writes.get();
+    }
+
+    /**
+     * @return the number of binary messages answered by the helper
+     */
+    public long ackedFrames() {
+        return acked.get();
+    }
+
+    /**
+     * @return the number of ticks dropped because the in-flight window was full
+     */
+    public long overruns() {
+        return overruns.get();
+    }
+
+    /**
+     * @return the number of messages that were never answered within the ack timeout
+     */
+    public long timeouts() {
+        return timeouts.get();
+    }
+
+    /**
+     * @return the number of messages the helper answered with ERR
+     */
+    public long rejectedFrames() {
+        return rejected.get();
+    }
+
+    /**
+     * @return the number of reply frames that failed validation
+     */
+    public long corruptReplies() {
+        return corrupt.get();
+    }
+
+    /**
+     * @return the number of messages currently awaiting a reply
+     */
+    public int inFlight() {
+        return (seq - lastAcked.get()) & 0xFFFF;
+    }
+
+    /**
+     * @return the round-trip time of the most recent reply in nanoseconds
+     */
+    public long lastRoundTripNanos() {
+        return lastRoundTrip.get();
+    }
+
+    /**
+     * @return the largest round-trip time seen in nanoseconds
+     */
+    public long maxRoundTripNanos() {
+        return maxRoundTrip.get();
+    }
+
+    /**
+     * @return the histogram of reply round-trip times, in nanoseconds
+     */
+    public Histogram roundTrip() {
+        return roundTrip;
+    }
+
+    /**
+     * Closes both pipes, which stops the reply reader, and waits for it to exit.
+     */
+    public void close() throws IOException {
+        try {
+            out.close();
+        } finally {
+            in.close();
+        }
+        reader.interrupt();
+        try {
+            reader.join(REPLY_TIMEOUT_MS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public PIOMSG write(PIOMSG msg) throws IOException {
+        log.debug("Sending message: {}", msg);
+        discardLateReplies();
+        put(msg);
+        return pop(true);
+    }
+
+    /**
+     * Text protocol counterpart of the binary trace: the reply is awaited on the
+     * sending thread, so the trace is completed right here.
+     */
+    private void writeTraced(PIOMSG msg, LatencyTracer tracer, ControllerSnapshot frame, long tick) throws IOException {
+        discardLateReplies();
+        long writeFrom = System.nanoTime();
+        put(msg);
+        long written = System.nanoTime();
+        pop(true);
+        tracer.record(LatencyTracer.ESC, frame.sequence, frame.timestamp, frame.parsedAt, tick, writeFrom, written, System.nanoTime());
+    }
+
+    /**
+     * Drops replies that arrived after an earlier request timed out, so they are not taken as the next one's.
+     */
+    private void discardLateReplies() throws IOException {
+        String stale;
+        while ((stale = reader.pollLine()) != null) {
+            log.warn("Discarding late reply: {}", stale);
+        }
+    }
+
+    private void put(PIOMSG msg) throws IOException {
+        assert out != null;
+        out.write(msg.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private PIOMSG pop(boolean blocking) throws IOException {
+        String response;
+        if (blocking) {
+            response = reader.readLine(REPLY_TIMEOUT_MS);
+            if (response == null) {
+                throw new IOException("PIO helper did not answer within " + REPLY_TIMEOUT_MS + " ms");
+            }
+        } else {
+            response = reader.pollLine();
+            if (response == null) {
+                return null;
+            }
+        }
+        String[] responseArr = response.split(" ");
+        return new PIOMSG(responseArr[0], Integer.parseInt(responseArr[1]), responseArr[2]);
+    }
+}
@@ -0,0 +1,192 @@
+package com.github.lazygamer1111.components.output;
+
+import com.github.lazygamer1111.dataTypes.PIOFrame;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Framed reader for the PIO helper's telemetry pipe.
+ * <p>
+ * Blocks in {@link FileChannel#read(ByteBuffer)} on its own thread, so waiting for
+ * the helper costs no CPU, and splits the byte stream into messages using a single
+ * reused buffer. Until {@link #switchToBinary(FrameListener)} is called the stream
+ * is split on newlines and each line is handed to {@link #readLine(long)}; after
+ * that it is split into fixed-size {@link PIOFrame}s, resynchronising on the sync
+ * byte after corruption, and each frame is passed to the listener.
+ * <p>
+ * When the helper closes its end of the pipe, waiting and future callers get an
+ * {@link IOException} instead of waiting forever.
+ *
+ * @author lazygamer1111
+ * @version 1.0
+ * @since 2026-10-17
+ */
+public class PIOPipeReader extends Thread {
+    private static final Logger log = LoggerFactory.getLogger(PIOPipeReader.class);
+
+    /** Marker queued when the pipe closes so blocked readers wake up */
+    private static final String EOF = new String("EOF");
+
+    /**
+     * Receives binary frames once the reader is in binary mode.
+     */
+    public interface FrameListener {
+        /**
+         * Called on the reader thread for every complete frame candidate.
+         *
+         * @param buf    the array holding the frame
+         * @param offset the index of the sync byte
+         * @return true if the frame was valid and consumed, false to resync from the next byte
+         */
+        boolean onFrame(byte[] buf, int offset);
+    }
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocate(256);
+    private final ArrayBlockingQueue<String> lines = new ArrayBlockingQueue<>(16);
+    private volatile FrameListener listener;
+    private volatile IOException failure;
+
+    /**
+     * Creates a reader for the given channel. Call {@link #start()} to begin reading.
+     *
+     * @param channel the telemetry pipe, opened for reading
+     */
+    public PIOPipeReader(FileChannel channel) {
+        super("PIO Pipe Reader");
+        this.channel = channel;
+        setDaemon(true);
+    }
+
+    /**
+     * Waits for the next text line from the helper.
+     *
+     * @param timeoutMillis how long to wait at most
+     * @return the line without its terminator, or null if the timeout expired
+     * @throws IOException if the helper closed the pipe
+     */
+    public String readLine(long timeoutMillis) throws IOException {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        String line;
+        try {
+            line = lines.poll(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for the PIO helper", e);
+        }
+        if (line == EOF) {
+            lines.offer(EOF);
+            throw failure;
+        }
+        return line;
+    }
+
+    /**
+     * Returns the next text line if one has already arrived.
+     *
+     * @return the line, or null if none is waiting
+     * @throws IOException if the helper closed the pipe
+     */
+    public String pollLine() throws IOException {
+        String line = lines.poll();
+        if (line == EOF) {
+            lines.offer(EOF);
+            throw failure;
+        }
+        return line;
+    }
+
+    /**
+     * Switches to binary framing. All bytes after the current line are treated as
+     * {@link PIOFrame}s and passed to {@code listener}.
+     *
+     * @param listener the frame consumer, called on the reader thread
+     */
+    public void switchToBinary(FrameListener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * @return the error that stopped the reader, or null while it is running
+     */
+    public IOException failure() {
+        return failure;
+    }
+
+    @Override
+    public void run() {
+        try {
+            while (true) {
+                if (channel.read(buffer) < 0) {
+                    throw new IOException("PIO helper closed the telemetry pipe");
+                }
+                buffer.flip();
+                if (listener == null) {
+                    splitLines();
+                } else {
+                    splitFrames();
+                }
+                buffer.compact();
+            }
+        } catch (IOException e) {
+            failure = channel.isOpen() ? e : new IOException("PIO telemetry pipe closed", e);
+            if (channel.isOpen()) {
+                log.error(e.getMessage());
+            }
+        } finally {
+            if (failure == null) {
+                failure = new IOException("PIO pipe reader stopped");
+            }
+            while (!lines.offer(EOF)) {
+                lines.poll();
+            }
+        }
+    }
+
+    private void splitLines() {
+        byte[] buf = buffer.array();
+        int start = buffer.position();
+        for (int i = start; i < buffer.limit(); i++) {
+            if (buf[i] == '\n') {
+                String line = new String(buf, start, i - start, StandardCharsets.UTF_8).trim();
+                if (!lines.offer(line)) {
+                    log.warn("Dropped unread reply from PIO helper: {}", lines.poll());
+                    lines.offer(line);
+                }
+                start = i + 1;
+                buffer.position(start);
+                if (listener != null) {
+                    // Negotiation switched to binary while this chunk was being split
+                    splitFrames();
+                    return;
+                }
+            }
+        }
+        if (buffer.remaining() == buffer.capacity()) {
+            log.warn("Discarding {} bytes without a line terminator", buffer.remaining());
+            buffer.clear().flip();
+        }
+    }
+
+    private void splitFrames() {
+        byte[] buf = buffer.array();
+        int pos = buffer.position();
+        int limit = buffer.limit();
+        FrameListener frames = listener;
+        while (limit - pos >= PIOFrame.LENGTH) {
+            if (buf[pos] == PIOFrame.SYNC && frames.onFrame(buf, pos)) {
+                pos += PIOFrame.LENGTH;
+            } else {
+                pos++;
+            }
+        }
+        buffer.position(pos);
+    }
+}
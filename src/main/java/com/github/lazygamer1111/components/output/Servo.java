@@ -1,9 +1,15 @@
 package com.github.lazygamer1111.components.output;
 
+import com.github.lazygamer1111.dataTypes.ControllerSnapshot;
+import com.github.lazygamer1111.metrics.Histogram;
+import com.github.lazygamer1111.metrics.LatencyTracer;
 import com.pi4j.io.pwm.Pwm;
 import org.jetbrains.annotations.Nullable;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
 import static java.lang.Math.abs;
 
 /**
@@ -13,6 +19,10 @@ import static java.lang.Math.abs;
  * It handles the conversion from angle values (degrees) to appropriate PWM duty cycles,
  * taking into account the servo's specific pulse width requirements and frequency.
  * 
+ * It can drive either a Pi4J {@link Pwm} or a {@link SysfsPwm}. With the latter, the
+ * duty cycle for every angle step is precomputed as ASCII nanoseconds when the servo
+ * is created, and setting an angle that maps to the value already written is skipped.
+ * 
  * @author lazygamer1111
  * @version 1.0
  * @since 2025-11-02
@@ -44,9 +54,9 @@ public class Servo {
 
     /**
      * The current angle (in degrees) of the servo.
-     * Initialized to 0 degrees.
+     * Initialized to 0 degrees. Volatile so other threads, e.g. the flight recorder, can read it.
      */
-    double angle = 0;
+    volatile double angle = 0;
     
     /**
      * The current duty cycle (percentage) of the PWM signal.
@@ -60,6 +70,51 @@ public class Servo {
      */
     Pwm pwm;
 
+    /**
+     * Angle resolution of the duty cycle table, in steps per degree.
+     */
+    static final int STEPS_PER_DEGREE = 10;
+
+    /**
+     * Direct sysfs PWM output, used instead of {@link #pwm} when set.
+     */
+    SysfsPwm sysfs;
+
+    /**
+     * Duty cycle in nanoseconds for every angle step, when driving {@link #sysfs}.
+     */
+    long[] dutyNanos;
+
+    /**
+     * The same duty cycles preformatted for {@link SysfsPwm#writeDutyCycle(ByteBuffer)}.
+     */
+    ByteBuffer[] dutyAscii;
+
+    /**
+     * The PWM period in nanoseconds, when driving {@link #sysfs}.
+     */
+    long periodNanos;
+
+    /**
+     * The table index last written to {@link #sysfs}, -1 before the first write.
+     */
+    int lastIndex = -1;
+
+    /**
+     * The number of {@link #setAngle(double)} calls skipped because the duty cycle was unchanged.
+     */
+    long suppressedWrites = 0;
+
+    /**
+     * Duration of every PWM output write, in nanoseconds.
+     */
+    final Histogram writeTime = new Histogram();
+
+    /**
+     * Receives a latency trace for every write made for a controller frame, or null.
+     */
+    volatile LatencyTracer tracer;
+
     /**
      * Instantiates a new Servo with customizable parameters.
      *
@@ -82,6 +137,45 @@ public class Servo {
         this.pwm.frequency(frequency == null ? 50 : frequency);
     }
 
+    /**
+     * Instantiates a new Servo that writes straight to a sysfs PWM channel.
+     *
+     * Sets the channel's period, precomputes the duty cycle for every
+     * {@code 1 / STEPS_PER_DEGREE} degree between the min and max angle, and enables
+     * the output. Parameters default as in the Pi4J constructor.
+     *
+     * @param pwm           the sysfs PWM channel to control the servo
+     * @param minAngle      the minimum angle in degrees (default: 0)
+     * @param maxAngle      the maximum angle in degrees (default: 180)
+     * @param minPulseWidth the minimum pulse width in seconds (default: 0.001s or 1ms)
+     * @param maxPulseWidth the maximum pulse width in seconds (default: 0.002s or 2ms)
+     * @param frequency     the PWM frequency in Hz (default: 50Hz, standard for most servos)
+     * @throws IOException if the channel cannot be configured
+     */
+    public Servo(SysfsPwm pwm, @Nullable Double minAngle, @Nullable Double maxAngle, @Nullable Double minPulseWidth, @Nullable Double maxPulseWidth, @Nullable Integer frequency) throws IOException {
+        this.sysfs = pwm;
+        this.minAngle = minAngle == null ? 0 : minAngle;
+        this.maxAngle = maxAngle == null ? 180 : maxAngle;
+        this.minPulseWidth = minPulseWidth == null ? (double) 1 / 1000 : minPulseWidth;
+        this.maxPulseWidth = maxPulseWidth == null ? (double) 2 / 1000 : maxPulseWidth;
+        int hz = frequency == null ? 50 : frequency;
+        this.periodNanos = 1_000_000_000L / hz;
+
+        int steps = (int) Math.round((this.maxAngle - this.minAngle) * STEPS_PER_DEGREE) + 1;
+        dutyNanos = new long[steps];
+        dutyAscii = new ByteBuffer[steps];
+        for (int i = 0; i < steps; i++) {
+            double stepAngle = this.minAngle + (double) i / STEPS_PER_DEGREE;
+            double percent = stepAngle / (abs(this.maxAngle) + abs(this.minAngle));
+            double pulseWidth = (this.maxPulseWidth - this.minPulseWidth) * percent + this.minPulseWidth;
+            dutyNanos[i] = Math.round(pulseWidth * 1e9);
+            dutyAscii[i] = SysfsPwm.format(dutyNanos[i]);
+        }
+
+        sysfs.period(periodNanos);
+        sysfs.enable(true);
+    }
+
     /**
      * Sets the servo to the specified angle.
      *
@@ -93,16 +187,99 @@ public class Servo {
      * @throws IllegalArgumentException if the angle is outside the valid range
      */
     public void setAngle(double angle) {
+        setAngle(angle, null, 0);
+    }
+
+    /**
+     * Sets the servo to the specified angle and traces the write's latency back to
+     * the controller frame the angle was computed from, see {@link #tracer(LatencyTracer)}.
+     * Suppressed writes are not traced.
+     *
+     * @param angle the target angle in degrees
+     * @param frame the controller frame the angle was computed from, or null to not trace
+     * @param tick  the {@link System#nanoTime()} at which the control tick started
+     * @throws IllegalArgumentException if the angle is outside the valid range
+     */
+    public void setAngle(double angle, ControllerSnapshot frame, long tick) {
         this.angle = angle;
 //        LoggerFactory.getLogger(this.getClass()).info("Servo set angle: {}", angle);
         if (angle < minAngle || angle > maxAngle) {
             throw new IllegalArgumentException("Angle must be between " + minAngle + " and " + maxAngle);
         }
+        if (sysfs != null) {
+            writeSysfs(angle, frame, tick);
+            return;
+        }
         double percent = angle / (abs(maxAngle) + abs(minAngle));
 
         dutyCycle = calcDutyCycle(maxPulseWidth, minPulseWidth, percent, pwm.frequency());
 
+        long start = System.nanoTime();
         pwm.on(this.dutyCycle);
+        written(start, frame, tick);
+    }
+
+    /**
+     * Writes the precomputed duty cycle for the nearest angle step, unless it is
+     * already the one on the output.
+     */
+    private void writeSysfs(double angle, ControllerSnapshot frame, long tick) {
+        int index = (int) Math.round((angle - minAngle) * STEPS_PER_DEGREE);
+        if (index == lastIndex) {
+            suppressedWrites++;
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            sysfs.writeDutyCycle(dutyAscii[index]);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+        written(start, frame, tick);
+        lastIndex = index;
+        dutyCycle = dutyNanos[index] * 100d / periodNanos;
+    }
+
+    /**
+     * Records a completed write in {@link #writeTime} and, if requested, in the tracer.
+     */
+    private void written(long start, ControllerSnapshot frame, long tick) {
+        long end = System.nanoTime();
+        writeTime.record(end - start);
+        LatencyTracer t = tracer;
+        if (frame != null && t != null) {
+            t.record(LatencyTracer.SERVO, frame.sequence, frame.timestamp, frame.parsedAt, tick, start, end, end);
+        }
+    }
+
+    /**
+     * Enables latency tracing of writes made for a controller frame.
+     *
+     * @param tracer the tracer to complete traces into, or null to stop tracing
+     */
+    public void tracer(LatencyTracer tracer) {
+        this.tracer = tracer;
+    }
+
+    /**
+     * @return the angle last set, in degrees
+     */
+    public double angle() {
+        return angle;
+    }
+
+    /**
+     * @return the number of angle updates skipped because the output already had that duty cycle
+     */
+    public long suppressedWrites() {
+        return suppressedWrites;
+    }
+
+    /**
+     * @return the histogram of PWM write durations, in nanoseconds; suppressed writes are not recorded
+     */
+    public Histogram writeTime() {
+        return writeTime;
     }
 
     /**
@@ -0,0 +1,149 @@
+package com.github.lazygamer1111.components.output;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * PWM channel driven directly through the Linux sysfs PWM interface.
+ * <p>
+ * Unlike the Pi4J linuxfs provider, which opens, formats, writes and closes a file for
+ * every update, this keeps {@code duty_cycle} open and writes preformatted ASCII
+ * buffers to it. The file is written through a {@link RandomAccessFile} rather than a
+ * {@code FileChannel}: an interrupt during a channel write closes the channel for good,
+ * and the control thread is interrupted at shutdown, right before the failsafe angle
+ * has to be written. The root is a parameter, so a fake {@code /sys/class/pwm} tree in a
+ * temp directory (see {@code SimHardware}) can stand in for the kernel.
+ *
+ * @author lazygamer1111
+ * @version 1.0
+ * @since 2026-10-17
+ */
+public class SysfsPwm implements Closeable {
+    private static final Logger log = LoggerFactory.getLogger(SysfsPwm.class);
+
+    /** How long to wait for the kernel (and udev permissions) after exporting a channel */
+    private static final long EXPORT_TIMEOUT_MS = 1000;
+
+    private final Path dir;
+    private final RandomAccessFile dutyCycle;
+
+    /** Length of the last value written, to cut off leftovers of a longer one in a regular file */
+    private int lastLength = 0;
+    private long writes = 0;
+
+    /**
+     * Opens a PWM channel, exporting it first if needed.
+     *
+     * @param root    the sysfs PWM class directory, normally {@code /sys/class/pwm}
+     * @param chip    the PWM chip number
+     * @param channel the channel on that chip
+     * @throws IOException if the channel cannot be exported or opened
+     */
+    public SysfsPwm(Path root, int chip, int channel) throws IOException {
+        Path chipDir = root.resolve("pwmchip" + chip);
+        dir = chipDir.resolve("pwm" + channel);
+        if (!Files.isDirectory(dir)) {
+            writeAttribute(chipDir.resolve("export"), Integer.toString(channel));
+            awaitExport();
+        }
+        Path file = dir.resolve("duty_cycle");
+        if (!Files.exists(file)) {
+            // Mode "rw" would create it, which only hides a missing channel
+            throw new IOException(file + " does not exist");
+        }
+        dutyCycle = new RandomAccessFile(file.toFile(), "rw");
+        log.debug("Opened {}", dir);
+    }
+
+    /**
+     * Sets the PWM period. The current duty cycle must not be longer than the new period.
+     *
+     * @param nanos the period in nanoseconds
+     */
+    public void period(long nanos) throws IOException {
+        writeAttribute(dir.resolve("period"), Long.toString(nanos));
+    }
+
+    /**
+     * Turns the PWM output on or off.
+     */
+    public void enable(boolean enabled) throws IOException {
+        writeAttribute(dir.resolve("enable"), enabled ? "1" : "0");
+    }
+
+    /**
+     * Formats a duty cycle the way {@link #writeDutyCycle(ByteBuffer)} expects it.
+     *
+     * @param nanos the duty cycle in nanoseconds
+     * @return a buffer holding the ASCII value and a newline
+     */
+    public static ByteBuffer format(long nanos) {
+        return ByteBuffer.wrap((nanos + "\n").getBytes(StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * Writes a duty cycle prepared by {@link #format(long)} to the open {@code duty_cycle}
+     * file. Does not allocate; the buffer is not consumed and can be reused.
+     *
+     * @param value the formatted duty cycle
+     * @throws IOException if the kernel rejects the value
+     */
+    public void writeDutyCycle(ByteBuffer value) throws IOException {
+        int length = value.limit();
+        dutyCycle.seek(0);
+        dutyCycle.write(value.array(), value.arrayOffset(), length);
+        if (length < lastLength) {
+            dutyCycle.setLength(length);
+        }
+        lastLength = length;
+        writes++;
+    }
+
+    /**
+     * @return the number of duty cycle writes
+     */
+    public long writes() {
+        return writes;
+    }
+
+    /**
+     * @return the channel's sysfs directory
+     */
+    public Path path() {
+        return dir;
+    }
+
+    @Override
+    public void close() throws IOException {
+        dutyCycle.close();
+    }
+
+    private void awaitExport() throws IOException {
+        long giveUp = System.currentTimeMillis() + EXPORT_TIMEOUT_MS;
+        while (!Files.isWritable(dir.resolve("duty_cycle"))) {
+            if (System.currentTimeMillis() > giveUp) {
+                throw new IOException(dir + " did not appear within " + EXPORT_TIMEOUT_MS + " ms of export");
+            }
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while exporting " + dir, e);
+            }
+        }
+    }
+
+    private static void writeAttribute(Path file, String value) throws IOException {
+        Files.writeString(file, value + "\n", StandardCharsets.US_ASCII,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+    }
+}
@@ -0,0 +1,111 @@
+package com.github.lazygamer1111.config;
+
+import io.avaje.config.Config;
+import io.avaje.config.Configuration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Publishes the current {@link Settings} snapshot and replaces it when the
+ * configuration changes.
+ * <p>
+ * Avaje Config loads {@code application.properties} and its overrides (e.g. an
+ * external file given by {@code load.properties}, system properties) and, with
+ * {@code config.watch.enabled=true}, watches the files for changes. On every change
+ * a complete new snapshot is built and validated off the control threads, then
+ * swapped in through a single volatile reference. A hot-path reader calls
+ * {@link #get()} once per tick and reads everything it needs from that snapshot, so
+ * it pays one volatile load and always sees one consistent configuration. If the new
+ * configuration does not parse, the old snapshot stays in place.
+ * <p>
+ * Components that have to rebuild something for a new value (curve tables, log
+ * levels) register with {@link #listen}; listeners run on the thread that reloaded.
+ *
+ * @author lazygamer1111
+ * @version 1.0
+ * @since 2026-10-17
+ */
+public class LiveSettings {
+    private static final Logger log = LoggerFactory.getLogger(LiveSettings.class);
+
+    private final Supplier<Configuration> source;
+    private final List<Consumer<Settings>> listeners = new CopyOnWriteArrayList<>();
+    private volatile Settings current;
+
+    /**
+     * Reads the first snapshot.
+     *
+     * @param source supplies the configuration to build each snapshot from
+     * @throws IllegalArgumentException if the configuration is invalid
+     */
+    public LiveSettings(Supplier<Configuration> source) {
+        this.source = source;
+        this.current = new Settings(source.get());
+    }
+
+    /**
+     * @return settings read from the global Avaje {@link Config}
+     */
+    public static LiveSettings load() {
+        return new LiveSettings(Config::asConfiguration);
+    }
+
+    /**
+     * @return the current snapshot
+     */
+    public Settings get() {
+        return current;
+    }
+
+    /**
+     * Registers a listener for new snapshots. It is not called for the current one.
+     *
+     * @param listener called with every new snapshot
+     */
+    public void listen(Consumer<Settings> listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Reloads the settings whenever Avaje Config reports a modification.
+     */
+    public void watch() {
+        Config.onChange(event -> {
+            log.info("Configuration changed: {}", event.modifiedKeys());
+            reload();
+        });
+    }
+
+    /**
+     * Builds a new snapshot, swaps it in and notifies the listeners.
+     *
+     * @return true if the new configuration was valid and applied
+     */
+    public synchronized boolean reload() {
+        Settings next;
+        try {
+            next = new Settings(source.get());
+        } catch (RuntimeException e) {
+            log.error("Configuration rejected, keeping the current settings: {}", e.getMessage(), e);
+            return false;
+        }
+        List<String> restart = next.restartRequired(current);
+        if (!restart.isEmpty()) {
+            log.warn("Changes to {} apply after a restart", restart);
+        }
+        current = next;
+        for (Consumer<Settings> listener : listeners) {
+            try {
+                listener.accept(next);
+            } catch (RuntimeException e) {
+                log.error("Settings listener failed: {}", e.getMessage(), e);
+            }
+        }
+        return true;
+    }
+}
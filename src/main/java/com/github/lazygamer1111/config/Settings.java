@@ -0,0 +1,329 @@
+package com.github.lazygamer1111.config;
+
+import com.github.lazygamer1111.dataTypes.ControllerSnapshot;
+import com.github.lazygamer1111.mixer.Curve;
+import com.github.lazygamer1111.mixer.Mixer;
+import com.github.lazygamer1111.startup.Supervisor;
+import com.github.lazygamer1111.threads.ControlScheduler;
+import io.avaje.config.Configuration;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Typed, immutable snapshot of the application configuration.
+ * <p>
+ * Built in one go from an Avaje {@link Configuration}, so every key is parsed and
+ * validated before the snapshot exists: a bad value fails the whole snapshot and
+ * never reaches a running component. Arrays are copied in and only handed out
+ * through accessors that do not expose them for writing, so a published snapshot
+ * never changes. {@link LiveSettings} publishes the current one.
+ * <p>
+ * Values marked live are picked up by the running application when the snapshot
+ * is replaced; all others are read once at startup because they configure hardware,
+ * threads or servers, see {@link #restartRequired(Settings)}.
+ *
+ * @author lazygamer1111
+ * @version 1.0
+ * @since 2026-10-17
+ */
+public class Settings {
+    /** Receiver UART */
+    public final String receiverPort;
+    public final int receiverBaud;
+
+    /** KISS telemetry UART */
+    public final String kissPort;
+    public final int kissBaud;
+
+    /** Second telemetry UART */
+    public final String telemPort;
+    public final int telemBaud;
+
+    /** PIO helper: pipes, DShot speed and the ESC pins */
+    public final String escCommandPipe;
+    public final String escTelemetryPipe;
+    public final int escSpeedKbs;
+    private final int[] escPins;
+
+    /** Servo PWM */
+    public final boolean servoSysfs;
+    public final String pwmRoot;
+    public final int pwmChip;
+    public final int pwmChannel;
+    public final int servoFrequency;
+
+    /** Control loop */
+    public final long servoPeriodNanos;
+    public final long escPeriodNanos;
+    public final long spinNanos;
+    public final ControlScheduler.OverrunPolicy overrunPolicy;
+    public final boolean inputTriggered;
+    public final long servoMinIntervalNanos;
+    public final long escMinIntervalNanos;
+    public final long failsafeDeadlineNanos;
+
+    /** Live: per-channel change threshold of the input deadband */
+    private final int[] deadband;
+
+    /** Live: per-channel curves, null where a channel is not shaped */
+    private final Curve[] curves;
+
+    /** Compiled from the {@code mixer.*} keys */
+    public final Mixer mixer;
+
+    /** Live: logger name to level, {@code root} for the root logger */
+    public final Map<String, String> logLevels;
+
+    /** Background log writer */
+    public final boolean logAsync;
+    public final int logQueueCapacity;
+    public final int logBatchSize;
+
+    /** Startup: per-stage timeout, and a run that exits before arming to record the class archive */
+    public final long startupTimeoutMillis;
+    public final boolean startupTrainArchive;
+
+    /** Supervision: time between health checks, worker restart backoff, time per shutdown step */
+    public final long supervisorCheckMillis;
+    public final Supervisor.RestartPolicy supervisorRestart;
+    public final long shutdownStepTimeoutMillis;
+
+    /** Services and subsystems */
+    public final boolean sim;
+    public final int simRateMultiplier;
+    public final boolean simBinaryProtocol;
+    public final boolean debug;
+    public final int debugMaxRateHz;
+    public final int debugLowWaterMark;
+    public final int debugHighWaterMark;
+    public final boolean dashboard;
+    public final int dashboardPort;
+    public final int dashboardMaxRateHz;
+    public final boolean metrics;
+    public final int metricsPort;
+    public final boolean trace;
+    public final int traceSampleEvery;
+    public final int traceSampleBuffer;
+    public final boolean recorder;
+    public final String recorderDir;
+    public final long recorderSegmentBytes;
+    public final int recorderMaxSegments;
+    public final int telemetryRawCapacity;
+    public final int telemetryFineCapacity;
+    public final int telemetryCoarseCapacity;
+
+    /**
+     * Reads and validates every setting.
+     *
+     * @param config the configuration to read
+     * @throws IllegalArgumentException if a value cannot be parsed or is out of range
+     */
+    public Settings(Configuration config) {
+        receiverPort = config.get("serial.receiver.port", "ttyAMA0");
+        receiverBaud = config.getInt("serial.receiver.baud", 115200);
+        kissPort = config.get("serial.kiss.port", "ttyAMA3");
+        kissBaud = config.getInt("serial.kiss.baud", 115200);
+        telemPort = config.get("serial.telem.port", "ttyAMA4");
+        telemBaud = config.getInt("serial.telem.baud", 115200);
+
+        escCommandPipe = config.get("esc.commandPipe", "/home/pi/NamedPipes/PIOPipe");
+        escTelemetryPipe = config.get("esc.telemetryPipe", "/home/pi/NamedPipes/PIOTelemetry");
+        escSpeedKbs = config.getInt("esc.speedKbs", 300);
+        escPins = ints(config.get("esc.pins", "4"));
+
+        servoSysfs = config.getBool("servo.sysfs", true);
+        pwmRoot = config.get("servo.pwmRoot", "/sys/class/pwm");
+        pwmChip = config.getInt("servo.pwmChip", 0);
+        pwmChannel = config.getInt("servo.pwmChannel", 2);
+        servoFrequency = config.getInt("servo.frequency", 50);
+
+        servoPeriodNanos = config.getLong("control.servo.periodNanos", 21_000_000L);
+        escPeriodNanos = config.getLong("control.esc.periodNanos", 10_000_000L);
+        spinNanos = config.getLong("control.spinNanos", 50_000L);
+        overrunPolicy = ControlScheduler.OverrunPolicy.valueOf(config.get("control.overrunPolicy", "SKIP"));
+        inputTriggered = config.get("control.mode", "periodic").equals("input");
+        servoMinIntervalNanos = config.getLong("control.servo.minIntervalNanos", 5_000_000L);
+        escMinIntervalNanos = config.getLong("control.esc.minIntervalNanos", 1_000_000L);
+        failsafeDeadlineNanos = config.getLong("failsafe.deadlineNanos", 50_000_000L);
+
+        int fallback = config.getInt("control.deadband", 2);
+        deadband = new int[ControllerSnapshot.CHANNELS];
+        for (int i = 0; i < deadband.length; i++) {
+            deadband[i] = config.getInt("control.deadband." + i, fallback);
+        }
+
+        curves = new Curve[ControllerSnapshot.CHANNELS];
+        for (int c = 0; c < curves.length; c++) {
+            String key = "curve.ch" + c;
+            String points = config.get(key + ".points", "");
+            Curve curve = new Curve(config.getInt(key + ".deadband", 0), config.getDouble(key + ".expo", 0),
+                    config.getDouble(key + ".rate", 1), points.isBlank() ? null : doubles(points));
+            curves[c] = curve.isIdentity() ? null : curve;
+        }
+
+        mixer = Mixer.load(config);
+
+        Map<String, String> levels = new TreeMap<>();
+        for (String key : config.asProperties().stringPropertyNames()) {
+            if (key.startsWith("log.level.")) {
+                levels.put(key.substring("log.level.".length()), config.get(key, "INFO"));
+            }
+        }
+        logLevels = Collections.unmodifiableMap(levels);
+        logAsync = config.getBool("log.async", true);
+        logQueueCapacity = config.getInt("log.queueCapacity", 4096);
+        logBatchSize = config.getInt("log.batchSize", 256);
+
+        startupTimeoutMillis = config.getLong("startup.timeoutMillis", 15_000L);
+        startupTrainArchive = config.getBool("startup.trainArchive", false);
+        supervisorCheckMillis = config.getLong("supervisor.checkMillis", 100L);
+        supervisorRestart = Supervisor.RestartPolicy.backoff(config.getLong("supervisor.backoffMillis", 250L),
+                config.getLong("supervisor.maxBackoffMillis", 10_000L));
+        shutdownStepTimeoutMillis = config.getLong("shutdown.stepTimeoutMillis", 2_000L);
+        sim = config.getBool("sim", false);
+        simRateMultiplier = config.getInt("sim.rateMultiplier", 10);
+        simBinaryProtocol = config.getBool("sim.binaryProtocol", true);
+        debug = config.getBool("debug", false);
+        debugMaxRateHz = config.getInt("debug.maxRateHz", 100);
+        debugLowWaterMark = config.getInt("debug.lowWaterMark", 8 * 1024);
+        debugHighWaterMark = config.getInt("debug.highWaterMark", 32 * 1024);
+        dashboard = config.getBool("dashboard", false);
+        dashboardPort = config.getInt("dashboard.port", 7070);
+        dashboardMaxRateHz = config.getInt("dashboard.maxRateHz", 20);
+        metrics = config.getBool("metrics", true);
+        metricsPort = config.getInt("metrics.port", 9464);
+        trace = config.getBool("trace", true);
+        traceSampleEvery = config.getInt("trace.sampleEvery", 100);
+        traceSampleBuffer = config.getInt("trace.sampleBuffer", 256);
+        recorder = config.getBool("recorder.enabled", true);
+        recorderDir = config.get("recorder.dir", "/home/pi/flightlog");
+        recorderSegmentBytes = config.getLong("recorder.segmentBytes", 8L << 20);
+        recorderMaxSegments = config.getInt("recorder.maxSegments", 32);
+        telemetryRawCapacity = config.getInt("telemetry.rawCapacity", 4096);
+        telemetryFineCapacity = config.getInt("telemetry.fineCapacity", 4096);
+        telemetryCoarseCapacity = config.getInt("telemetry.coarseCapacity", 4096);
+    }
+
+    /**
+     * @return the GPIO pin of every ESC
+     */
+    public int[] escPins() {
+        return escPins.clone();
+    }
+
+    /**
+     * Live. Allocation free, for the control threads.
+     *
+     * @param channel a channel index
+     * @return the deadband threshold of that channel in microseconds
+     */
+    public int deadband(int channel) {
+        return deadband[channel];
+    }
+
+    /**
+     * Live.
+     *
+     * @return the curve per channel, null where a channel is not shaped
+     */
+    public Curve[] curves() {
+        return curves.clone();
+    }
+
+    /**
+     * Lists the settings that differ from an older snapshot but are only read at
+     * startup, so changing them has no effect until a restart. That is every setting
+     * except the ones marked live: deadband thresholds, curves and log levels.
+     *
+     * @param old the previous snapshot
+     * @return the names of the changed startup-only settings, empty if none
+     */
+    public List<String> restartRequired(Settings old) {
+        List<String> changed = new ArrayList<>();
+        check(changed, "serial.receiver.port", receiverPort, old.receiverPort);
+        check(changed, "serial.receiver.baud", receiverBaud, old.receiverBaud);
+        check(changed, "serial.kiss.port", kissPort, old.kissPort);
+        check(changed, "serial.kiss.baud", kissBaud, old.kissBaud);
+        check(changed, "serial.telem.port", telemPort, old.telemPort);
+        check(changed, "serial.telem.baud", telemBaud, old.telemBaud);
+        check(changed, "esc.commandPipe", escCommandPipe, old.escCommandPipe);
+        check(changed, "esc.telemetryPipe", escTelemetryPipe, old.escTelemetryPipe);
+        check(changed, "esc.speedKbs", escSpeedKbs, old.escSpeedKbs);
+        check(changed, "esc.pins", Arrays.toString(escPins), Arrays.toString(old.escPins));
+        check(changed, "servo.sysfs", servoSysfs, old.servoSysfs);
+        check(changed, "servo.pwmRoot", pwmRoot, old.pwmRoot);
+        check(changed, "servo.pwmChip", pwmChip, old.pwmChip);
+        check(changed, "servo.pwmChannel", pwmChannel, old.pwmChannel);
+        check(changed, "servo.frequency", servoFrequency, old.servoFrequency);
+        check(changed, "control.servo.periodNanos", servoPeriodNanos, old.servoPeriodNanos);
+        check(changed, "control.esc.periodNanos", escPeriodNanos, old.escPeriodNanos);
+        check(changed, "control.spinNanos", spinNanos, old.spinNanos);
+        check(changed, "control.overrunPolicy", overrunPolicy, old.overrunPolicy);
+        check(changed, "control.mode", inputTriggered, old.inputTriggered);
+        check(changed, "control.servo.minIntervalNanos", servoMinIntervalNanos, old.servoMinIntervalNanos);
+        check(changed, "control.esc.minIntervalNanos", escMinIntervalNanos, old.escMinIntervalNanos);
+        check(changed, "failsafe.deadlineNanos", failsafeDeadlineNanos, old.failsafeDeadlineNanos);
+        check(changed, "mixer", mixer.toString(), old.mixer.toString());
+        check(changed, "log.async", logAsync, old.logAsync);
+        check(changed, "log.queueCapacity", logQueueCapacity, old.logQueueCapacity);
+        check(changed, "log.batchSize", logBatchSize, old.logBatchSize);
+        check(changed, "startup.timeoutMillis", startupTimeoutMillis, old.startupTimeoutMillis);
+        check(changed, "startup.trainArchive", startupTrainArchive, old.startupTrainArchive);
+        check(changed, "supervisor.checkMillis", supervisorCheckMillis, old.supervisorCheckMillis);
+        check(changed, "supervisor.backoffMillis", supervisorRestart.initialBackoffNanos(), old.supervisorRestart.initialBackoffNanos());
+        check(changed, "supervisor.maxBackoffMillis", supervisorRestart.maxBackoffNanos(), old.supervisorRestart.maxBackoffNanos());
+        check(changed, "shutdown.stepTimeoutMillis", shutdownStepTimeoutMillis, old.shutdownStepTimeoutMillis);
+        check(changed, "sim", sim, old.sim);
+        check(changed, "sim.rateMultiplier", simRateMultiplier, old.simRateMultiplier);
+        check(changed, "sim.binaryProtocol", simBinaryProtocol, old.simBinaryProtocol);
+        check(changed, "debug", debug, old.debug);
+        check(changed, "debug.maxRateHz", debugMaxRateHz, old.debugMaxRateHz);
+        check(changed, "debug.lowWaterMark", debugLowWaterMark, old.debugLowWaterMark);
+        check(changed, "debug.highWaterMark", debugHighWaterMark, old.debugHighWaterMark);
+        check(changed, "dashboard", dashboard, old.dashboard);
+        check(changed, "dashboard.port", dashboardPort, old.dashboardPort);
+        check(changed, "dashboard.maxRateHz", dashboardMaxRateHz, old.dashboardMaxRateHz);
+        check(changed, "metrics", metrics, old.metrics);
+        check(changed, "metrics.port", metricsPort, old.metricsPort);
+        check(changed, "trace", trace, old.trace);
+        check(changed, "trace.sampleEvery", traceSampleEvery, old.traceSampleEvery);
+        check(changed, "trace.sampleBuffer", traceSampleBuffer, old.traceSampleBuffer);
+        check(changed, "recorder.enabled", recorder, old.recorder);
+        check(changed, "recorder.dir", recorderDir, old.recorderDir);
+        check(changed, "recorder.segmentBytes", recorderSegmentBytes, old.recorderSegmentBytes);
+        check(changed, "recorder.maxSegments", recorderMaxSegments, old.recorderMaxSegments);
+        check(changed, "telemetry.rawCapacity", telemetryRawCapacity, old.telemetryRawCapacity);
+        check(changed, "telemetry.fineCapacity", telemetryFineCapacity, old.telemetryFineCapacity);
+        check(changed, "telemetry.coarseCapacity", telemetryCoarseCapacity, old.telemetryCoarseCapacity);
+        return changed;
+    }
+
+    private static void check(List<String> changed, String name, Object value, Object old) {
+        if (!value.equals(old)) {
+            changed.add(name);
+        }
+    }
+
+    private static int[] ints(String list) {
+        String[] parts = list.split(",");
+        int[] values = new int[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            values[i] = Integer.parseInt(parts[i].trim());
+        }
+        return values;
+    }
+
+    private static double[] doubles(String list) {
+        String[] parts = list.split(",");
+        double[] values = new double[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            values[i] = Double.parseDouble(parts[i].trim());
+        }
+        return values;
+    }
+}
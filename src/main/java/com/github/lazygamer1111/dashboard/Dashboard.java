@@ -0,0 +1,241 @@
+package com.github.lazygamer1111.dashboard;
+
+import com.github.lazygamer1111.components.output.ESCGroup;
+import com.github.lazygamer1111.components.output.Servo;
+import com.github.lazygamer1111.dataTypes.ControllerSnapshot;
+import com.github.lazygamer1111.dataTypes.KissTelemetry;
+import io.javalin.Javalin;
+import io.javalin.http.staticfiles.Location;
+import io.javalin.websocket.WsContext;
+import org.eclipse.jetty.websocket.api.WriteCallback;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Embedded web dashboard showing the live vehicle state.
+ * <p>
+ * Javalin serves the page from {@code resources/dashboard} and a WebSocket at
+ * {@value #PATH}. A single "Dashboard Push" thread samples the shared state at most
+ * {@code maxRateHz} times per second and, when something changed (or twice per
+ * second regardless, so the frame age stays current), encodes one compact
+ * {@value #FRAME_LENGTH}-byte binary frame that is sent to every session.
+ * Sends are asynchronous; a session whose previous frame is still in flight is
+ * skipped, so a slow phone always gets the newest state and never builds up a
+ * backlog. The control threads are never touched: the pusher only takes lock-free
+ * copies of the shared snapshots.
+ * <p>
+ * Frame layout (little-endian): type (u8, 1), reserved (u8), 14 channels (u16),
+ * throttle (i16, -1 if none), servo angle (f32), temperature, voltage, current,
+ * consumption (u16), eRPM (u32), controller frame age in ms (u32, max if none),
+ * controller frame sequence (u32).
+ *
+ * @author lazygamer1111
+ * @version 1.0
+ * @since 2026-10-17
+ */
+public class Dashboard {
+    private static final Logger log = LoggerFactory.getLogger(Dashboard.class);
+
+    /** WebSocket path of the live state stream */
+    public static final String PATH = "/ws/live";
+
+    /** Length of one binary state frame */
+    public static final int FRAME_LENGTH = 56;
+
+    static final int TYPE_STATE = 1;
+
+    /** Unchanged state is still resent this often, so the page sees the frame age grow */
+    private static final long REFRESH_NANOS = 500_000_000L;
+
+    private final ControllerSnapshot source;
+    private final KissTelemetry telemetrySource;
+    private final Servo servo;
+    private final ESCGroup esc;
+    private final long periodNanos;
+
+    private final ControllerSnapshot snapshot = new ControllerSnapshot();
+    private final KissTelemetry telemetry = new KissTelemetry();
+    private final ByteBuffer frame = ByteBuffer.allocateDirect(FRAME_LENGTH).order(ByteOrder.LITTLE_ENDIAN);
+    private final ByteBuffer previous = ByteBuffer.allocateDirect(FRAME_LENGTH).order(ByteOrder.LITTLE_ENDIAN);
+    private final CopyOnWriteArrayList<Session> sessions = new CopyOnWriteArrayList<>();
+
+    private final AtomicLong framesSent = new AtomicLong();
+    private final AtomicLong framesConflated = new AtomicLong();
+
+    private Javalin app;
+    private Thread pusher;
+    private volatile boolean running = false;
+
+    /**
+     * @param source          the shared controller snapshot
+     * @param telemetrySource the shared KISS telemetry
+     * @param servo           the servo whose angle is shown, or null
+     * @param esc             the ESC whose throttle is shown, or null
+     * @param maxRateHz       the highest rate frames are pushed at
+     */
+    public Dashboard(ControllerSnapshot source, KissTelemetry telemetrySource, Servo servo, ESCGroup esc, int maxRateHz) {
+        this.source = source;
+        this.telemetrySource = telemetrySource;
+        this.servo = servo;
+        this.esc = esc;
+        this.periodNanos = 1_000_000_000L / Math.max(1, maxRateHz);
+    }
+
+    /**
+     * Starts the web server and the push thread.
+     *
+     * @param port the HTTP port
+     */
+    public void start(int port) {
+        app = Javalin.create(config -> config.staticFiles.add("/dashboard", Location.CLASSPATH));
+        app.ws(PATH, ws -> {
+            ws.onConnect(ctx -> {
+                ctx.enableAutomaticPings();
+                sessions.add(new Session(ctx));
+            });
+            ws.onClose(ctx -> sessions.removeIf(s -> s.ctx.sessionId().equals(ctx.sessionId())));
+            ws.onError(ctx -> sessions.removeIf(s -> s.ctx.sessionId().equals(ctx.sessionId())));
+        });
+        app.start(port);
+
+        running = true;
+        pusher = new Thread(this::push, "Dashboard Push");
+        pusher.setDaemon(true);
+        pusher.setPriority(Thread.MIN_PRIORITY);
+        pusher.start();
+        log.info("Dashboard on port {}", port);
+    }
+
+    /**
+     * Stops the push thread and the web server.
+     */
+    public void stop() {
+        running = false;
+        if (pusher != null) {
+            pusher.interrupt();
+        }
+        if (app != null) {
+            app.stop();
+        }
+    }
+
+    private void push() {
+        long next = System.nanoTime();
+        long lastFrame = next;
+        while (running && !Thread.currentThread().isInterrupted()) {
+            next += periodNanos;
+            LockSupport.parkNanos(next - System.nanoTime());
+            long now = System.nanoTime();
+            if (sessions.isEmpty() || (!encode(now) && now - lastFrame < REFRESH_NANOS)) {
+                continue;
+            }
+            lastFrame = now;
+            // One immutable copy per frame, since Jetty may still be sending it when the next one is encoded
+            ByteBuffer shared = ByteBuffer.allocate(FRAME_LENGTH);
+            shared.put(frame.duplicate()).flip();
+            for (Session session : sessions) {
+                session.send(shared);
+            }
+        }
+    }
+
+    /**
+     * Encodes the current state into {@link #frame}.
+     *
+     * @return false if nothing changed since the last frame
+     */
+    boolean encode(long now) {
+        source.copyTo(snapshot);
+        telemetrySource.copyTo(telemetry);
+
+        frame.clear();
+        frame.put((byte) TYPE_STATE);
+        frame.put((byte) 0);
+        for (int value : snapshot.channels) {
+            frame.putShort((short) value);
+        }
+        frame.putShort((short) (esc == null ? -1 : esc.lastThrottle()));
+        frame.putFloat(servo == null ? Float.NaN : (float) servo.angle());
+        frame.putShort((short) telemetry.temperature);
+        frame.putShort((short) telemetry.voltage);
+        frame.putShort((short) telemetry.current);
+        frame.putShort((short) telemetry.consumption);
+        frame.putInt(telemetry.erpm);
+        // The age changes every frame, so it is left out of the change check
+        int stateLength = frame.position();
+        frame.putInt(snapshot.timestamp == 0 ? -1 : (int) Math.min(Integer.MAX_VALUE, (now - snapshot.timestamp) / 1_000_000L));
+        frame.putInt((int) snapshot.sequence);
+        frame.flip();
+
+        boolean changed = frame.getInt(FRAME_LENGTH - 4) != previous.getInt(FRAME_LENGTH - 4)
+                || frame.slice(0, stateLength).mismatch(previous.slice(0, stateLength)) >= 0;
+        if (changed) {
+            previous.clear();
+            previous.put(frame.duplicate());
+        }
+        return changed;
+    }
+
+    /**
+     * @return the number of frames sent, summed over all sessions
+     */
+    public long framesSent() {
+        return framesSent.get();
+    }
+
+    /**
+     * @return the number of frames skipped because a session was still sending the previous one
+     */
+    public long framesConflated() {
+        return framesConflated.get();
+    }
+
+    /**
+     * @return the number of connected sessions
+     */
+    public int sessions() {
+        return sessions.size();
+    }
+
+    /**
+     * One WebSocket session with at most one frame in flight.
+     */
+    private class Session implements WriteCallback {
+        final WsContext ctx;
+        final AtomicBoolean sending = new AtomicBoolean();
+
+        Session(WsContext ctx) {
+            this.ctx = ctx;
+        }
+
+        void send(ByteBuffer frame) {
+            if (!sending.compareAndSet(false, true)) {
+                framesConflated.incrementAndGet();
+                return;
+            }
+            try {
+                ctx.session.getRemote().sendBytes(frame.duplicate(), this);
+            } catch (RuntimeException e) {
+                sending.set(false);
+            }
+        }
+
+        @Override
+        public void writeSuccess() {
+            framesSent.incrementAndGet();
+            sending.set(false);
+        }
+
+        @Override
+        public void writeFailed(Throwable cause) {
+            sending.set(false);
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.github.lazygamer1111.dataTypes;
+
+/**
+ * Table-driven CRC-8 with polynomial 0x07 and initial value 0.
+ * <p>
+ * This is the checksum used by KISS/BLHeli ESC telemetry and by the binary
+ * {@link PIOFrame} protocol. Computing it allocates nothing.
+ *
+ * @author lazygamer1111
+ * @version 1.0
+ * @since 2026-10-17
+ */
+public final class CRC8 {
+    /** Lookup table with the CRC of every single byte value */
+    private static final byte[] TABLE = new byte[256];
+
+    static {
+        for (int i = 0; i < 256; i++) {
+            int crc = i;
+            for (int bit = 0; bit < 8; bit++) {
+                crc = (crc & 0x80) != 0 ? (crc << 1) ^ 0x07 : crc << 1;
+            }
+            TABLE[i] = (byte) crc;
+        }
+    }
+
+    private CRC8() {
+    }
+
+    /**
+     * Computes the CRC over a range of a byte array.
+     *
+     * @param data   the data
+     * @param offset the index of the first byte
+     * @param length the number of bytes
+     * @return the CRC as an unsigned value (0-255)
+     */
+    public static int compute(byte[] data, int offset, int length) {
+        int crc = 0;
+        for (int i = offset; i < offset + length; i++) {
+            crc = TABLE[(crc ^ data[i]) & 0xFF] & 0xFF;
+        }
+        return crc;
+    }
+}
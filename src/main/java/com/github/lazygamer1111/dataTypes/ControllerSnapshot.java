@@ -0,0 +1,103 @@
+package com.github.lazygamer1111.dataTypes;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * Tear-free, versioned snapshot of the receiver channels.
+ * <p>
+ * One shared instance is written by {@code SerialThread} and read by the control
+ * jobs and the debug server. Updates are guarded by a sequence lock: the writer
+ * makes the version odd, writes the whole frame and makes it even again, and a
+ * reader retries its copy until it saw the same even version before and after.
+ * Readers therefore always get all 14 channels from the same frame, without
+ * locking and without allocating, as long as they copy into an instance they own
+ * with {@link #copyTo(ControllerSnapshot)}.
+ * <p>
+ * Each published frame carries a sequence number and the {@link System#nanoTime()}
+ * at which it was received, so readers can tell new frames from old ones and how
+ * stale the input is.
+ *
+ * @author lazygamer1111
+ * @version 1.0
+ * @since 2026-10-17
+ */
+public class ControllerSnapshot {
+    /** Number of receiver channels */
+    public static final int CHANNELS = 14;
+
+    private static final VarHandle VERSION;
+
+    static {
+        try {
+            VERSION = MethodHandles.lookup().findVarHandle(ControllerSnapshot.class, "version", int.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    /** Seqlock version, odd while a frame is being written */
+    private int version;
+
+    /** Channel values in microseconds (typically 1000-2000) */
+    public final int[] channels = new int[CHANNELS];
+
+    /** Number of frames published so far, 0 before the first frame */
+    public long sequence;
+
+    /** {@link System#nanoTime()} at which the frame was received, 0 before the first frame */
+    public long timestamp;
+
+    /** {@link System#nanoTime()} at which the frame was decoded and published, for latency tracing */
+    public long parsedAt;
+
+    /**
+     * Publishes a complete frame. Must only be called by the single writer thread.
+     *
+     * @param src       the channel values, at least {@value #CHANNELS} entries
+     * @param timestamp the {@link System#nanoTime()} at which the frame was received
+     */
+    public void publish(int[] src, long timestamp) {
+        publish(src, timestamp, timestamp);
+    }
+
+    /**
+     * Publishes a complete frame. Must only be called by the single writer thread.
+     *
+     * @param src       the channel values, at least {@value #CHANNELS} entries
+     * @param timestamp the {@link System#nanoTime()} at which the frame was received
+     * @param parsedAt  the {@link System#nanoTime()} at which the frame was decoded
+     */
+    public void publish(int[] src, long timestamp, long parsedAt) {
+        int v = (int) VERSION.getOpaque(this);
+        VERSION.setOpaque(this, v + 1);
+        VarHandle.storeStoreFence();
+        System.arraycopy(src, 0, channels, 0, CHANNELS);
+        this.sequence++;
+        this.timestamp = timestamp;
+        this.parsedAt = parsedAt;
+        VERSION.setRelease(this, v + 2);
+    }
+
+    /**
+     * Copies a consistent frame into {@code dst}, retrying while a write is in progress.
+     *
+     * @param dst the instance to copy into, owned by the caller
+     */
+    public void copyTo(ControllerSnapshot dst) {
+        while (true) {
+            int before = (int) VERSION.getAcquire(this);
+            if ((before & 1) == 0) {
+                System.arraycopy(channels, 0, dst.channels, 0, CHANNELS);
+                dst.sequence = sequence;
+                dst.timestamp = timestamp;
+                dst.parsedAt = parsedAt;
+                VarHandle.loadLoadFence();
+                if ((int) VERSION.getOpaque(this) == before) {
+                    return;
+                }
+            }
+            Thread.onSpinWait();
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.github.lazygamer1111.dataTypes;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * Latest decoded KISS ESC telemetry frame.
+ * <p>
+ * Written by a single thread ({@code SerialKiss}) and read by any number of others.
+ * Values are kept as primitives in the units sent by the ESC. A version counter
+ * that is odd while a write is in progress lets readers take a consistent copy with
+ * {@link #copyTo(KissTelemetry)} without locking, like {@link ControllerSnapshot}.
+ *
+ * @author lazygamer1111
+ * @version 1.0
+ * @since 2026-10-17
+ */
+public class KissTelemetry {
+    /** Size of a KISS telemetry frame including CRC */
+    public static final int FRAME_LENGTH = 10;
+
+    private static final VarHandle VERSION;
+
+    static {
+        try {
+            VERSION = MethodHandles.lookup().findVarHandle(KissTelemetry.class, "version", int.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    /** Incremented before and after every update, odd while an update is in progress */
+    private int version;
+
+    /** ESC temperature in degrees Celsius */
+    public int temperature;
+
+    /** Battery voltage in 0.01 V */
+    public int voltage;
+
+    /** Motor current in 0.01 A */
+    public int current;
+
+    /** Consumed charge in mAh */
+    public int consumption;
+
+    /** Electrical RPM */
+    public int erpm;
+
+    /** {@link System#nanoTime()} at which the frame was received, 0 if none yet */
+    public long timestamp;
+
+    /**
+     * Checks whether {@code buf} holds a valid KISS frame at {@code offset}.
+     * <p>
+     * The CRC alone accepts a run of zero bytes, so an all-zero frame is rejected too.
+     *
+     * @param buf    the received bytes
+     * @param offset the index of the first byte of the frame
+     * @return true if the CRC matches and the frame is not all zeros
+     */
+    public static boolean isValid(byte[] buf, int offset) {
+        if (CRC8.compute(buf, offset, FRAME_LENGTH - 1) != (buf[offset + FRAME_LENGTH - 1] & 0xFF)) {
+            return false;
+        }
+        for (int i = offset; i < offset + FRAME_LENGTH; i++) {
+            if (buf[i] != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Decodes a frame that passed {@link #isValid(byte[], int)} and publishes it.
+     * Must only be called by the single writer thread.
+     *
+     * @param buf       the received bytes
+     * @param offset    the index of the first byte of the frame
+     * @param timestamp the {@link System#nanoTime()} at which the frame was received
+     */
+    public void publish(byte[] buf, int offset, long timestamp) {
+        int v = (int) VERSION.getOpaque(this);
+        VERSION.setOpaque(this, v + 1);
+        VarHandle.storeStoreFence();
+        temperature = buf[offset] & 0xFF;
+        voltage = (buf[offset + 1] & 0xFF) << 8 | buf[offset + 2] & 0xFF;
+        current = (buf[offset + 3] & 0xFF) << 8 | buf[offset + 4] & 0xFF;
+        consumption = (buf[offset + 5] & 0xFF) << 8 | buf[offset + 6] & 0xFF;
+        erpm = ((buf[offset + 7] & 0xFF) << 8 | buf[offset + 8] & 0xFF) * 100;
+        this.timestamp = timestamp;
+        VERSION.setRelease(this, v + 2);
+    }
+
+    /**
+     * Copies a consistent snapshot of this telemetry into {@code dst}.
+     *
+     * @param dst the instance to copy into, owned by the caller
+     */
+    public void copyTo(KissTelemetry dst) {
+        while (true) {
+            int before = (int) VERSION.getAcquire(this);
+            if ((before & 1) == 0) {
+                dst.temperature = temperature;
+                dst.voltage = voltage;
+                dst.current = current;
+                dst.consumption = consumption;
+                dst.erpm = erpm;
+                dst.timestamp = timestamp;
+                VarHandle.loadLoadFence();
+                if ((int) VERSION.getOpaque(this) == before) {
+                    return;
+                }
+            }
+            Thread.onSpinWait();
+        }
+    }
+}
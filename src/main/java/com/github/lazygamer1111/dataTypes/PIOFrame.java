@@ -0,0 +1,223 @@
+package com.github.lazygamer1111.dataTypes;
+
+/**
+ * Fixed-size binary frame exchanged with the PIO helper.
+ * <p>
+ * Replaces the text {@link PIOMSG} protocol once the helper has agreed to it during
+ * {@code ESC.init_SM}. Every frame is {@value #LENGTH} bytes:
+ * <pre>
+ *  0  sync     0xA5
+ *  1  version  {@value #VERSION}
+ *  2  command  {@link #THROTTLE}, {@link #OK} or {@link #ERR}
+ *  3  ESC id   state machine id handed out by the helper
+ *  4  value    16-bit little-endian (throttle for THROTTLE, echo or error code for replies)
+ *  6  flags    bit 0: telemetry request
+ *  7  seq      16-bit little-endian sequence number, echoed in the reply
+ *  9  crc      CRC-8 (poly 0x07) over bytes 0-8
+ * </pre>
+ * Protocol version {@value #BATCH_VERSION} adds the variable-length {@link #BATCH}
+ * command, which sets the throttle of up to {@value #MAX_BATCH} ESCs in one frame:
+ * <pre>
+ *  0  sync     0xA5
+ *  1  version  {@value #BATCH_VERSION}
+ *  2  command  {@link #BATCH}
+ *  3  count    number of entries n
+ *  4  seq      16-bit little-endian sequence number, echoed in the reply
+ *  6  entries  n times: ESC id, 16-bit little-endian throttle, flags
+ *  6+4n crc    CRC-8 (poly 0x07) over all previous bytes
+ * </pre>
+ * The helper answers a batch with a single {@value #LENGTH}-byte frame: {@link #OK}
+ * with the entry count as value, or {@link #ERR} with the error code, and the batch's
+ * sequence number. Replies keep the version 1 layout.
+ * <p>
+ * Encoding writes into a caller-supplied array and decoding fills the fields of a
+ * reusable instance, so neither allocates.
+ *
+ * @author lazygamer1111
+ * @version 1.0
+ * @since 2026-10-17
+ */
+public final class PIOFrame {
+    /** Size of an encoded frame in bytes */
+    public static final int LENGTH = 10;
+
+    /** First byte of every frame */
+    public static final byte SYNC = (byte) 0xA5;
+
+    /** Wire format version, sent with {@code PROTO} during negotiation */
+    public static final int VERSION = 1;
+
+    /** Command: set the throttle of an ESC */
+    public static final int THROTTLE = 1;
+
+    /** Reply: command accepted */
+    public static final int OK = 2;
+
+    /** Reply: command rejected, value holds the error code */
+    public static final int ERR = 3;
+
+    /** Protocol version that adds {@link #BATCH}, also its version byte */
+    public static final int BATCH_VERSION = 2;
+
+    /** Command: set the throttle of several ESCs at once */
+    public static final int BATCH = 4;
+
+    /** Maximum number of entries in a batch */
+    public static final int MAX_BATCH = 8;
+
+    /** Length of a batch header, before the entries */
+    public static final int BATCH_HEADER = 6;
+
+    /** Length of one batch entry */
+    public static final int BATCH_ENTRY = 4;
+
+    /** Flag: request a KISS telemetry frame from the ESC */
+    public static final int FLAG_TELEMETRY = 1;
+
+    /** Command byte of the last decoded frame */
+    public int command;
+
+    /** ESC id of the last decoded frame */
+    public int id;
+
+    /** Unsigned 16-bit value of the last decoded frame */
+    public int value;
+
+    /** Flags of the last decoded frame */
+    public int flags;
+
+    /** Unsigned 16-bit sequence number of the last decoded frame */
+    public int seq;
+
+    /**
+     * Encodes a frame.
+     *
+     * @param buf     the destination array
+     * @param offset  the index to start writing at; {@value #LENGTH} bytes are written
+     * @param command the command byte
+     * @param id      the ESC id
+     * @param value   the 16-bit value
+     * @param flags   the flag bits
+     * @param seq     the 16-bit sequence number
+     */
+    public static void encode(byte[] buf, int offset, int command, int id, int value, int flags, int seq) {
+        buf[offset] = SYNC;
+        buf[offset + 1] = VERSION;
+        buf[offset + 2] = (byte) command;
+        buf[offset + 3] = (byte) id;
+        buf[offset + 4] = (byte) value;
+        buf[offset + 5] = (byte) (value >> 8);
+        buf[offset + 6] = (byte) flags;
+        buf[offset + 7] = (byte) seq;
+        buf[offset + 8] = (byte) (seq >> 8);
+        buf[offset + 9] = (byte) CRC8.compute(buf, offset, LENGTH - 1);
+    }
+
+    /**
+     * Returns the encoded length of a batch.
+     *
+     * @param count the number of entries
+     * @return the frame length in bytes, including the CRC
+     */
+    public static int batchLength(int count) {
+        return BATCH_HEADER + count * BATCH_ENTRY + 1;
+    }
+
+    /**
+     * Encodes a {@link #BATCH} frame.
+     *
+     * @param buf    the destination array
+     * @param offset the index to start writing at; {@link #batchLength(int)} bytes are written
+     * @param ids    the ESC id per entry
+     * @param values the 16-bit throttle per entry
+     * @param flags  the flag bits per entry
+     * @param count  the number of entries, at most {@value #MAX_BATCH}
+     * @param seq    the 16-bit sequence number
+     * @return the number of bytes written
+     */
+    public static int encodeBatch(byte[] buf, int offset, int[] ids, int[] values, int[] flags, int count, int seq) {
+        buf[offset] = SYNC;
+        buf[offset + 1] = BATCH_VERSION;
+        buf[offset + 2] = BATCH;
+        buf[offset + 3] = (byte) count;
+        buf[offset + 4] = (byte) seq;
+        buf[offset + 5] = (byte) (seq >> 8);
+        int pos = offset + BATCH_HEADER;
+        for (int i = 0; i < count; i++) {
+            buf[pos] = (byte) ids[i];
+            buf[pos + 1] = (byte) values[i];
+            buf[pos + 2] = (byte) (values[i] >> 8);
+            buf[pos + 3] = (byte) flags[i];
+            pos += BATCH_ENTRY;
+        }
+        buf[pos] = (byte) CRC8.compute(buf, offset, pos - offset);
+        return pos + 1 - offset;
+    }
+
+    /**
+     * Decodes a {@link #BATCH} frame, setting {@link #command}, {@link #value} (the
+     * entry count) and {@link #seq} of this instance and filling the entry arrays.
+     *
+     * @param buf    the source array, holding at least the whole batch
+     * @param offset the index of the sync byte
+     * @param ids    receives the ESC id per entry
+     * @param values receives the throttle per entry
+     * @param flags  receives the flags per entry
+     * @return true if a valid batch was decoded
+     */
+    public boolean decodeBatch(byte[] buf, int offset, int[] ids, int[] values, int[] flags) {
+        if (buf[offset] != SYNC || buf[offset + 1] != BATCH_VERSION || buf[offset + 2] != BATCH) {
+            return false;
+        }
+        int count = buf[offset + 3] & 0xFF;
+        if (count > MAX_BATCH) {
+            return false;
+        }
+        int crcAt = offset + batchLength(count) - 1;
+        if (CRC8.compute(buf, offset, crcAt - offset) != (buf[crcAt] & 0xFF)) {
+            return false;
+        }
+        command = BATCH;
+        value = count;
+        seq = (buf[offset + 4] & 0xFF) | (buf[offset + 5] & 0xFF) << 8;
+        int pos = offset + BATCH_HEADER;
+        for (int i = 0; i < count; i++) {
+            ids[i] = buf[pos] & 0xFF;
+            values[i] = (buf[pos + 1] & 0xFF) | (buf[pos + 2] & 0xFF) << 8;
+            flags[i] = buf[pos + 3] & 0xFF;
+            pos += BATCH_ENTRY;
+        }
+        return true;
+    }
+
+    /**
+     * Decodes a frame into this instance.
+     * <p>
+     * The fields are only updated if the sync byte, version and CRC are valid.
+     *
+     * @param buf    the source array
+     * @param offset the index of the sync byte
+     * @return true if a valid frame was decoded
+     */
+    public boolean decode(byte[] buf, int offset) {
+        if (buf[offset] != SYNC || buf[offset + 1] != VERSION) {
+            return false;
+        }
+        if (CRC8.compute(buf, offset, LENGTH - 1) != (buf[offset + 9] & 0xFF)) {
+            return false;
+        }
+        command = buf[offset + 2] & 0xFF;
+        id = buf[offset + 3] & 0xFF;
+        value = (buf[offset + 4] & 0xFF) | (buf[offset + 5] & 0xFF) << 8;
+        flags = buf[offset + 6] & 0xFF;
+        seq = (buf[offset + 7] & 0xFF) | (buf[offset + 8] & 0xFF) << 8;
+        return true;
+    }
+
+    /**
+     * @return true if the last decoded frame requested telemetry
+     */
+    public boolean telemetry() {
+        return (flags & FLAG_TELEMETRY) != 0;
+    }
+}
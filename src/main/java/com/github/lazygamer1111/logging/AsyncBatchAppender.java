@@ -0,0 +1,238 @@
+package com.github.lazygamer1111.logging;
+
+import org.apache.log4j.Appender;
+import org.apache.log4j.AppenderSkeleton;
+import org.apache.log4j.Level;
+import org.apache.log4j.Logger;
+import org.apache.log4j.WriterAppender;
+import org.apache.log4j.helpers.LogLog;
+import org.apache.log4j.spi.LoggingEvent;
+import org.jctools.queues.MpscArrayQueue;
+
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Moves all log output off the calling threads.
+ * <p>
+ * {@link #install(int, int)} takes the appenders configured in {@code log4j.properties}
+ * off the root logger and puts this appender in their place. Logging threads only
+ * capture the thread name and context of the event and offer it to a bounded
+ * lock-free queue; they never touch the console or the SD card. A single "Log Writer"
+ * thread drains the queue in batches and passes each batch to the original appenders,
+ * flushing file appenders once per batch instead of once per line. When the queue is
+ * full the event is dropped and counted, so a stalled SD card cannot block the serial
+ * readers or the control loop; the number of dropped events is logged once the writer
+ * catches up.
+ *
+ * @author lazygamer1111
+ * @version 1.0
+ * @since 2026-10-17
+ */
+public class AsyncBatchAppender extends AppenderSkeleton {
+    /** How long the writer sleeps when the queue is empty and nobody wakes it */
+    private static final long IDLE_PARK_NANOS = 100_000_000L;
+
+    private final MpscArrayQueue<LoggingEvent> queue;
+    private final LoggingEvent[] batch;
+    private final List<Appender> delegates = new ArrayList<>();
+    private final Thread writer;
+
+    /** Set by the writer before it parks, so producers only unpark it when needed */
+    private volatile boolean writerWaiting = false;
+    private volatile boolean stopping = false;
+
+    private final AtomicLong enqueued = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+    private long reportedDrops = 0;
+
+    /**
+     * @param capacity  the number of events the queue holds
+     * @param batchSize the maximum number of events written per batch
+     */
+    public AsyncBatchAppender(int capacity, int batchSize) {
+        queue = new MpscArrayQueue<>(capacity);
+        batch = new LoggingEvent[batchSize];
+        writer = new Thread(this::drainLoop, "Log Writer");
+        writer.setDaemon(true);
+        setName("ASYNC");
+    }
+
+    /**
+     * Routes everything the root logger writes through a new async appender.
+     *
+     * @param capacity  the number of events the queue holds
+     * @param batchSize the maximum number of events written per batch
+     * @return the installed appender, to close on shutdown and read counters from
+     */
+    public static AsyncBatchAppender install(int capacity, int batchSize) {
+        AsyncBatchAppender async = new AsyncBatchAppender(capacity, batchSize);
+        Logger root = Logger.getRootLogger();
+        Enumeration<?> appenders = root.getAllAppenders();
+        while (appenders.hasMoreElements()) {
+            async.delegates.add((Appender) appenders.nextElement());
+        }
+        for (Appender appender : async.delegates) {
+            root.removeAppender(appender);
+        }
+        async.writer.start();
+        root.addAppender(async);
+        return async;
+    }
+
+    @Override
+    protected void append(LoggingEvent event) {
+        if (stopping) {
+            return;
+        }
+        // These are looked up lazily from the current thread, so capture them before handing over
+        event.getThreadName();
+        event.getNDC();
+        event.getMDCCopy();
+        if (!queue.offer(event)) {
+            dropped.incrementAndGet();
+            return;
+        }
+        enqueued.incrementAndGet();
+        if (writerWaiting) {
+            LockSupport.unpark(writer);
+        }
+    }
+
+    private void drainLoop() {
+        while (!stopping) {
+            if (writeBatch() == 0) {
+                writerWaiting = true;
+                if (queue.isEmpty() && !stopping) {
+                    LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+                }
+                writerWaiting = false;
+            }
+        }
+    }
+
+    /**
+     * Writes up to one batch of queued events to the delegate appenders.
+     *
+     * @return the number of events written
+     */
+    private int writeBatch() {
+        int n = 0;
+        LoggingEvent event;
+        while (n < batch.length && (event = queue.poll()) != null) {
+            batch[n++] = event;
+        }
+        long drops = dropped.get();
+        if (drops != reportedDrops && n < batch.length) {
+            batch[n++] = new LoggingEvent(AsyncBatchAppender.class.getName(), Logger.getLogger(AsyncBatchAppender.class),
+                    Level.WARN, "Log queue full, dropped " + (drops - reportedDrops) + " events", null);
+            reportedDrops = drops;
+        }
+        if (n == 0) {
+            return 0;
+        }
+
+        for (Appender appender : delegates) {
+            WriterAppender flushing = appender instanceof WriterAppender ? (WriterAppender) appender : null;
+            boolean immediateFlush = flushing != null && flushing.getImmediateFlush();
+            for (int i = 0; i < n; i++) {
+                if (flushing != null) {
+                    // Only flush after the last event of the batch
+                    flushing.setImmediateFlush(immediateFlush && i == n - 1);
+                }
+                try {
+                    appender.doAppend(batch[i]);
+                } catch (RuntimeException e) {
+                    // Keep the writer alive; the original appender reports its own errors
+                }
+            }
+            if (flushing != null) {
+                flushing.setImmediateFlush(immediateFlush);
+            }
+        }
+        for (int i = 0; i < n; i++) {
+            batch[i] = null;
+        }
+        written.addAndGet(n);
+        batches.incrementAndGet();
+        return n;
+    }
+
+    /**
+     * @return the number of events accepted into the queue
+     */
+    public long enqueued() {
+        return enqueued.get();
+    }
+
+    /**
+     * @return the number of events dropped because the queue was full
+     */
+    public long dropped() {
+        return dropped.get();
+    }
+
+    /**
+     * @return the number of events handed to the original appenders
+     */
+    public long written() {
+        return written.get();
+    }
+
+    /**
+     * @return the number of batches written
+     */
+    public long batches() {
+        return batches.get();
+    }
+
+    /**
+     * @return the number of events waiting to be written
+     */
+    public int backlog() {
+        return queue.size();
+    }
+
+    /**
+     * Writes everything still queued and closes the original appenders.
+     * <p>
+     * The queue has a single consumer, so the rest is only drained here once the
+     * writer thread has exited. A writer still stuck in a batch after a second, e.g.
+     * on a stalled SD card, keeps the queue, and the events left in it are reported
+     * as abandoned.
+     */
+    @Override
+    public void close() {
+        if (stopping) {
+            return;
+        }
+        stopping = true;
+        LockSupport.unpark(writer);
+        try {
+            writer.join(1000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (writer.isAlive()) {
+            LogLog.warn("Log writer did not stop within 1000 ms, abandoning " + queue.size() + " queued events");
+        } else {
+            while (writeBatch() > 0) {
+                // Drain the rest on the closing thread
+            }
+        }
+        for (Appender appender : delegates) {
+            appender.close();
+        }
+        closed = true;
+    }
+
+    @Override
+    public boolean requiresLayout() {
+        return false;
+    }
+}
@@ -0,0 +1,135 @@
+package com.github.lazygamer1111.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Fixed-bucket log-linear histogram for non-negative long values such as latencies
+ * in nanoseconds.
+ * <p>
+ * Every power of two is split into {@value #SUB_BUCKETS} equal sub-buckets, so the
+ * relative error of a reported value is at most 12.5% over the whole long range,
+ * using {@value #BUCKETS} buckets. Recording is a handful of atomic increments and
+ * never allocates, so it can be called from the control threads; any number of
+ * threads may record concurrently.
+ *
+ * @author lazygamer1111
+ * @version 1.0
+ * @since 2026-10-17
+ */
+public class Histogram {
+    /** Sub-buckets per power of two, as a number of bits */
+    private static final int SUB_BITS = 3;
+
+    /** Sub-buckets per power of two */
+    public static final int SUB_BUCKETS = 1 << SUB_BITS;
+
+    /** Total number of buckets */
+    public static final int BUCKETS = (64 - SUB_BITS) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong sum = new AtomicLong();
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * Records a value. Negative values are recorded as 0.
+     *
+     * @param value the value to record
+     */
+    public void record(long value) {
+        if (value < 0) {
+            value = 0;
+        }
+        counts.incrementAndGet(bucketOf(value));
+        count.incrementAndGet();
+        sum.addAndGet(value);
+        if (value > max.get()) {
+            max.accumulateAndGet(value, Math::max);
+        }
+    }
+
+    /**
+     * Returns the bucket a value falls into.
+     *
+     * @param value a non-negative value
+     * @return the bucket index
+     */
+    public static int bucketOf(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int sub = (int) (value >>> (exponent - SUB_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BITS + 1) * SUB_BUCKETS + sub;
+    }
+
+    /**
+     * Returns the largest value that falls into a bucket.
+     *
+     * @param bucket the bucket index
+     * @return the inclusive upper bound of the bucket
+     */
+    public static long upperBound(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int exponent = bucket / SUB_BUCKETS + SUB_BITS - 1;
+        long width = 1L << (exponent - SUB_BITS);
+        long lower = (long) (SUB_BUCKETS + bucket % SUB_BUCKETS) << (exponent - SUB_BITS);
+        return lower + width - 1;
+    }
+
+    /**
+     * @return the number of recorded values
+     */
+    public long count() {
+        return count.get();
+    }
+
+    /**
+     * @return the sum of all recorded values
+     */
+    public long sum() {
+        return sum.get();
+    }
+
+    /**
+     * @return the largest recorded value
+     */
+    public long max() {
+        return max.get();
+    }
+
+    /**
+     * Returns the number of values recorded in a bucket.
+     *
+     * @param bucket the bucket index
+     * @return the bucket count
+     */
+    public long bucketCount(int bucket) {
+        return counts.get(bucket);
+    }
+
+    /**
+     * Estimates a percentile as the upper bound of the bucket containing it.
+     *
+     * @param percentile the percentile between 0 and 1 (e.g. 0.99)
+     * @return the estimated value, or 0 if nothing was recorded
+     */
+    public long percentile(double percentile) {
+        long total = count.get();
+        if (total == 0) {
+            return 0;
+        }
+        long target = Math.max(1, (long) Math.ceil(total * percentile));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts.get(i);
+            if (seen >= target) {
+                return Math.min(upperBound(i), max.get());
+            }
+        }
+        return max.get();
+    }
+}
@@ -0,0 +1,161 @@
+package com.github.lazygamer1111.metrics;
+
+/**
+ * Stick-to-output latency of every controller frame, split into stages.
+ * <p>
+ * A frame is stamped by {@code SerialThread} when its bytes are read and when it is
+ * decoded, and keeps its sequence number while it travels through a control stage
+ * to an output. When the output is done (the PIO helper acknowledged the ESC frame,
+ * or the servo PWM write returned) the output calls {@link #record} with all
+ * timestamps, and each stage goes into its own {@link Histogram}:
+ * <ul>
+ *     <li>{@code parse}: bytes read to frame decoded and published</li>
+ *     <li>{@code queue}: published to the control tick that picked it up</li>
+ *     <li>{@code compute}: tick start to output call</li>
+ *     <li>{@code write}: the output write itself (pipe or PWM)</li>
+ *     <li>{@code ack}: pipe write to helper reply (ESC only)</li>
+ *     <li>{@code total}: bytes read to done</li>
+ * </ul>
+ * Every {@code sampleEvery}-th trace per output is also copied into a small ring,
+ * which {@link #dump()} renders on demand. Recording never allocates; only sampling
+ * takes a lock, and only once per {@code sampleEvery} traces.
+ *
+ * @author lazygamer1111
+ * @version 1.0
+ * @since 2026-10-17
+ */
+public class LatencyTracer {
+    /** Output: ESC throttle frames, traced up to the PIO helper's reply */
+    public static final int ESC = 0;
+
+    /** Output: servo PWM, traced up to the duty cycle write */
+    public static final int SERVO = 1;
+
+    /** Stage indices, in the order they happen */
+    public static final int PARSE = 0;
+    public static final int QUEUE = 1;
+    public static final int COMPUTE = 2;
+    public static final int WRITE = 3;
+    public static final int ACK = 4;
+    public static final int TOTAL = 5;
+
+    public static final String[] OUTPUT_NAMES = {"esc", "servo"};
+    public static final String[] STAGE_NAMES = {"parse", "queue", "compute", "write", "ack", "total"};
+
+    /** Sampled trace fields: output, frame sequence, receive time, then one per stage */
+    private static final int SAMPLE_FIELDS = 3 + STAGE_NAMES.length;
+
+    private final Histogram[][] stages = new Histogram[OUTPUT_NAMES.length][STAGE_NAMES.length];
+    private final int sampleEvery;
+
+    /** Traces seen per output, each only touched by that output's completing thread */
+    private final long[] traced = new long[OUTPUT_NAMES.length];
+
+    private final long[][] samples;
+    private long samplesWritten = 0;
+
+    /**
+     * @param sampleEvery  keep every n-th trace per output for {@link #dump()}, 0 to keep none
+     * @param sampleBuffer the number of sampled traces kept
+     */
+    public LatencyTracer(int sampleEvery, int sampleBuffer) {
+        for (Histogram[] output : stages) {
+            for (int s = 0; s < output.length; s++) {
+                output[s] = new Histogram();
+            }
+        }
+        this.sampleEvery = sampleEvery;
+        this.samples = new long[Math.max(1, sampleBuffer)][SAMPLE_FIELDS];
+    }
+
+    /**
+     * Records one completed trace. Each output must always complete on the same thread.
+     *
+     * @param output    {@link #ESC} or {@link #SERVO}
+     * @param sequence  the controller frame sequence number
+     * @param received  when the frame's bytes were read
+     * @param parsed    when the frame was decoded and published
+     * @param tick      when the control tick that used it started
+     * @param writeFrom when the output write started
+     * @param written   when the output write returned
+     * @param done      when the output confirmed the value; {@code written} for the servo,
+     *                  which does not reply
+     */
+    public void record(int output, long sequence, long received, long parsed, long tick,
+                       long writeFrom, long written, long done) {
+        Histogram[] h = stages[output];
+        h[PARSE].record(parsed - received);
+        h[QUEUE].record(tick - parsed);
+        h[COMPUTE].record(writeFrom - tick);
+        h[WRITE].record(written - writeFrom);
+        if (output == ESC) {
+            h[ACK].record(done - written);
+        }
+        h[TOTAL].record(done - received);
+
+        if (sampleEvery > 0 && traced[output]++ % sampleEvery == 0) {
+            sample(output, sequence, received, parsed, tick, writeFrom, written, done);
+        }
+    }
+
+    private synchronized void sample(int output, long sequence, long received, long parsed, long tick,
+                                     long writeFrom, long written, long done) {
+        long[] s = samples[(int) (samplesWritten++ % samples.length)];
+        s[0] = output;
+        s[1] = sequence;
+        s[2] = received;
+        s[3 + PARSE] = parsed - received;
+        s[3 + QUEUE] = tick - parsed;
+        s[3 + COMPUTE] = writeFrom - tick;
+        s[3 + WRITE] = written - writeFrom;
+        s[3 + ACK] = done - written;
+        s[3 + TOTAL] = done - received;
+    }
+
+    /**
+     * @param output {@link #ESC} or {@link #SERVO}
+     * @param stage  one of the stage indices, e.g. {@link #QUEUE}
+     * @return the histogram of that stage in nanoseconds
+     */
+    public Histogram stage(int output, int stage) {
+        return stages[output][stage];
+    }
+
+    /**
+     * Renders the sampled traces, oldest first, one per line with every stage in
+     * microseconds, followed by the p50/p99/max per stage.
+     *
+     * @return a plain text table
+     */
+    public synchronized String dump() {
+        StringBuilder out = new StringBuilder(4096);
+        out.append(String.format("%-6s %10s %16s", "output", "sequence", "received_ns"));
+        for (String stage : STAGE_NAMES) {
+            out.append(String.format(" %10s", stage + "_us"));
+        }
+        out.append('\n');
+        long first = Math.max(0, samplesWritten - samples.length);
+        for (long i = first; i < samplesWritten; i++) {
+            long[] s = samples[(int) (i % samples.length)];
+            out.append(String.format("%-6s %10d %16d", OUTPUT_NAMES[(int) s[0]], s[1], s[2]));
+            for (int stage = 0; stage < STAGE_NAMES.length; stage++) {
+                out.append(String.format(" %10.1f", s[3 + stage] / 1e3));
+            }
+            out.append('\n');
+        }
+
+        out.append('\n');
+        for (int output = 0; output < OUTPUT_NAMES.length; output++) {
+            for (int stage = 0; stage < STAGE_NAMES.length; stage++) {
+                Histogram h = stages[output][stage];
+                if (h.count() == 0) {
+                    continue;
+                }
+                out.append(String.format("%-6s %-8s n=%-10d p50=%10.1f us  p99=%10.1f us  max=%10.1f us%n",
+                        OUTPUT_NAMES[output], STAGE_NAMES[stage], h.count(),
+                        h.percentile(0.5) / 1e3, h.percentile(0.99) / 1e3, h.max() / 1e3));
+            }
+        }
+        return out.toString();
+    }
+}
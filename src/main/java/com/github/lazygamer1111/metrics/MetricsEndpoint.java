@@ -0,0 +1,64 @@
+package com.github.lazygamer1111.metrics;
+
+import io.javalin.Javalin;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Serves a {@link MetricsRegistry} at {@value #PATH} for a Prometheus scraper, and
+ * the sampled latency traces of a {@link LatencyTracer} at {@value #TRACES_PATH}.
+ * <p>
+ * Runs its own small Javalin server, so it is available without the dashboard.
+ * Each scrape renders the registry on a Jetty worker thread; the control threads
+ * are never involved.
+ *
+ * @author lazygamer1111
+ * @version 1.0
+ * @since 2026-10-17
+ */
+public class MetricsEndpoint {
+    private static final Logger log = LoggerFactory.getLogger(MetricsEndpoint.class);
+
+    /** HTTP path the metrics are served at */
+    public static final String PATH = "/metrics";
+
+    /** HTTP path the sampled latency traces are served at */
+    public static final String TRACES_PATH = "/traces";
+
+    private final MetricsRegistry registry;
+    private final LatencyTracer tracer;
+    private Javalin app;
+
+    /**
+     * @param registry the metrics to serve
+     * @param tracer   the latency traces to serve, or null
+     */
+    public MetricsEndpoint(MetricsRegistry registry, LatencyTracer tracer) {
+        this.registry = registry;
+        this.tracer = tracer;
+    }
+
+    /**
+     * Starts the HTTP server.
+     *
+     * @param port the HTTP port
+     */
+    public void start(int port) {
+        app = Javalin.create();
+        app.get(PATH, ctx -> ctx.contentType(MetricsRegistry.CONTENT_TYPE).result(registry.scrape()));
+        if (tracer != null) {
+            app.get(TRACES_PATH, ctx -> ctx.contentType("text/plain; charset=utf-8").result(tracer.dump()));
+        }
+        app.start(port);
+        log.info("Metrics on port {}{}", port, PATH);
+    }
+
+    /**
+     * Stops the HTTP server.
+     */
+    public void stop() {
+        if (app != null) {
+            app.stop();
+        }
+    }
+}
@@ -0,0 +1,225 @@
+package com.github.lazygamer1111.metrics;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.DoubleSupplier;
+import java.util.function.LongSupplier;
+
+/**
+ * Registry of runtime metrics, rendered in the Prometheus text exposition format.
+ * <p>
+ * Nothing here is on the hot path: the threads being measured only ever touch the
+ * {@link LongAdder} or {@link Histogram} they were handed, which are striped or
+ * atomic and never allocate. Counters that a component already keeps are registered
+ * as functions and only read when scraped. Rendering walks every metric and
+ * allocates, so it must only be called by the scraper.
+ * <p>
+ * Histograms record nanoseconds and are exported in seconds, with one cumulative
+ * bucket per power of two from about 1 us to 17 s, so the exported bucket set
+ * never changes between scrapes.
+ *
+ * @author lazygamer1111
+ * @version 1.0
+ * @since 2026-10-17
+ */
+public class MetricsRegistry {
+    /** Content type of {@link #scrape()} */
+    public static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    /** Smallest and largest exported bucket bound, as powers of two nanoseconds */
+    private static final int FIRST_OCTAVE = 10;
+    private static final int LAST_OCTAVE = 34;
+
+    private final String prefix;
+    private final Map<String, Family> families = new LinkedHashMap<>();
+
+    /**
+     * @param prefix prepended to every metric name, e.g. {@code "eindwerk_"}
+     */
+    public MetricsRegistry(String prefix) {
+        this.prefix = prefix;
+    }
+
+    /**
+     * Creates a striped counter.
+     *
+     * @param name   the metric name, without prefix; should end in {@code _total}
+     * @param help   the help text
+     * @param labels the label set, e.g. {@code task="IOJob"}, or null
+     * @return the counter to increment
+     */
+    public LongAdder counter(String name, String help, String labels) {
+        LongAdder adder = new LongAdder();
+        counter(name, help, labels, adder::sum);
+        return adder;
+    }
+
+    /**
+     * Exposes a counter a component already keeps.
+     *
+     * @param name   the metric name, without prefix; should end in {@code _total}
+     * @param help   the help text
+     * @param labels the label set, or null
+     * @param value  reads the current count
+     */
+    public void counter(String name, String help, String labels, LongSupplier value) {
+        family(name, help, "counter").samples.add(new Sample(labels, value, null, null));
+    }
+
+    /**
+     * Exposes a value that can go up and down, such as a queue depth.
+     *
+     * @param name   the metric name, without prefix
+     * @param help   the help text
+     * @param labels the label set, or null
+     * @param value  reads the current value
+     */
+    public void gauge(String name, String help, String labels, DoubleSupplier value) {
+        family(name, help, "gauge").samples.add(new Sample(labels, null, value, null));
+    }
+
+    /**
+     * Creates a histogram of nanosecond durations.
+     *
+     * @param name   the metric name, without prefix; should end in {@code _seconds}
+     * @param help   the help text
+     * @param labels the label set, or null
+     * @return the histogram to record into
+     */
+    public Histogram timer(String name, String help, String labels) {
+        Histogram histogram = new Histogram();
+        timer(name, help, labels, histogram);
+        return histogram;
+    }
+
+    /**
+     * Exposes a histogram of nanosecond durations a component already keeps.
+     *
+     * @param name      the metric name, without prefix; should end in {@code _seconds}
+     * @param help      the help text
+     * @param labels    the label set, or null
+     * @param histogram the histogram
+     */
+    public void timer(String name, String help, String labels, Histogram histogram) {
+        family(name, help, "histogram").samples.add(new Sample(labels, null, null, histogram));
+    }
+
+    private synchronized Family family(String name, String help, String type) {
+        Family family = families.computeIfAbsent(prefix + name, n -> new Family(help, type));
+        if (!family.type.equals(type)) {
+            throw new IllegalArgumentException(prefix + name + " is already registered as a " + family.type);
+        }
+        return family;
+    }
+
+    /**
+     * Renders every metric.
+     *
+     * @return the metrics in the Prometheus text exposition format
+     */
+    public synchronized String scrape() {
+        StringBuilder out = new StringBuilder(8192);
+        for (Map.Entry<String, Family> entry : families.entrySet()) {
+            String name = entry.getKey();
+            Family family = entry.getValue();
+            out.append("# HELP ").append(name).append(' ').append(family.help).append('\n');
+            out.append("# TYPE ").append(name).append(' ').append(family.type).append('\n');
+            for (Sample sample : family.samples) {
+                if (sample.histogram != null) {
+                    writeHistogram(out, name, sample.labels, sample.histogram);
+                } else if (sample.count != null) {
+                    line(out, name, sample.labels, null).append(sample.count.getAsLong()).append('\n');
+                } else {
+                    line(out, name, sample.labels, null).append(format(sample.gauge.getAsDouble())).append('\n');
+                }
+            }
+        }
+        return out.toString();
+    }
+
+    /**
+     * Writes one histogram as cumulative power-of-two buckets. The total is summed
+     * from the same bucket reads, so {@code +Inf} and {@code _count} always agree even
+     * while other threads record.
+     */
+    private static void writeHistogram(StringBuilder out, String name, String labels, Histogram histogram) {
+        String bucketName = name + "_bucket";
+        long cumulative = 0;
+        int bucket = 0;
+        for (int octave = FIRST_OCTAVE; octave <= LAST_OCTAVE; octave++) {
+            long bound = 1L << octave;
+            while (bucket < Histogram.BUCKETS && Histogram.upperBound(bucket) < bound) {
+                cumulative += histogram.bucketCount(bucket++);
+            }
+            line(out, bucketName, labels, "le=\"" + format(bound / 1e9) + "\"").append(cumulative).append('\n');
+        }
+        while (bucket < Histogram.BUCKETS) {
+            cumulative += histogram.bucketCount(bucket++);
+        }
+        line(out, bucketName, labels, "le=\"+Inf\"").append(cumulative).append('\n');
+        line(out, name + "_sum", labels, null).append(format(histogram.sum() / 1e9)).append('\n');
+        line(out, name + "_count", labels, null).append(cumulative).append('\n');
+    }
+
+    private static StringBuilder line(StringBuilder out, String name, String labels, String extra) {
+        out.append(name);
+        if (labels != null || extra != null) {
+            out.append('{');
+            if (labels != null) {
+                out.append(labels);
+            }
+            if (labels != null && extra != null) {
+                out.append(',');
+            }
+            if (extra != null) {
+                out.append(extra);
+            }
+            out.append('}');
+        }
+        return out.append(' ');
+    }
+
+    private static String format(double value) {
+        if (Double.isNaN(value)) {
+            return "NaN";
+        }
+        if (Double.isInfinite(value)) {
+            return value > 0 ? "+Inf" : "-Inf";
+        }
+        return Double.toString(value);
+    }
+
+    /**
+     * All samples sharing a metric name.
+     */
+    private static class Family {
+        final String help;
+        final String type;
+        final List<Sample> samples = new ArrayList<>();
+
+        Family(String help, String type) {
+            this.help = help;
+            this.type = type;
+        }
+    }
+
+    /**
+     * One labelled time series; exactly one of the sources is set.
+     */
+    private static class Sample {
+        final String labels;
+        final LongSupplier count;
+        final DoubleSupplier gauge;
+        final Histogram histogram;
+
+        Sample(String labels, LongSupplier count, DoubleSupplier gauge, Histogram histogram) {
+            this.labels = labels;
+            this.count = count;
+            this.gauge = gauge;
+            this.histogram = histogram;
+        }
+    }
+}
@@ -0,0 +1,351 @@
+package com.github.lazygamer1111.metrics;
+
+import com.github.lazygamer1111.dataTypes.KissTelemetry;
+
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Fixed-memory history of KISS ESC telemetry.
+ * <p>
+ * Samples are kept in three tiers of ring buffers: every raw sample, and min/max/avg
+ * per 100 ms and per 1 s interval, so the coarser tiers cover far more time in the
+ * same memory. Each tier stores its fields as primitive columns allocated once, so
+ * appending never allocates. There is a single writer ({@code SerialKiss}); readers on
+ * any thread copy ranges out without locking, see {@link Series#range}.
+ *
+ * @author lazygamer1111
+ * @version 1.0
+ * @since 2026-10-17
+ */
+public class TelemetryStore {
+    /** Column index of the ESC temperature, degrees Celsius */
+    public static final int TEMPERATURE = 0;
+
+    /** Column index of the battery voltage, 0.01 V */
+    public static final int VOLTAGE = 1;
+
+    /** Column index of the motor current, 0.01 A */
+    public static final int CURRENT = 2;
+
+    /** Column index of the consumed charge, mAh */
+    public static final int CONSUMPTION = 3;
+
+    /** Column index of the electrical RPM */
+    public static final int ERPM = 4;
+
+    /** Number of columns */
+    public static final int FIELDS = 5;
+
+    private final Series raw;
+    private final Series fine;
+    private final Series coarse;
+    private final int[] sample = new int[FIELDS];
+
+    /**
+     * Creates a store. Capacities are rounded up to a power of two.
+     *
+     * @param rawCapacity    the number of raw samples kept
+     * @param fineCapacity   the number of 100 ms intervals kept
+     * @param coarseCapacity the number of 1 s intervals kept
+     */
+    public TelemetryStore(int rawCapacity, int fineCapacity, int coarseCapacity) {
+        raw = new Series(0, rawCapacity);
+        fine = new Series(100_000_000L, fineCapacity);
+        coarse = new Series(1_000_000_000L, coarseCapacity);
+    }
+
+    /**
+     * Appends a sample from the writer's own telemetry instance. Single writer only.
+     *
+     * @param telemetry the telemetry just published
+     */
+    public void append(KissTelemetry telemetry) {
+        sample[TEMPERATURE] = telemetry.temperature;
+        sample[VOLTAGE] = telemetry.voltage;
+        sample[CURRENT] = telemetry.current;
+        sample[CONSUMPTION] = telemetry.consumption;
+        sample[ERPM] = telemetry.erpm;
+        append(telemetry.timestamp, sample);
+    }
+
+    /**
+     * Appends a sample. Single writer only; timestamps must not go backwards.
+     *
+     * @param timestamp the {@link System#nanoTime()} of the sample
+     * @param values    one value per column
+     */
+    public void append(long timestamp, int[] values) {
+        raw.add(timestamp, values);
+        fine.accumulate(timestamp, values);
+        coarse.accumulate(timestamp, values);
+    }
+
+    /**
+     * @return every raw sample
+     */
+    public Series raw() {
+        return raw;
+    }
+
+    /**
+     * @return the 100 ms min/max/avg tier
+     */
+    public Series fine() {
+        return fine;
+    }
+
+    /**
+     * @return the 1 s min/max/avg tier
+     */
+    public Series coarse() {
+        return coarse;
+    }
+
+    /**
+     * Picks the finest tier that still holds data from {@code from} on.
+     *
+     * @param from the {@link System#nanoTime()} the query starts at
+     * @return the raw, 100 ms or 1 s tier
+     */
+    public Series tierFor(long from) {
+        if (raw.covers(from)) {
+            return raw;
+        }
+        if (fine.covers(from)) {
+            return fine;
+        }
+        return coarse;
+    }
+
+    /**
+     * One tier: a ring of entries, each a timestamp and a min, max and avg per column.
+     * <p>
+     * The writer fills an entry's columns and then advances the cursor with release
+     * semantics. Readers take the cursor, copy, and check the cursor again to drop
+     * entries the writer overwrote meanwhile, including the one it may be overwriting
+     * right now: while the cursor reads {@code c}, entry {@code c} is being written over
+     * entry {@code c - capacity}. For the raw tier min, max and avg are the
+     * same arrays.
+     */
+    public static class Series {
+        private final long intervalNanos;
+        private final int mask;
+        private final long[] time;
+        private final int[][] min;
+        private final int[][] max;
+        private final int[][] avg;
+
+        /** Number of entries ever written; entry {@code i} lives at {@code i & mask} */
+        private final AtomicLong cursor = new AtomicLong();
+
+        /** Interval being accumulated, only touched by the writer */
+        private long bucketStart = Long.MIN_VALUE;
+        private int bucketCount = 0;
+        private final int[] bucketMin = new int[FIELDS];
+        private final int[] bucketMax = new int[FIELDS];
+        private final long[] bucketSum = new long[FIELDS];
+        private final int[] bucketAvg = new int[FIELDS];
+
+        Series(long intervalNanos, int capacity) {
+            this.intervalNanos = intervalNanos;
+            int size = Integer.highestOneBit(Math.max(1, capacity - 1)) << 1;
+            this.mask = size - 1;
+            this.time = new long[size];
+            this.avg = new int[FIELDS][size];
+            if (intervalNanos == 0) {
+                this.min = avg;
+                this.max = avg;
+            } else {
+                this.min = new int[FIELDS][size];
+                this.max = new int[FIELDS][size];
+            }
+        }
+
+        /**
+         * Writes one entry and publishes it.
+         */
+        private void add(long timestamp, int[] values) {
+            add(timestamp, values, values, values);
+        }
+
+        private void add(long timestamp, int[] minValues, int[] maxValues, int[] avgValues) {
+            long n = cursor.get();
+            // The previous entry's cursor update must be visible before this one's slot is overwritten
+            VarHandle.storeStoreFence();
+            int slot = (int) (n & mask);
+            time[slot] = timestamp;
+            for (int f = 0; f < FIELDS; f++) {
+                avg[f][slot] = avgValues[f];
+                if (min != avg) {
+                    min[f][slot] = minValues[f];
+                    max[f][slot] = maxValues[f];
+                }
+            }
+            cursor.lazySet(n + 1);
+        }
+
+        /**
+         * Adds a sample to the current interval, closing it first if the sample
+         * belongs to a later one. Intervals without samples leave no entry.
+         */
+        private void accumulate(long timestamp, int[] values) {
+            long start = timestamp - Math.floorMod(timestamp, intervalNanos);
+            if (start != bucketStart) {
+                flush();
+                bucketStart = start;
+            }
+            for (int f = 0; f < FIELDS; f++) {
+                int v = values[f];
+                if (bucketCount == 0 || v < bucketMin[f]) {
+                    bucketMin[f] = v;
+                }
+                if (bucketCount == 0 || v > bucketMax[f]) {
+                    bucketMax[f] = v;
+                }
+                bucketSum[f] += v;
+            }
+            bucketCount++;
+        }
+
+        private void flush() {
+            if (bucketCount == 0) {
+                return;
+            }
+            for (int f = 0; f < FIELDS; f++) {
+                bucketAvg[f] = (int) (bucketSum[f] / bucketCount);
+                bucketSum[f] = 0;
+            }
+            add(bucketStart, bucketMin, bucketMax, bucketAvg);
+            bucketCount = 0;
+        }
+
+        /**
+         * @return the interval length in nanoseconds, 0 for the raw tier
+         */
+        public long intervalNanos() {
+            return intervalNanos;
+        }
+
+        /**
+         * @return the number of entries the ring holds; {@link #range} returns at most one
+         *         less, as the oldest is the next one the writer overwrites
+         */
+        public int capacity() {
+            return mask + 1;
+        }
+
+        /**
+         * @return the number of entries ever written
+         */
+        public long written() {
+            return cursor.get();
+        }
+
+        /**
+         * @return whether the oldest retained entry is at or before {@code from}
+         */
+        boolean covers(long from) {
+            long end = cursor.get();
+            if (end == 0) {
+                return false;
+            }
+            long first = Math.max(0, end + 1 - capacity());
+            return end < capacity() || time[(int) (first & mask)] - from <= 0;
+        }
+
+        /**
+         * Copies the entries with a timestamp in {@code [from, to)} for one column,
+         * oldest first. Any of the output arrays may be null. Does not allocate.
+         *
+         * @param from      the first {@link System#nanoTime()} to include
+         * @param to        the first {@link System#nanoTime()} to exclude
+         * @param field     the column, e.g. {@link #VOLTAGE}
+         * @param timesOut  receives the entry timestamps (interval start for aggregated tiers)
+         * @param minOut    receives the minimum per entry
+         * @param maxOut    receives the maximum per entry
+         * @param avgOut    receives the average per entry
+         * @return the number of entries copied, at most the length of the output arrays
+         */
+        public int range(long from, long to, int field, long[] timesOut, int[] minOut, int[] maxOut, int[] avgOut) {
+            int limit = Integer.MAX_VALUE;
+            limit = outLength(limit, timesOut == null ? -1 : timesOut.length);
+            limit = outLength(limit, minOut == null ? -1 : minOut.length);
+            limit = outLength(limit, maxOut == null ? -1 : maxOut.length);
+            limit = outLength(limit, avgOut == null ? -1 : avgOut.length);
+
+            long end = cursor.get();
+            long first = Math.max(0, end + 1 - capacity());
+            long i = lowerBound(first, end, from);
+
+            int copied = 0;
+            for (; i < end && copied < limit; i++) {
+                int slot = (int) (i & mask);
+                long t = time[slot];
+                if (t - to >= 0) {
+                    break;
+                }
+                if (timesOut != null) {
+                    timesOut[copied] = t;
+                }
+                if (minOut != null) {
+                    minOut[copied] = min[field][slot];
+                }
+                if (maxOut != null) {
+                    maxOut[copied] = max[field][slot];
+                }
+                if (avgOut != null) {
+                    avgOut[copied] = avg[field][slot];
+                }
+                copied++;
+            }
+
+            // Drop entries the writer overwrote while they were being copied, or is overwriting now
+            VarHandle.loadLoadFence();
+            long start = i - copied;
+            long overwritten = cursor.get() + 1 - capacity() - start;
+            if (overwritten > 0) {
+                int drop = (int) Math.min(overwritten, copied);
+                shift(timesOut, drop, copied);
+                shift(minOut, drop, copied);
+                shift(maxOut, drop, copied);
+                shift(avgOut, drop, copied);
+                copied -= drop;
+            }
+            return copied;
+        }
+
+        /**
+         * Finds the first entry in {@code [first, end)} with a timestamp at or after {@code from}.
+         */
+        private long lowerBound(long first, long end, long from) {
+            long lo = first;
+            long hi = end;
+            while (lo < hi) {
+                long mid = (lo + hi) >>> 1;
+                if (time[(int) (mid & mask)] - from < 0) {
+                    lo = mid + 1;
+                } else {
+                    hi = mid;
+                }
+            }
+            return lo;
+        }
+
+        private static int outLength(int limit, int length) {
+            return length < 0 ? limit : Math.min(limit, length);
+        }
+
+        private static void shift(long[] array, int drop, int count) {
+            if (array != null) {
+                System.arraycopy(array, drop, array, 0, count - drop);
+            }
+        }
+
+        private static void shift(int[] array, int drop, int count) {
+            if (array != null) {
+                System.arraycopy(array, drop, array, 0, count - drop);
+            }
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.github.lazygamer1111.mixer;
+
+import com.github.lazygamer1111.dataTypes.ControllerSnapshot;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Per-channel {@link Curve}s baked into integer lookup tables, applied to a control
+ * stage's copy of the controller frame before it is mixed.
+ * <p>
+ * Applying a curve is one clamp and one array read per shaped channel; channels
+ * without a curve are left untouched. The tables of all channels are published
+ * together as one array behind a volatile reference: {@link #update} bakes a complete
+ * new set on the caller's thread and swaps it in, and {@link #apply} reads the
+ * reference once per frame, so a frame is always shaped by one consistent set and
+ * readers never lock, and new curves apply from the next frame on.
+ *
+ * @author lazygamer1111
+ * @version 1.0
+ * @since 2026-10-17
+ */
+public class ChannelCurves {
+    private static final Logger log = LoggerFactory.getLogger(ChannelCurves.class);
+
+    /** Table per channel, null where the channel is not shaped. Never modified once published */
+    private volatile int[][] tables = new int[ControllerSnapshot.CHANNELS][];
+
+    /**
+     * Shapes the channels in place.
+     *
+     * @param channels the channel values, owned by the calling control stage
+     */
+    public void apply(int[] channels) {
+        int[][] current = tables;
+        for (int c = 0; c < current.length; c++) {
+            int[] table = current[c];
+            if (table != null) {
+                int value = Math.min(Curve.MAX, Math.max(Curve.MIN, channels[c]));
+                channels[c] = table[value - Curve.MIN];
+            }
+        }
+    }
+
+    /**
+     * Bakes and swaps in a new set of curves.
+     *
+     * @param curves the curve per channel, null entries for unshaped channels
+     */
+    public void update(Curve[] curves) {
+        if (curves.length != ControllerSnapshot.CHANNELS) {
+            throw new IllegalArgumentException("Expected " + ControllerSnapshot.CHANNELS + " curves, got " + curves.length);
+        }
+        int[][] baked = new int[ControllerSnapshot.CHANNELS][];
+        for (int c = 0; c < curves.length; c++) {
+            if (curves[c] != null && !curves[c].isIdentity()) {
+                baked[c] = curves[c].bake();
+                log.info("Channel {} shaped by {}", c, curves[c]);
+            }
+        }
+        tables = baked;
+    }
+
+    /**
+     * @param channel a channel index
+     * @return true if the channel is currently shaped
+     */
+    public boolean shaped(int channel) {
+        return tables[channel] != null;
+    }
+}
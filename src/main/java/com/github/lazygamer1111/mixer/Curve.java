@@ -0,0 +1,150 @@
+package com.github.lazygamer1111.mixer;
+
+import java.util.Arrays;
+
+/**
+ * Shape of one receiver channel: deadband, expo and rate around the stick center,
+ * then an optional multi-point curve over the whole range.
+ * <p>
+ * Definitions are immutable and only evaluated in floating point by {@link #bake()},
+ * which turns them into a lookup table; the control loop never evaluates a curve.
+ * With the stick position {@code d} in -1..1 around {@value #CENTER}:
+ * <ul>
+ *     <li>deadband: positions within {@code deadband} of the center become 0, the rest
+ *     is stretched so the endpoints stay at -1 and 1</li>
+ *     <li>expo: {@code (1 - expo) * d + expo * d^3}, softer around the center</li>
+ *     <li>rate: scales the result, e.g. 0.7 for a low dual rate</li>
+ *     <li>points: output values at evenly spaced inputs from {@value #MIN} to
+ *     {@value #MAX}, interpolated with a monotone cubic spline, e.g. a throttle curve</li>
+ * </ul>
+ *
+ * @author lazygamer1111
+ * @version 1.0
+ * @since 2026-10-17
+ */
+public class Curve {
+    /** iBUS channel range in microseconds of pulse width */
+    public static final int MIN = 1000;
+    public static final int MAX = 2000;
+    public static final int CENTER = 1500;
+
+    /** Entries in a baked table, one per microsecond */
+    public static final int TABLE_SIZE = MAX - MIN + 1;
+
+    private static final double HALF_RANGE = (MAX - MIN) / 2d;
+
+    private final double deadband;
+    private final double expo;
+    private final double rate;
+    private final double[] points;
+
+    /**
+     * @param deadband the deadband around the center in microseconds, 0 for none
+     * @param expo     the expo, 0 (linear) to 1 (cubic)
+     * @param rate     the rate, 1 for full travel
+     * @param points   the output at evenly spaced inputs, at least two, or null for none
+     * @throws IllegalArgumentException if a parameter is out of range
+     */
+    public Curve(int deadband, double expo, double rate, double[] points) {
+        if (deadband < 0 || deadband >= HALF_RANGE) {
+            throw new IllegalArgumentException("Deadband must be 0 to " + (int) HALF_RANGE + " us, got " + deadband);
+        }
+        if (expo < 0 || expo > 1) {
+            throw new IllegalArgumentException("Expo must be 0 to 1, got " + expo);
+        }
+        if (rate < 0 || rate > 1) {
+            throw new IllegalArgumentException("Rate must be 0 to 1, got " + rate);
+        }
+        if (points != null && points.length < 2) {
+            throw new IllegalArgumentException("A curve needs at least 2 points, got " + points.length);
+        }
+        this.deadband = deadband / HALF_RANGE;
+        this.expo = expo;
+        this.rate = rate;
+        this.points = points == null ? null : points.clone();
+    }
+
+    /**
+     * @return true if the curve maps every input to itself
+     */
+    public boolean isIdentity() {
+        return deadband == 0 && expo == 0 && rate == 1 && points == null;
+    }
+
+    /**
+     * Evaluates the curve for every input from {@value #MIN} to {@value #MAX}.
+     *
+     * @return the output for input {@code MIN + i} at index {@code i}
+     */
+    public int[] bake() {
+        double[] tangents = points == null ? null : tangents(points);
+        int[] table = new int[TABLE_SIZE];
+        for (int i = 0; i < TABLE_SIZE; i++) {
+            double out = CENTER + HALF_RANGE * shape((MIN + i - CENTER) / HALF_RANGE);
+            if (points != null) {
+                out = spline(points, tangents, (out - MIN) / (MAX - MIN));
+            }
+            table[i] = (int) Math.round(Math.min(MAX, Math.max(MIN, out)));
+        }
+        return table;
+    }
+
+    /** Deadband, expo and rate on a centered position in -1..1 */
+    private double shape(double d) {
+        double magnitude = Math.abs(d);
+        magnitude = magnitude <= deadband ? 0 : (magnitude - deadband) / (1 - deadband);
+        magnitude = (1 - expo) * magnitude + expo * magnitude * magnitude * magnitude;
+        return Math.copySign(rate * magnitude, d);
+    }
+
+    /**
+     * Fritsch-Carlson tangents, so the spline never overshoots between points and a
+     * rising curve stays rising.
+     */
+    private static double[] tangents(double[] y) {
+        int n = y.length;
+        double[] slope = new double[n - 1];
+        for (int i = 0; i < n - 1; i++) {
+            slope[i] = y[i + 1] - y[i];
+        }
+        double[] m = new double[n];
+        m[0] = slope[0];
+        m[n - 1] = slope[n - 2];
+        for (int i = 1; i < n - 1; i++) {
+            m[i] = slope[i - 1] * slope[i] <= 0 ? 0 : (slope[i - 1] + slope[i]) / 2;
+        }
+        for (int i = 0; i < n - 1; i++) {
+            if (slope[i] == 0) {
+                m[i] = 0;
+                m[i + 1] = 0;
+                continue;
+            }
+            double a = m[i] / slope[i];
+            double b = m[i + 1] / slope[i];
+            double s = a * a + b * b;
+            if (s > 9) {
+                double t = 3 / Math.sqrt(s);
+                m[i] = t * a * slope[i];
+                m[i + 1] = t * b * slope[i];
+            }
+        }
+        return m;
+    }
+
+    /** Cubic Hermite interpolation of evenly spaced points at position x in 0..1 */
+    private static double spline(double[] y, double[] m, double x) {
+        double position = Math.min(1, Math.max(0, x)) * (y.length - 1);
+        int i = Math.min(y.length - 2, (int) position);
+        double t = position - i;
+        double t2 = t * t;
+        double t3 = t2 * t;
+        return (2 * t3 - 3 * t2 + 1) * y[i] + (t3 - 2 * t2 + t) * m[i]
+                + (-2 * t3 + 3 * t2) * y[i + 1] + (t3 - t2) * m[i + 1];
+    }
+
+    @Override
+    public String toString() {
+        return "Curve{deadband=" + Math.round(deadband * HALF_RANGE) + ", expo=" + expo + ", rate=" + rate
+                + ", points=" + Arrays.toString(points) + "}";
+    }
+}
@@ -0,0 +1,404 @@
+package com.github.lazygamer1111.mixer;
+
+import com.github.lazygamer1111.dataTypes.ControllerSnapshot;
+import io.avaje.config.Configuration;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Maps receiver channels to control outputs, configured declaratively.
+ * <p>
+ * Every output has an ordered list of rules and a clamp range. A rule is an optional
+ * condition on channel values, a linear mix of channels and optional flags:
+ * <pre>
+ *     ch9 == 1000 -> 0 telemetry; ch8 == 2000 -> ch2 - 1000; ch8 == 1000 -> ch2 + 24
+ * </pre>
+ * Channels are written {@code ch0}..{@code ch13}, indexed like
+ * {@link ControllerSnapshot#channels}. A condition is one or more comparisons
+ * ({@code == != < <= > >=}) against a whole number, joined by {@code &}; a rule
+ * without {@code ->} always matches. The mix is a sum of constants, channels and
+ * {@code weight*chN} terms. The first matching rule gives the output's value,
+ * clamped to the output's range; if no rule matches the output is left alone.
+ * <p>
+ * Rules are compiled once into flat primitive arrays, so evaluating them reads
+ * arrays only: no boxing, maps or allocation per tick, however many outputs or
+ * terms are configured. A compiled mixer is immutable and can be shared by every
+ * control stage.
+ *
+ * @author lazygamer1111
+ * @version 1.0
+ * @since 2026-10-17
+ */
+public class Mixer {
+    /** Rule flag: request KISS telemetry with the ESC frame */
+    public static final int FLAG_TELEMETRY = 1;
+
+    /** Flag names as written after a rule's mix, bit {@code i} is {@code FLAG_NAMES[i]} */
+    private static final String[] FLAG_NAMES = {"telemetry"};
+
+    /** Built-in rules, the same mapping the control stages used before the mixer */
+    public static final String DEFAULT_OUTPUTS = "servo,esc";
+    public static final String DEFAULT_SERVO_RULES = "ch2 > 1000 -> 180 - 0.09*ch2";
+    public static final String DEFAULT_ESC_RULES =
+            "ch9 == 1000 -> 0 telemetry; ch8 == 2000 -> ch2 - 1000; ch8 == 1000 -> ch2 + 24; ch8 == 1500 -> 0";
+
+    private static final int EQ = 0;
+    private static final int NE = 1;
+    private static final int LT = 2;
+    private static final int LE = 3;
+    private static final int GT = 4;
+    private static final int GE = 5;
+    private static final String[] OPS = {"==", "!=", "<=", ">=", "<", ">"};
+    private static final int[] OP_CODES = {EQ, NE, LE, GE, LT, GT};
+
+    private final String[] names;
+    private final String[] rules;
+    private final double[] min;
+    private final double[] max;
+
+    /** Rules of output {@code o} are {@code ruleStart[o]} up to {@code ruleStart[o + 1]} */
+    private final int[] ruleStart;
+    private final double[] ruleOffset;
+    private final int[] ruleFlags;
+
+    /** Conditions of rule {@code r} are {@code condStart[r]} up to {@code condStart[r + 1]} */
+    private final int[] condStart;
+    private final int[] condChannel;
+    private final int[] condOp;
+    private final int[] condValue;
+
+    /** Terms of rule {@code r} are {@code termStart[r]} up to {@code termStart[r + 1]} */
+    private final int[] termStart;
+    private final int[] termChannel;
+    private final double[] termWeight;
+
+    /**
+     * Compiles a mixer.
+     *
+     * @param names the output names
+     * @param rules the rules of each output, separated by {@code ;}
+     * @param min   the lowest value of each output
+     * @param max   the highest value of each output
+     * @throws IllegalArgumentException if a rule cannot be parsed
+     */
+    public Mixer(String[] names, String[] rules, double[] min, double[] max) {
+        if (rules.length != names.length || min.length != names.length || max.length != names.length) {
+            throw new IllegalArgumentException("Expected rules and a range for each of " + names.length + " outputs");
+        }
+        this.names = names.clone();
+        this.rules = rules.clone();
+        this.min = min.clone();
+        this.max = max.clone();
+
+        List<Rule> parsed = new ArrayList<>();
+        ruleStart = new int[names.length + 1];
+        for (int o = 0; o < names.length; o++) {
+            ruleStart[o] = parsed.size();
+            for (String rule : rules[o].split(";")) {
+                if (!rule.isBlank()) {
+                    parsed.add(parseRule(names[o], rule));
+                }
+            }
+        }
+        ruleStart[names.length] = parsed.size();
+
+        int count = parsed.size();
+        ruleOffset = new double[count];
+        ruleFlags = new int[count];
+        condStart = new int[count + 1];
+        termStart = new int[count + 1];
+        int conditions = 0;
+        int terms = 0;
+        for (Rule rule : parsed) {
+            conditions += rule.condChannels.size();
+            terms += rule.termChannels.size();
+        }
+        condChannel = new int[conditions];
+        condOp = new int[conditions];
+        condValue = new int[conditions];
+        termChannel = new int[terms];
+        termWeight = new double[terms];
+
+        int c = 0;
+        int t = 0;
+        for (int r = 0; r < count; r++) {
+            Rule rule = parsed.get(r);
+            ruleOffset[r] = rule.offset;
+            ruleFlags[r] = rule.flags;
+            condStart[r] = c;
+            for (int i = 0; i < rule.condChannels.size(); i++, c++) {
+                condChannel[c] = rule.condChannels.get(i);
+                condOp[c] = rule.condOps.get(i);
+                condValue[c] = rule.condValues.get(i);
+            }
+            termStart[r] = t;
+            for (int i = 0; i < rule.termChannels.size(); i++, t++) {
+                termChannel[t] = rule.termChannels.get(i);
+                termWeight[t] = rule.termWeights.get(i);
+            }
+        }
+        condStart[count] = c;
+        termStart[count] = t;
+    }
+
+    /**
+     * Compiles the mixer configured under {@code mixer.*}: the output names in
+     * {@code mixer.outputs}, and per output {@code mixer.<name>.rules},
+     * {@code mixer.<name>.min} and {@code mixer.<name>.max}.
+     *
+     * @param config the configuration to read
+     * @return the compiled mixer
+     */
+    public static Mixer load(Configuration config) {
+        String[] names = split(config.get("mixer.outputs", DEFAULT_OUTPUTS));
+        String[] rules = new String[names.length];
+        double[] min = new double[names.length];
+        double[] max = new double[names.length];
+        for (int o = 0; o < names.length; o++) {
+            String key = "mixer." + names[o];
+            String configured = config.get(key + ".rules", "");
+            rules[o] = configured.isBlank() ? defaultRules(names[o]) : configured;
+            min[o] = config.getDouble(key + ".min", 0);
+            max[o] = config.getDouble(key + ".max", names[o].startsWith("servo") ? 90 : 2047);
+        }
+        return new Mixer(names, rules, min, max);
+    }
+
+    /**
+     * @return the built-in mapping: {@code servo} steered by channel 2 and {@code esc}
+     * throttled by channel 2, with channels 8 and 9 as direction and telemetry switches
+     */
+    public static Mixer defaults() {
+        return new Mixer(split(DEFAULT_OUTPUTS), new String[] {DEFAULT_SERVO_RULES, DEFAULT_ESC_RULES},
+                new double[] {0, 0}, new double[] {90, 2047});
+    }
+
+    private static String defaultRules(String name) {
+        if (name.equals("servo")) {
+            return DEFAULT_SERVO_RULES;
+        }
+        if (name.startsWith("esc")) {
+            return DEFAULT_ESC_RULES;
+        }
+        throw new IllegalArgumentException("No rules configured for mixer output " + name);
+    }
+
+    private static String[] split(String list) {
+        String[] parts = list.split(",");
+        for (int i = 0; i < parts.length; i++) {
+            parts[i] = parts[i].trim();
+        }
+        return parts;
+    }
+
+    /**
+     * @param name an output name
+     * @return its index, or -1 if there is no such output
+     */
+    public int output(String name) {
+        for (int o = 0; o < names.length; o++) {
+            if (names[o].equals(name)) {
+                return o;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return the number of outputs
+     */
+    public int outputs() {
+        return names.length;
+    }
+
+    /**
+     * @param output an output index
+     * @return its name
+     */
+    public String name(int output) {
+        return names[output];
+    }
+
+    /**
+     * Finds the first rule of an output that matches the channels.
+     *
+     * @param output   the output index
+     * @param channels the channel values
+     * @return the rule index, or -1 if no rule matches and the output should be left alone
+     */
+    public int rule(int output, int[] channels) {
+        for (int r = ruleStart[output]; r < ruleStart[output + 1]; r++) {
+            if (matches(r, channels)) {
+                return r;
+            }
+        }
+        return -1;
+    }
+
+    private boolean matches(int rule, int[] channels) {
+        for (int c = condStart[rule]; c < condStart[rule + 1]; c++) {
+            int value = channels[condChannel[c]];
+            int reference = condValue[c];
+            boolean match;
+            switch (condOp[c]) {
+                case EQ: match = value == reference; break;
+                case NE: match = value != reference; break;
+                case LT: match = value < reference; break;
+                case LE: match = value <= reference; break;
+                case GT: match = value > reference; break;
+                default: match = value >= reference; break;
+            }
+            if (!match) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @param output   the output index
+     * @param rule     a rule of that output, as returned by {@link #rule}
+     * @param channels the channel values
+     * @return the rule's mix, clamped to the output's range
+     */
+    public double value(int output, int rule, int[] channels) {
+        double value = ruleOffset[rule];
+        for (int t = termStart[rule]; t < termStart[rule + 1]; t++) {
+            value += termWeight[t] * channels[termChannel[t]];
+        }
+        return Math.min(max[output], Math.max(min[output], value));
+    }
+
+    /**
+     * @param rule a rule index, as returned by {@link #rule}
+     * @return the rule's flags, e.g. {@link #FLAG_TELEMETRY}
+     */
+    public int flags(int rule) {
+        return ruleFlags[rule];
+    }
+
+    /**
+     * @return the definition the mixer was compiled from
+     */
+    @Override
+    public String toString() {
+        StringBuilder out = new StringBuilder("Mixer{");
+        for (int o = 0; o < names.length; o++) {
+            out.append(o == 0 ? "" : ", ").append(names[o]).append(" [").append(min[o]).append("..").append(max[o])
+                    .append("]: ").append(rules[o].trim());
+        }
+        return out.append('}').toString();
+    }
+
+    private static Rule parseRule(String output, String text) {
+        Rule rule = new Rule();
+        String body = text.trim();
+        try {
+            body = parseFlags(rule, body);
+            int arrow = body.indexOf("->");
+            if (arrow >= 0) {
+                for (String condition : body.substring(0, arrow).split("&")) {
+                    parseCondition(rule, condition.replaceAll("\\s", ""));
+                }
+                body = body.substring(arrow + 2);
+            }
+            parseMix(rule, body.replaceAll("\\s", ""));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Bad mixer rule for " + output + ": '" + text.trim() + "': " + e.getMessage(), e);
+        }
+        return rule;
+    }
+
+    /** Strips trailing flag names off a rule and sets their bits */
+    private static String parseFlags(Rule rule, String body) {
+        boolean found = true;
+        while (found) {
+            found = false;
+            for (int bit = 0; bit < FLAG_NAMES.length; bit++) {
+                if (body.endsWith(FLAG_NAMES[bit])) {
+                    rule.flags |= 1 << bit;
+                    body = body.substring(0, body.length() - FLAG_NAMES[bit].length()).trim();
+                    found = true;
+                }
+            }
+        }
+        return body;
+    }
+
+    private static void parseCondition(Rule rule, String condition) {
+        for (int i = 0; i < OPS.length; i++) {
+            int at = condition.indexOf(OPS[i]);
+            if (at > 0) {
+                rule.condChannels.add(channel(condition.substring(0, at)));
+                rule.condOps.add(OP_CODES[i]);
+                rule.condValues.add(Integer.parseInt(condition.substring(at + OPS[i].length())));
+                return;
+            }
+        }
+        throw new IllegalArgumentException("expected chN followed by one of " + Arrays.toString(OPS) + ", got '" + condition + "'");
+    }
+
+    /** Parses a sum of terms; a term is a constant, {@code chN}, {@code w*chN} or {@code chN*w} */
+    private static void parseMix(Rule rule, String mix) {
+        if (mix.isEmpty()) {
+            throw new IllegalArgumentException("empty mix");
+        }
+        int start = 0;
+        for (int i = 1; i <= mix.length(); i++) {
+            // A sign starts a new term unless it belongs to the weight after a '*'
+            if (i == mix.length() || (mix.charAt(i) == '+' || mix.charAt(i) == '-') && mix.charAt(i - 1) != '*') {
+                parseTerm(rule, mix.substring(start, i));
+                start = i;
+            }
+        }
+    }
+
+    private static void parseTerm(Rule rule, String term) {
+        double sign = 1;
+        if (term.startsWith("+") || term.startsWith("-")) {
+            sign = term.charAt(0) == '-' ? -1 : 1;
+            term = term.substring(1);
+        }
+        int times = term.indexOf('*');
+        if (times < 0) {
+            if (term.startsWith("ch")) {
+                rule.termChannels.add(channel(term));
+                rule.termWeights.add(sign);
+            } else {
+                rule.offset += sign * Double.parseDouble(term);
+            }
+            return;
+        }
+        String left = term.substring(0, times);
+        String right = term.substring(times + 1);
+        boolean channelLeft = left.startsWith("ch");
+        rule.termChannels.add(channel(channelLeft ? left : right));
+        rule.termWeights.add(sign * Double.parseDouble(channelLeft ? right : left));
+    }
+
+    private static int channel(String name) {
+        if (!name.startsWith("ch")) {
+            throw new IllegalArgumentException("expected a channel like ch2, got '" + name + "'");
+        }
+        int channel = Integer.parseInt(name.substring(2));
+        if (channel < 0 || channel >= ControllerSnapshot.CHANNELS) {
+            throw new IllegalArgumentException("channel " + channel + " out of range 0.." + (ControllerSnapshot.CHANNELS - 1));
+        }
+        return channel;
+    }
+
+    /**
+     * One parsed rule, only used while compiling.
+     */
+    private static class Rule {
+        final List<Integer> condChannels = new ArrayList<>();
+        final List<Integer> condOps = new ArrayList<>();
+        final List<Integer> condValues = new ArrayList<>();
+        final List<Integer> termChannels = new ArrayList<>();
+        final List<Double> termWeights = new ArrayList<>();
+        double offset = 0;
+        int flags = 0;
+    }
+}
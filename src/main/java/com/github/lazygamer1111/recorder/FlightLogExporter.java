@@ -0,0 +1,119 @@
+package com.github.lazygamer1111.recorder;
+
+import com.github.lazygamer1111.dataTypes.ControllerSnapshot;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static com.github.lazygamer1111.recorder.FlightRecorder.*;
+
+/**
+ * Converts {@link FlightRecorder} segment files to CSV for offline analysis.
+ * <p>
+ * Usage: {@code java -cp eindwerkCode.jar com.github.lazygamer1111.recorder.FlightLogExporter
+ * <segment.fdr>... > flight.csv}. Segments are exported in the order given, with a
+ * single header line. Times are milliseconds since the Unix epoch, derived from each
+ * segment's header; ages are in milliseconds relative to the tick.
+ *
+ * @author lazygamer1111
+ * @version 1.0
+ * @since 2026-10-17
+ */
+public class FlightLogExporter {
+
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) {
+            System.err.println("Usage: FlightLogExporter <segment.fdr>...");
+            System.exit(1);
+        }
+        Writer out = new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.US_ASCII));
+        writeHeader(out);
+        for (String arg : args) {
+            export(Path.of(arg), out);
+        }
+        out.flush();
+    }
+
+    /**
+     * Writes the CSV column names.
+     */
+    public static void writeHeader(Writer out) throws IOException {
+        out.write("time_ms,frame_seq,frame_age_ms");
+        for (int i = 0; i < ControllerSnapshot.CHANNELS; i++) {
+            out.write(",ch" + i);
+        }
+        out.write(",throttle,telemetry_request,failsafe,servo_angle,telemetry_age_ms,temperature_c,voltage_v,current_a,consumption_mah,erpm\n");
+    }
+
+    /**
+     * Writes every record in one segment as a CSV line.
+     *
+     * @param segment the segment file
+     * @param out     where the lines go
+     * @return the number of records exported
+     * @throws IOException if the file cannot be read or is not a flight log segment
+     */
+    public static int export(Path segment, Writer out) throws IOException {
+        ByteBuffer buf;
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ)) {
+            buf = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()).order(ByteOrder.LITTLE_ENDIAN);
+        }
+        if (buf.limit() < HEADER_LENGTH || buf.getInt(H_MAGIC) != MAGIC) {
+            throw new IOException(segment + " is not a flight log segment");
+        }
+        if (buf.getInt(H_VERSION) != FORMAT_VERSION || buf.getInt(H_RECORD_LENGTH) != RECORD_LENGTH) {
+            throw new IOException(segment + " has unsupported format version " + buf.getInt(H_VERSION));
+        }
+        int count = Math.min(buf.getInt(H_COUNT), (buf.limit() - HEADER_LENGTH) / RECORD_LENGTH);
+        long epochMillis = buf.getLong(H_EPOCH_MILLIS);
+        long nanoTime = buf.getLong(H_NANO_TIME);
+
+        StringBuilder line = new StringBuilder(256);
+        for (int r = 0; r < count; r++) {
+            int base = HEADER_LENGTH + r * RECORD_LENGTH;
+            long tick = buf.getLong(base + R_TICK);
+            long frameTime = buf.getLong(base + R_FRAME_TIME);
+            long telemetryTime = buf.getLong(base + R_TELEMETRY_TIME);
+            int flags = buf.getShort(base + R_FLAGS);
+
+            line.setLength(0);
+            line.append(epochMillis + (tick - nanoTime) / 1_000_000L);
+            line.append(',').append(buf.getLong(base + R_FRAME_SEQUENCE));
+            appendAge(line, tick, frameTime);
+            for (int i = 0; i < ControllerSnapshot.CHANNELS; i++) {
+                line.append(',').append(buf.getShort(base + R_CHANNELS + 2 * i) & 0xFFFF);
+            }
+            line.append(',').append(buf.getShort(base + R_THROTTLE));
+            line.append(',').append((flags & FLAG_TELEMETRY) != 0 ? 1 : 0);
+            line.append(',').append((flags & FLAG_FAILSAFE) != 0 ? 1 : 0);
+            line.append(',').append(buf.getFloat(base + R_SERVO_ANGLE));
+            appendAge(line, tick, telemetryTime);
+            line.append(',').append(buf.getShort(base + R_TEMPERATURE) & 0xFFFF);
+            line.append(',').append((buf.getShort(base + R_VOLTAGE) & 0xFFFF) / 100d);
+            line.append(',').append((buf.getShort(base + R_CURRENT) & 0xFFFF) / 100d);
+            line.append(',').append(buf.getShort(base + R_CONSUMPTION) & 0xFFFF);
+            line.append(',').append(buf.getInt(base + R_ERPM));
+            line.append('\n');
+            out.append(line);
+        }
+        return count;
+    }
+
+    /**
+     * Appends the age of a sample at {@code tick}, or an empty field if there was no sample.
+     */
+    private static void appendAge(StringBuilder line, long tick, long sampleTime) {
+        line.append(',');
+        if (sampleTime != 0) {
+            line.append((tick - sampleTime) / 1_000_000d);
+        }
+    }
+}
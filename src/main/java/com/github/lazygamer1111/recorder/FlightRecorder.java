@@ -0,0 +1,320 @@
+package com.github.lazygamer1111.recorder;
+
+import com.github.lazygamer1111.components.output.Servo;
+import com.github.lazygamer1111.dataTypes.ControllerSnapshot;
+import com.github.lazygamer1111.dataTypes.KissTelemetry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Black-box recorder: one fixed-size binary record per control tick.
+ * <p>
+ * Each record holds the controller frame the tick acted on, the throttle it sent,
+ * the current servo angle and the latest KISS telemetry. Records are written into a
+ * pre-allocated, memory-mapped segment file, so recording is a handful of memory
+ * stores with no system call. A background thread keeps the next segment mapped and
+ * ready, flushes the current one to disk once per second, and syncs and closes full
+ * segments, so the control thread never waits for the SD card. When no spare segment
+ * is ready in time the record is dropped and counted.
+ * <p>
+ * Segment layout (little-endian): a {@value #HEADER_LENGTH}-byte header
+ * ({@value #MAGIC} magic, format version, record length, record count, wall-clock
+ * millis and {@code nanoTime} at creation) followed by the records. Use
+ * {@link FlightLogExporter} to turn segments into CSV.
+ *
+ * @author lazygamer1111
+ * @version 1.0
+ * @since 2026-10-17
+ */
+public class FlightRecorder implements Closeable {
+    private static final Logger log = LoggerFactory.getLogger(FlightRecorder.class);
+
+    static final int MAGIC = 0x31524446; // "FDR1"
+    static final int FORMAT_VERSION = 1;
+    static final int HEADER_LENGTH = 64;
+
+    // Header fields
+    static final int H_MAGIC = 0;
+    static final int H_VERSION = 4;
+    static final int H_RECORD_LENGTH = 8;
+    static final int H_COUNT = 12;
+    static final int H_EPOCH_MILLIS = 16;
+    static final int H_NANO_TIME = 24;
+
+    // Record fields
+    static final int R_TICK = 0;
+    static final int R_FRAME_TIME = 8;
+    static final int R_FRAME_SEQUENCE = 16;
+    static final int R_CHANNELS = 24;
+    static final int R_THROTTLE = R_CHANNELS + 2 * ControllerSnapshot.CHANNELS;
+    static final int R_FLAGS = R_THROTTLE + 2;
+    static final int R_SERVO_ANGLE = R_FLAGS + 2;
+    static final int R_TELEMETRY_TIME = R_SERVO_ANGLE + 4;
+    static final int R_TEMPERATURE = R_TELEMETRY_TIME + 8;
+    static final int R_VOLTAGE = R_TEMPERATURE + 2;
+    static final int R_CURRENT = R_VOLTAGE + 2;
+    static final int R_CONSUMPTION = R_CURRENT + 2;
+    static final int R_ERPM = R_CONSUMPTION + 2;
+    static final int RECORD_LENGTH = R_ERPM + 4;
+
+    /** Record flag: the tick asked the ESC for telemetry */
+    public static final int FLAG_TELEMETRY = 1;
+
+    /** Record flag: the tick output the failsafe value */
+    public static final int FLAG_FAILSAFE = 2;
+
+    /** How often the current segment is flushed to disk */
+    private static final long FLUSH_INTERVAL_NANOS = 1_000_000_000L;
+
+    private final Path dir;
+    private final int recordsPerSegment;
+    private final int maxSegments;
+    private final Servo servo;
+    private final KissTelemetry telemetry;
+    private final KissTelemetry telemetryCopy = new KissTelemetry();
+    private final String runName = new SimpleDateFormat("yyyyMMdd-HHmmss").format(new Date());
+
+    /** Segment being written, only touched by the recording thread after construction */
+    private Segment current;
+
+    /** Pre-mapped segment for the next rotation, prepared by the background thread */
+    private final AtomicReference<Segment> spare = new AtomicReference<>();
+
+    /** Full segments waiting to be synced and closed */
+    private final ArrayBlockingQueue<Segment> finished = new ArrayBlockingQueue<>(4);
+
+    private volatile Segment flushing;
+    private int nextIndex = 0;
+    private final Thread background;
+    private volatile boolean closed = false;
+
+    private final AtomicLong records = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong segments = new AtomicLong();
+
+    /**
+     * Creates a recorder and maps its first segment.
+     *
+     * @param dir          the directory segments are written to
+     * @param segmentBytes the size of one segment file
+     * @param maxSegments  how many segments to keep, at least 2; the oldest are deleted
+     * @param servo        the servo whose angle is recorded, or null
+     * @param telemetry    the shared KISS telemetry to record
+     * @throws IOException if the directory or first segment cannot be created
+     */
+    public FlightRecorder(Path dir, long segmentBytes, int maxSegments, Servo servo, KissTelemetry telemetry) throws IOException {
+        this.dir = Files.createDirectories(dir);
+        this.recordsPerSegment = (int) Math.min(Integer.MAX_VALUE, (segmentBytes - HEADER_LENGTH) / RECORD_LENGTH);
+        // The current and the spare segment must never be deleted
+        this.maxSegments = Math.max(2, maxSegments);
+        this.servo = servo;
+        this.telemetry = telemetry;
+        current = createSegment();
+        flushing = current;
+        background = new Thread(this::maintain, "Flight Recorder");
+        background.setDaemon(true);
+        background.start();
+        log.info("Recording flight data to {} ({} records per segment)", dir, recordsPerSegment);
+    }
+
+    /**
+     * Appends a record for one control tick. Must only be called by one thread.
+     *
+     * @param frame    the controller frame the tick acted on
+     * @param throttle the throttle sent to the ESC, or -1 if nothing was sent
+     * @param flags    {@link #FLAG_TELEMETRY} and/or {@link #FLAG_FAILSAFE}
+     * @param now      the {@link System#nanoTime()} of the tick
+     */
+    public void record(ControllerSnapshot frame, int throttle, int flags, long now) {
+        if (closed) {
+            return;
+        }
+        if (current.count == recordsPerSegment && !rotate()) {
+            dropped.incrementAndGet();
+            return;
+        }
+        telemetry.copyTo(telemetryCopy);
+
+        MappedByteBuffer buf = current.buffer;
+        int base = HEADER_LENGTH + current.count * RECORD_LENGTH;
+        buf.putLong(base + R_TICK, now);
+        buf.putLong(base + R_FRAME_TIME, frame.timestamp);
+        buf.putLong(base + R_FRAME_SEQUENCE, frame.sequence);
+        for (int i = 0; i < ControllerSnapshot.CHANNELS; i++) {
+            buf.putShort(base + R_CHANNELS + 2 * i, (short) frame.channels[i]);
+        }
+        buf.putShort(base + R_THROTTLE, (short) throttle);
+        buf.putShort(base + R_FLAGS, (short) flags);
+        buf.putFloat(base + R_SERVO_ANGLE, servo == null ? Float.NaN : (float) servo.angle());
+        buf.putLong(base + R_TELEMETRY_TIME, telemetryCopy.timestamp);
+        buf.putShort(base + R_TEMPERATURE, (short) telemetryCopy.temperature);
+        buf.putShort(base + R_VOLTAGE, (short) telemetryCopy.voltage);
+        buf.putShort(base + R_CURRENT, (short) telemetryCopy.current);
+        buf.putShort(base + R_CONSUMPTION, (short) telemetryCopy.consumption);
+        buf.putInt(base + R_ERPM, telemetryCopy.erpm);
+
+        current.count++;
+        buf.putInt(H_COUNT, current.count);
+        records.incrementAndGet();
+    }
+
+    /**
+     * Swaps in the spare segment and hands the full one to the background thread.
+     *
+     * @return false if no spare segment was ready
+     */
+    private boolean rotate() {
+        Segment next = spare.getAndSet(null);
+        if (next == null) {
+            LockSupport.unpark(background);
+            return false;
+        }
+        if (!finished.offer(current)) {
+            // Background thread is far behind; keep the full segment open and drop instead
+            spare.set(next);
+            return false;
+        }
+        current = next;
+        flushing = next;
+        LockSupport.unpark(background);
+        return true;
+    }
+
+    /**
+     * Background loop: prepares spare segments, flushes the current one and
+     * syncs and closes full ones.
+     */
+    private void maintain() {
+        while (!closed) {
+            try {
+                if (spare.get() == null) {
+                    spare.set(createSegment());
+                    deleteOldSegments();
+                }
+                Segment full;
+                while ((full = finished.poll()) != null) {
+                    full.close();
+                }
+                flushing.buffer.force();
+            } catch (IOException | RuntimeException e) {
+                log.error("Flight recorder maintenance failed", e);
+            }
+            LockSupport.parkNanos(this, FLUSH_INTERVAL_NANOS);
+        }
+    }
+
+    private Segment createSegment() throws IOException {
+        Path file = dir.resolve(String.format("flight-%s-%04d.fdr", runName, nextIndex++));
+        Segment segment = new Segment(file, HEADER_LENGTH + (long) recordsPerSegment * RECORD_LENGTH);
+        segments.incrementAndGet();
+        return segment;
+    }
+
+    /**
+     * Deletes the oldest segment files beyond {@code maxSegments}.
+     */
+    private void deleteOldSegments() throws IOException {
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir, "flight-*.fdr")) {
+            stream.forEach(files::add);
+        }
+        files.sort(null);
+        for (int i = 0; i < files.size() - maxSegments; i++) {
+            Files.deleteIfExists(files.get(i));
+        }
+    }
+
+    /**
+     * @return the number of records written
+     */
+    public long records() {
+        return records.get();
+    }
+
+    /**
+     * @return the number of records dropped because no segment was ready
+     */
+    public long dropped() {
+        return dropped.get();
+    }
+
+    /**
+     * @return the number of segment files created
+     */
+    public long segments() {
+        return segments.get();
+    }
+
+    /**
+     * Stops recording and syncs all segments to disk. The spare segment, which holds
+     * no records, is deleted.
+     */
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        // Not interrupt: that would close the channel of a segment being mapped and leave its file behind
+        LockSupport.unpark(background);
+        try {
+            background.join(1000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        Segment full;
+        while ((full = finished.poll()) != null) {
+            full.close();
+        }
+        current.close();
+        Segment unused = spare.getAndSet(null);
+        if (unused != null) {
+            unused.close();
+            Files.deleteIfExists(unused.file);
+        }
+    }
+
+    /**
+     * One pre-allocated, memory-mapped segment file.
+     */
+    private static class Segment {
+        final Path file;
+        final MappedByteBuffer buffer;
+        int count = 0;
+
+        Segment(Path file, long length) throws IOException {
+            this.file = file;
+            // The mapping stays valid after the file is closed
+            try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), "rw")) {
+                raf.setLength(length);
+                buffer = raf.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, length);
+            }
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            buffer.putInt(H_MAGIC, MAGIC);
+            buffer.putInt(H_VERSION, FORMAT_VERSION);
+            buffer.putInt(H_RECORD_LENGTH, RECORD_LENGTH);
+            buffer.putInt(H_COUNT, 0);
+            buffer.putLong(H_EPOCH_MILLIS, System.currentTimeMillis());
+            buffer.putLong(H_NANO_TIME, System.nanoTime());
+        }
+
+        void close() {
+            buffer.force();
+        }
+    }
+}
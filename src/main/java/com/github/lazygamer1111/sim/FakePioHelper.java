@@ -0,0 +1,297 @@
+package com.github.lazygamer1111.sim;
+
+import com.github.lazygamer1111.dataTypes.CRC8;
+import com.github.lazygamer1111.dataTypes.PIOFrame;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * In-process stand-in for the PIO helper process.
+ * <p>
+ * Speaks the same text protocol as the real helper over the same pair of named
+ * pipes: {@code ADD <pin> <speed>} is answered with {@code OK <id>} and
+ * {@code THROTTLE <id> <value> <telemetry>} with {@code OK <id> <value>}. If binary
+ * frames are enabled, {@code PROTO 1} and {@code PROTO 2} are accepted and all further
+ * traffic uses {@link PIOFrame}s, including batches; otherwise they are rejected like
+ * an older helper would. When a
+ * throttle command requests telemetry, a KISS telemetry frame is written to the
+ * simulated ESC telemetry UART.
+ * <p>
+ * Every throttle command is matched against the {@link FrameGenerator} timestamps
+ * to record the latency from frame generation to ESC command.
+ *
+ * @author lazygamer1111
+ * @version 1.0
+ * @since 2026-10-17
+ */
+public class FakePioHelper extends Thread {
+    /** Width of one latency histogram bucket in nanoseconds (100 us) */
+    static final long BUCKET_NANOS = 100_000;
+
+    private final Logger log = LoggerFactory.getLogger(FakePioHelper.class);
+
+    private final File commandPipe;
+    private final File telemetryPipe;
+    private final File kissPipe;
+    private final FrameGenerator generator;
+    private final boolean binaryProtocol;
+
+    /** How long the first PROTO request waits for its answer, 0 to answer right away */
+    private volatile long protoDelayMillis = 0;
+
+    /** Number of throttle commands received */
+    final AtomicLong commands = new AtomicLong();
+
+    /** Latency histogram, 100 us buckets, last bucket collects everything above 100 ms */
+    final AtomicLongArray latency = new AtomicLongArray(1001);
+
+    /** Largest latency seen in nanoseconds */
+    final AtomicLong maxLatency = new AtomicLong();
+
+    /** Sum of all latencies in nanoseconds */
+    final AtomicLong totalLatency = new AtomicLong();
+
+    /**
+     * Creates a fake PIO helper.
+     *
+     * @param commandPipe   the pipe the ESC writes commands to
+     * @param telemetryPipe the pipe the ESC reads replies from
+     * @param kissPipe      the pipe standing in for the KISS telemetry UART
+     * @param generator      the frame generator used for latency measurement
+     * @param binaryProtocol whether to accept the binary {@link PIOFrame} protocol
+     */
+    public FakePioHelper(File commandPipe, File telemetryPipe, File kissPipe, FrameGenerator generator, boolean binaryProtocol) {
+        super("Sim PIO Helper");
+        this.commandPipe = commandPipe;
+        this.telemetryPipe = telemetryPipe;
+        this.kissPipe = kissPipe;
+        this.generator = generator;
+        this.binaryProtocol = binaryProtocol;
+        setDaemon(true);
+    }
+
+    /**
+     * Delays the answer to the first {@code PROTO} request, like a helper still busy
+     * loading its PIO programs. Call before {@link #start()}.
+     *
+     * @param millis the delay in milliseconds
+     * @return this helper
+     */
+    public FakePioHelper protoDelay(long millis) {
+        this.protoDelayMillis = millis;
+        return this;
+    }
+
+    @Override
+    public void run() {
+        // Open in the same order as the ESC (telemetry first) so neither side deadlocks.
+        // The KISS pipe is opened read-write so it never blocks waiting for a reader.
+        try (OutputStream replies = new FileOutputStream(telemetryPipe);
+             InputStream commands = new BufferedInputStream(new FileInputStream(commandPipe));
+             RandomAccessFile kiss = new RandomAccessFile(kissPipe, "rw")) {
+            int nextId = 0;
+            byte[] kissFrame = new byte[10];
+            String command;
+            while ((command = readToken(commands)) != null) {
+                switch (command) {
+                    case "ADD" -> {
+                        String pin = readToken(commands);
+                        String speed = readToken(commands);
+                        log.info("ADD pin {} speed {} -> id {}", pin, speed, nextId);
+                        reply(replies, "OK " + nextId++);
+                    }
+                    case "THROTTLE" -> {
+                        int id = Integer.parseInt(readToken(commands));
+                        int value = Integer.parseInt(readToken(commands));
+                        boolean telemetry = Boolean.parseBoolean(readToken(commands));
+                        throttle(value, telemetry, kiss, kissFrame);
+                        reply(replies, "OK " + id + " " + value);
+                    }
+                    case "PROTO" -> {
+                        String version = readToken(commands);
+                        delayFirstProto();
+                        if (binaryProtocol && (version.equals(String.valueOf(PIOFrame.VERSION))
+                                || version.equals(String.valueOf(PIOFrame.BATCH_VERSION)))) {
+                            reply(replies, "OK " + version);
+                            log.info("Switched to binary protocol v{}", version);
+                            serveBinary(commands, replies, kiss, kissFrame);
+                            return;
+                        }
+                        reply(replies, "ERR 0 unsupported");
+                    }
+                    default -> reply(replies, "ERR 0 unknown");
+                }
+            }
+            log.info("ESC closed the command pipe");
+        } catch (IOException e) {
+            log.error(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Serves binary {@link PIOFrame} commands and batches until the ESC closes the pipe.
+     * A batch is answered with one reply.
+     */
+    private void serveBinary(InputStream commands, OutputStream replies, RandomAccessFile kiss, byte[] kissFrame) throws IOException {
+        byte[] rx = new byte[PIOFrame.batchLength(PIOFrame.MAX_BATCH)];
+        byte[] tx = new byte[PIOFrame.LENGTH];
+        PIOFrame frame = new PIOFrame();
+        int[] ids = new int[PIOFrame.MAX_BATCH];
+        int[] values = new int[PIOFrame.MAX_BATCH];
+        int[] flags = new int[PIOFrame.MAX_BATCH];
+        while (true) {
+            // Hunt for the sync byte, then read the rest of the frame
+            int b;
+            while ((b = commands.read()) != -1 && (byte) b != PIOFrame.SYNC) {
+            }
+            if (b == -1) {
+                break;
+            }
+            rx[0] = PIOFrame.SYNC;
+            if (commands.readNBytes(rx, 1, 3) != 3) {
+                break;
+            }
+            if (rx[1] == PIOFrame.BATCH_VERSION && rx[2] == PIOFrame.BATCH) {
+                int count = rx[3] & 0xFF;
+                int rest = PIOFrame.batchLength(Math.min(count, PIOFrame.MAX_BATCH)) - 4;
+                if (commands.readNBytes(rx, 4, rest) != rest) {
+                    break;
+                }
+                if (count > PIOFrame.MAX_BATCH || !frame.decodeBatch(rx, 0, ids, values, flags)) {
+                    log.warn("Dropped corrupt batch");
+                    continue;
+                }
+                for (int i = 0; i < count; i++) {
+                    throttle(values[i], (flags[i] & PIOFrame.FLAG_TELEMETRY) != 0, kiss, kissFrame);
+                }
+                PIOFrame.encode(tx, 0, PIOFrame.OK, 0, count, 0, frame.seq);
+                replies.write(tx);
+                replies.flush();
+                continue;
+            }
+            if (commands.readNBytes(rx, 4, PIOFrame.LENGTH - 4) != PIOFrame.LENGTH - 4) {
+                break;
+            }
+            if (!frame.decode(rx, 0)) {
+                log.warn("Dropped corrupt frame");
+                continue;
+            }
+            if (frame.command == PIOFrame.THROTTLE) {
+                throttle(frame.value, frame.telemetry(), kiss, kissFrame);
+                PIOFrame.encode(tx, 0, PIOFrame.OK, frame.id, frame.value, 0, frame.seq);
+            } else {
+                PIOFrame.encode(tx, 0, PIOFrame.ERR, frame.id, 1, 0, frame.seq);
+            }
+            replies.write(tx);
+            replies.flush();
+        }
+        log.info("ESC closed the command pipe");
+    }
+
+    private void delayFirstProto() throws IOException {
+        long millis = protoDelayMillis;
+        protoDelayMillis = 0;
+        if (millis > 0) {
+            try {
+                Thread.sleep(millis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while delaying PROTO " + millis + " ms");
+            }
+        }
+    }
+
+    private void throttle(int value, boolean telemetry, RandomAccessFile kiss, byte[] kissFrame) throws IOException {
+        long now = System.nanoTime();
+        commands.incrementAndGet();
+        if (!telemetry) {
+            record(now, value);
+        } else {
+            kissFrame(value, kissFrame);
+            kiss.write(kissFrame);
+        }
+    }
+
+    private void record(long now, int value) {
+        // Forward throttle is sent as-is, reverse has 1024 added
+        int throttle = value >= 1024 ? value - 1024 : value;
+        if (throttle < 0 || throttle >= generator.sentAt.length()) {
+            return;
+        }
+        long sent = generator.sentAt.get(throttle);
+        if (sent == 0) {
+            return;
+        }
+        long nanos = now - sent;
+        latency.incrementAndGet((int) Math.min(nanos / BUCKET_NANOS, latency.length() - 1));
+        totalLatency.addAndGet(nanos);
+        maxLatency.accumulateAndGet(nanos, Math::max);
+    }
+
+    private static void reply(OutputStream out, String reply) throws IOException {
+        out.write((reply + "\n").getBytes(StandardCharsets.UTF_8));
+        out.flush();
+    }
+
+    /**
+     * Reads one whitespace-delimited token.
+     * <p>
+     * The ESC does not terminate its commands, so a token also ends when no more
+     * bytes are available. Each command is written with a single write call, so by
+     * the time the first byte is readable the whole command is.
+     *
+     * @return the token, or null at end of stream
+     */
+    private static String readToken(InputStream in) throws IOException {
+        StringBuilder token = new StringBuilder();
+        int c;
+        while ((c = in.read()) != -1) {
+            if (Character.isWhitespace(c)) {
+                if (!token.isEmpty()) {
+                    break;
+                }
+                continue;
+            }
+            token.append((char) c);
+            if (in.available() == 0) {
+                break;
+            }
+        }
+        return token.isEmpty() ? null : token.toString();
+    }
+
+    /**
+     * Fills a KISS telemetry frame with plausible values derived from the throttle.
+     * <p>
+     * Layout (big-endian): temperature, voltage (0.01 V), current (0.01 A),
+     * consumption (mAh), eRPM (100 rpm), CRC8.
+     */
+    static void kissFrame(int throttle, byte[] frame) {
+        int voltage = 1200;
+        int current = throttle / 4;
+        int erpm = throttle * 2;
+        frame[0] = 35;
+        frame[1] = (byte) (voltage >> 8);
+        frame[2] = (byte) voltage;
+        frame[3] = (byte) (current >> 8);
+        frame[4] = (byte) current;
+        frame[5] = 0;
+        frame[6] = 0;
+        frame[7] = (byte) (erpm >> 8);
+        frame[8] = (byte) erpm;
+        frame[9] = (byte) CRC8.compute(frame, 0, 9);
+    }
+}
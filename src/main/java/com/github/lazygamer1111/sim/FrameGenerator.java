@@ -0,0 +1,121 @@
+package com.github.lazygamer1111.sim;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Simulated iBUS receiver.
+ * <p>
+ * Writes 32-byte iBUS frames to a named pipe at a fixed rate. Channel 2 (throttle)
+ * sweeps through 1000-1999 so every commanded throttle value can be traced back to
+ * the moment its frame was generated, which {@link FakePioHelper} uses to measure
+ * frame-to-ESC latency. Channels 8 and 9 are held at 2000 (forward, no telemetry
+ * request) except for one telemetry request frame per second.
+ *
+ * @author lazygamer1111
+ * @version 1.0
+ * @since 2026-10-17
+ */
+public class FrameGenerator extends Thread {
+    /** Nominal iBUS frame rate of the receiver (one frame every 7 ms) */
+    public static final int NOMINAL_FRAME_RATE = 143;
+
+    /** Length of an iBUS frame including length byte and checksum */
+    static final int FRAME_LENGTH = 32;
+
+    private final Logger log = LoggerFactory.getLogger(FrameGenerator.class);
+
+    /** The pipe the frames are written to */
+    private final File out;
+
+    /** Frame period in nanoseconds */
+    private final long periodNanos;
+
+    /** Send timestamp per throttle value (channel 2 - 1000), used for latency measurement */
+    final AtomicLongArray sentAt = new AtomicLongArray(1000);
+
+    /** Number of frames written so far */
+    final AtomicLong frames = new AtomicLong();
+
+    /**
+     * Creates a frame generator.
+     *
+     * @param out       the pipe to write frames to
+     * @param frameRate the number of frames per second
+     */
+    public FrameGenerator(File out, int frameRate) {
+        super("Sim Frame Generator");
+        this.out = out;
+        this.periodNanos = 1_000_000_000L / frameRate;
+        setDaemon(true);
+    }
+
+    @Override
+    public void run() {
+        byte[] frame = new byte[FRAME_LENGTH];
+        int[] channels = new int[14];
+        int telemetryEvery = (int) (1_000_000_000L / periodNanos);
+
+        try (FileOutputStream stream = new FileOutputStream(out)) {
+            log.info("Generating frames every {} ns", periodNanos);
+            long next = System.nanoTime();
+            long seq = 0;
+            while (!isInterrupted()) {
+                Arrays.fill(channels, 1500);
+                int throttle = (int) (seq % 1000);
+                channels[2] = 1000 + throttle;
+                channels[8] = 2000;
+                channels[9] = telemetryEvery > 0 && seq % telemetryEvery == 0 ? 1000 : 2000;
+                encode(channels, frame);
+
+                sentAt.set(throttle, System.nanoTime());
+                stream.write(frame);
+                frames.incrementAndGet();
+                seq++;
+
+                next += periodNanos;
+                long wait = next - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                } else if (wait < -periodNanos * 10) {
+                    // Fell far behind (reader stalled), don't try to catch up with a burst
+                    next = System.nanoTime();
+                }
+            }
+        } catch (IOException e) {
+            log.error(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Encodes the channel values into an iBUS frame.
+     * <p>
+     * Layout: length (0x20), command (0x40), 14 little-endian channel values and a
+     * little-endian checksum of 0xFFFF minus the sum of all preceding bytes.
+     *
+     * @param channels the 14 channel values
+     * @param frame    the 32-byte destination buffer
+     */
+    static void encode(int[] channels, byte[] frame) {
+        frame[0] = 0x20;
+        frame[1] = 0x40;
+        for (int i = 0; i < 14; i++) {
+            frame[2 + i * 2] = (byte) channels[i];
+            frame[3 + i * 2] = (byte) (channels[i] >> 8);
+        }
+        int checksum = 0xFFFF;
+        for (int i = 0; i < FRAME_LENGTH - 2; i++) {
+            checksum -= frame[i] & 0xFF;
+        }
+        frame[30] = (byte) checksum;
+        frame[31] = (byte) (checksum >> 8);
+    }
+}
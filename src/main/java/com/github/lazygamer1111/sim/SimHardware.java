@@ -0,0 +1,232 @@
+package com.github.lazygamer1111.sim;
+
+import com.github.lazygamer1111.components.input.FileSerialSource;
+import com.github.lazygamer1111.components.input.SerialSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+/**
+ * Simulated hardware profile for running the control pipeline on a plain Linux box.
+ * <p>
+ * Builds a scratch directory containing everything {@code Main.createIO()} normally
+ * expects from the Raspberry Pi:
+ * <ul>
+ *     <li>{@code sys/class/pwm} - a fake sysfs PWM tree for the Pi4J linuxfs provider</li>
+ *     <li>{@code ibus} - a named pipe fed by a {@link FrameGenerator} in place of {@code ttyAMA0}</li>
+ *     <li>{@code kiss} / {@code telem} - named pipes in place of {@code ttyAMA3} / {@code ttyAMA4}</li>
+ *     <li>{@code NamedPipes/PIOPipe} / {@code NamedPipes/PIOTelemetry} - served by a {@link FakePioHelper}</li>
+ * </ul>
+ * Java cannot allocate pseudo-terminals without native code, so named pipes are
+ * used for the serial lines; the serial threads read them through a
+ * {@link FileSerialSource}. Throughput and latency are logged once per second.
+ *
+ * @author lazygamer1111
+ * @version 1.0
+ * @since 2026-10-17
+ */
+public class SimHardware implements Closeable {
+    private static final Logger log = LoggerFactory.getLogger(SimHardware.class);
+
+    private final Path root;
+    private final FrameGenerator generator;
+    private final FakePioHelper helper;
+    private final Thread reporter;
+
+    private SimHardware(Path root, int frameRate, boolean binaryProtocol) throws IOException {
+        this.root = root;
+        createPwmTree(root.resolve("sys/class/pwm"));
+        Files.createDirectories(root.resolve("NamedPipes"));
+        mkfifo(ibusPipe());
+        mkfifo(kissPipe());
+        mkfifo(telemPipe());
+        mkfifo(escCommandPipe());
+        mkfifo(escTelemetryPipe());
+
+        generator = new FrameGenerator(ibusPipe(), frameRate);
+        helper = new FakePioHelper(escCommandPipe(), escTelemetryPipe(), kissPipe(), generator, binaryProtocol);
+        reporter = new Thread(this::report, "Sim Stats");
+        reporter.setDaemon(true);
+    }
+
+    /**
+     * Creates the simulated hardware in a fresh temporary directory and starts the
+     * frame generator and fake PIO helper.
+     *
+     * @param frameRate      the iBUS frame rate in frames per second
+     * @param binaryProtocol whether the fake PIO helper accepts the binary frame protocol
+     * @return the running simulator
+     * @throws IOException if the scratch directory or pipes could not be created
+     */
+    public static SimHardware start(int frameRate, boolean binaryProtocol) throws IOException {
+        SimHardware sim = new SimHardware(Files.createTempDirectory("eindwerk-sim"), frameRate, binaryProtocol);
+        log.info("Simulated hardware in {} at {} frames/s", sim.root, frameRate);
+        sim.generator.start();
+        sim.helper.start();
+        sim.reporter.start();
+        return sim;
+    }
+
+    /**
+     * @return the root of the fake sysfs PWM tree, for {@code LinuxFsPwmProvider}
+     */
+    public String pwmPath() {
+        return root.resolve("sys/class/pwm").toString();
+    }
+
+    /**
+     * @return the pipe the ESC writes commands to
+     */
+    public File escCommandPipe() {
+        return root.resolve("NamedPipes/PIOPipe").toFile();
+    }
+
+    /**
+     * @return the pipe the ESC reads replies from
+     */
+    public File escTelemetryPipe() {
+        return root.resolve("NamedPipes/PIOTelemetry").toFile();
+    }
+
+    /**
+     * @return the source standing in for the receiver UART ({@code ttyAMA0})
+     */
+    public SerialSource receiverSource() {
+        return new FileSerialSource(ibusPipe());
+    }
+
+    /**
+     * @return the source standing in for the KISS telemetry UART ({@code ttyAMA3})
+     */
+    public SerialSource kissSource() {
+        return new FileSerialSource(kissPipe());
+    }
+
+    /**
+     * @return the source standing in for the telemetry UART ({@code ttyAMA4})
+     */
+    public SerialSource telemSource() {
+        return new FileSerialSource(telemPipe());
+    }
+
+    private File ibusPipe() {
+        return root.resolve("ibus").toFile();
+    }
+
+    private File kissPipe() {
+        return root.resolve("kiss").toFile();
+    }
+
+    private File telemPipe() {
+        return root.resolve("telem").toFile();
+    }
+
+    /**
+     * Logs frame rate, ESC command rate and frame-to-ESC latency once per second.
+     */
+    private void report() {
+        long lastFrames = 0;
+        long lastCommands = 0;
+        long[] lastLatency = new long[helper.latency.length()];
+        long lastTotal = 0;
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                Thread.sleep(1000);
+                long frames = generator.frames.get();
+                long commands = helper.commands.get();
+                long total = helper.totalLatency.get();
+
+                long count = 0;
+                long[] delta = new long[lastLatency.length];
+                for (int i = 0; i < delta.length; i++) {
+                    long v = helper.latency.get(i);
+                    delta[i] = v - lastLatency[i];
+                    lastLatency[i] = v;
+                    count += delta[i];
+                }
+
+                log.info("frames {}/s, esc commands {}/s, latency avg {} us, p50 {} us, p99 {} us, max {} us",
+                        frames - lastFrames, commands - lastCommands,
+                        count == 0 ? 0 : (total - lastTotal) / count / 1000,
+                        percentile(delta, count, 0.50), percentile(delta, count, 0.99),
+                        helper.maxLatency.get() / 1000);
+                lastFrames = frames;
+                lastCommands = commands;
+                lastTotal = total;
+            }
+        } catch (InterruptedException ignored) {
+        }
+    }
+
+    private static long percentile(long[] buckets, long count, double p) {
+        long target = (long) Math.ceil(count * p);
+        long seen = 0;
+        for (int i = 0; i < buckets.length; i++) {
+            seen += buckets[i];
+            if (seen >= target && seen > 0) {
+                return (i + 1) * FakePioHelper.BUCKET_NANOS / 1000;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Creates a fake sysfs PWM chip with four channels, already exported.
+     *
+     * @param pwm the directory standing in for {@code /sys/class/pwm}
+     */
+    public static void createPwmTree(Path pwm) throws IOException {
+        Path chip = pwm.resolve("pwmchip0");
+        Files.createDirectories(chip);
+        Files.writeString(chip.resolve("npwm"), "4\n");
+        Files.writeString(chip.resolve("export"), "");
+        Files.writeString(chip.resolve("unexport"), "");
+        for (int channel = 0; channel < 4; channel++) {
+            Path dir = Files.createDirectories(chip.resolve("pwm" + channel));
+            Files.writeString(dir.resolve("period"), "0\n");
+            Files.writeString(dir.resolve("duty_cycle"), "0\n");
+            Files.writeString(dir.resolve("enable"), "0\n");
+            Files.writeString(dir.resolve("polarity"), "normal\n");
+        }
+    }
+
+    /**
+     * Creates a named pipe.
+     *
+     * @param file where to create it
+     * @throws IOException if {@code mkfifo} failed
+     */
+    public static void mkfifo(File file) throws IOException {
+        try {
+            int exit = new ProcessBuilder("mkfifo", file.getPath()).inheritIO().start().waitFor();
+            if (exit != 0) {
+                throw new IOException("mkfifo " + file + " failed with exit code " + exit);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while creating " + file, e);
+        }
+    }
+
+    /**
+     * Stops the simulator threads and removes the scratch directory.
+     */
+    @Override
+    public void close() throws IOException {
+        generator.interrupt();
+        helper.interrupt();
+        reporter.interrupt();
+        try (Stream<Path> files = Files.walk(root)) {
+            for (Path path : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+}
@@ -0,0 +1,263 @@
+package com.github.lazygamer1111.startup;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Starts the application's subsystems as a dependency graph.
+ * <p>
+ * Every stage names the stages it needs and starts as soon as those are done, on its
+ * own pool thread, so independent subsystems (the PIO helper handshake, Pi4J, the
+ * serial ports, the servers) initialize in parallel instead of one after another.
+ * A stage that does not finish within its timeout is given up on; its thread keeps
+ * running, as most of these block in native or pipe I/O that cannot be interrupted.
+ * A stage that creates something its dependents use hands it over with
+ * {@link #commit}, so a result that arrives after the timeout is never seen by them.
+ * <p>
+ * A stage runs even if an optional dependency failed, since the application already
+ * handles missing optional subsystems. If a required stage fails, every stage that
+ * depends on it is skipped, so outputs are only armed once everything they need
+ * reported ready. Start offset and duration of each stage are kept for
+ * {@link #report()} and the metrics.
+ *
+ * @author lazygamer1111
+ * @version 1.0
+ * @since 2026-10-17
+ */
+public class Startup {
+    private static final Logger log = LoggerFactory.getLogger(Startup.class);
+
+    /**
+     * Work of one stage.
+     */
+    @FunctionalInterface
+    public interface Action {
+        void run() throws Exception;
+    }
+
+    /**
+     * How a stage ended.
+     */
+    public enum State {
+        PENDING, READY, FAILED, TIMED_OUT, SKIPPED
+    }
+
+    private final Map<String, Stage> stages = new LinkedHashMap<>();
+    /** Threads started by a stage inherit from these, so they are plain non-daemon threads */
+    private final ExecutorService pool = Executors.newCachedThreadPool(runnable -> new Thread(runnable, "Startup"));
+    private final long began = System.nanoTime();
+
+    /**
+     * Adds a stage. Dependencies must have been added before.
+     *
+     * @param name          the stage name
+     * @param required      whether stages depending on this one must be skipped if it fails
+     * @param timeoutMillis how long the stage may take once started
+     * @param action        the work
+     * @param dependsOn     the stages that must be done first
+     * @return this
+     */
+    public synchronized Startup stage(String name, boolean required, long timeoutMillis, Action action, String... dependsOn) {
+        if (stages.containsKey(name)) {
+            throw new IllegalArgumentException("Duplicate startup stage " + name);
+        }
+        List<Stage> dependencies = new ArrayList<>();
+        for (String dependency : dependsOn) {
+            Stage stage = stages.get(dependency);
+            if (stage == null) {
+                throw new IllegalArgumentException(name + " depends on unknown stage " + dependency);
+            }
+            dependencies.add(stage);
+        }
+        Stage stage = new Stage(name, required, timeoutMillis, dependencies);
+        stages.put(name, stage);
+        stage.future = CompletableFuture.allOf(dependencies.stream().map(d -> d.future).toArray(CompletableFuture[]::new))
+                .thenCompose(ignored -> start(stage, action));
+        return this;
+    }
+
+    private CompletableFuture<Void> start(Stage stage, Action action) {
+        for (Stage dependency : stage.dependencies) {
+            if (dependency.required && dependency.state != State.READY) {
+                stage.state = State.SKIPPED;
+                log.error("Startup stage {} skipped: {} is {}", stage.name, dependency.name, dependency.state);
+                return CompletableFuture.completedFuture(null);
+            }
+        }
+        stage.startedAt = System.nanoTime();
+        return CompletableFuture.runAsync(() -> {
+                    Thread.currentThread().setName("Startup " + stage.name);
+                    try {
+                        action.run();
+                    } catch (Exception e) {
+                        throw new CompletionException(e);
+                    }
+                }, pool)
+                .orTimeout(stage.timeoutMillis, TimeUnit.MILLISECONDS)
+                .handle((ignored, error) -> {
+                    Throwable cause = error instanceof CompletionException ? error.getCause() : error;
+                    synchronized (stage) {
+                        stage.finishedAt = System.nanoTime();
+                        if (cause == null || cause instanceof TimeoutException && stage.committed) {
+                            // A stage that committed its result just before the timeout is ready
+                            stage.state = State.READY;
+                        } else if (cause instanceof TimeoutException) {
+                            stage.state = State.TIMED_OUT;
+                            log.error("Startup stage {} timed out after {} ms", stage.name, stage.timeoutMillis);
+                        } else {
+                            stage.state = State.FAILED;
+                            log.error("Startup stage {} failed: {}", stage.name, cause.getMessage(), cause);
+                        }
+                    }
+                    return null;
+                });
+    }
+
+    /**
+     * Publishes a stage's result, unless the stage already timed out. Called by the
+     * stage's action; {@code publish} runs atomically with respect to the timeout, so
+     * either the dependents see the result and the stage is ready, or they never see
+     * it and the stage timed out.
+     *
+     * @param name    the stage name
+     * @param publish makes the result visible, e.g. assigns a field
+     * @return false if the stage already timed out and {@code publish} was not run; the
+     * caller then owns the result and must release it
+     */
+    public boolean commit(String name, Runnable publish) {
+        Stage stage = get(name);
+        synchronized (stage) {
+            if (stage.state != State.PENDING) {
+                return false;
+            }
+            publish.run();
+            stage.committed = true;
+            return true;
+        }
+    }
+
+    /**
+     * Waits until every stage is done, failed, timed out or skipped.
+     *
+     * @return true if every required stage is ready
+     */
+    public boolean await() {
+        CompletableFuture<?>[] all;
+        synchronized (this) {
+            all = stages.values().stream().map(s -> s.future).toArray(CompletableFuture[]::new);
+        }
+        CompletableFuture.allOf(all).join();
+        pool.shutdown();
+        synchronized (this) {
+            for (Stage stage : stages.values()) {
+                if (stage.required && stage.state != State.READY) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @param name a stage name
+     * @return whether the stage reported ready
+     */
+    public boolean ready(String name) {
+        return state(name) == State.READY;
+    }
+
+    /**
+     * @param name a stage name
+     * @return how the stage ended, or {@link State#PENDING}
+     */
+    public State state(String name) {
+        return get(name).state;
+    }
+
+    /**
+     * @return the stage names, in the order they were added
+     */
+    public synchronized List<String> names() {
+        return new ArrayList<>(stages.keySet());
+    }
+
+    /**
+     * @param name a stage name
+     * @return how long the stage ran in nanoseconds, 0 if it did not finish
+     */
+    public long durationNanos(String name) {
+        Stage stage = get(name);
+        return stage.finishedAt == 0 ? 0 : stage.finishedAt - stage.startedAt;
+    }
+
+    /**
+     * @param name a stage name
+     * @return nanoseconds from the start of startup until the stage finished, 0 if it did not
+     */
+    public long readyAtNanos(String name) {
+        Stage stage = get(name);
+        return stage.finishedAt == 0 ? 0 : stage.finishedAt - began;
+    }
+
+    private synchronized Stage get(String name) {
+        Stage stage = stages.get(name);
+        if (stage == null) {
+            throw new IllegalArgumentException("Unknown startup stage " + name);
+        }
+        return stage;
+    }
+
+    /**
+     * Renders the timing breakdown: per stage when it started and finished relative to
+     * the start of startup, how long it ran and how it ended.
+     *
+     * @return a plain text table
+     */
+    public synchronized String report() {
+        StringBuilder out = new StringBuilder(1024);
+        out.append(String.format("%-12s %10s %10s %10s  %s%n", "stage", "start_ms", "end_ms", "took_ms", "state"));
+        for (Stage stage : stages.values()) {
+            out.append(String.format("%-12s %10.1f %10.1f %10.1f  %s%n", stage.name,
+                    stage.startedAt == 0 ? 0 : (stage.startedAt - began) / 1e6,
+                    stage.finishedAt == 0 ? 0 : (stage.finishedAt - began) / 1e6,
+                    durationNanos(stage.name) / 1e6, stage.state));
+        }
+        return out.toString();
+    }
+
+    /**
+     * One node of the graph. Timestamps and state are written by the stage's thread
+     * before its future completes, and read after it. The end of the stage and
+     * {@link Startup#commit} synchronize on the stage.
+     */
+    private static class Stage {
+        final String name;
+        final boolean required;
+        final long timeoutMillis;
+        final List<Stage> dependencies;
+        CompletableFuture<Void> future;
+        volatile State state = State.PENDING;
+        /** Whether the action published its result through {@link Startup#commit} */
+        boolean committed;
+        volatile long startedAt;
+        volatile long finishedAt;
+
+        Stage(String name, boolean required, long timeoutMillis, List<Stage> dependencies) {
+            this.name = name;
+            this.required = required;
+            this.timeoutMillis = timeoutMillis;
+            this.dependencies = dependencies;
+        }
+    }
+}
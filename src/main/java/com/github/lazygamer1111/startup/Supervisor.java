@@ -0,0 +1,324 @@
+package com.github.lazygamer1111.startup;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BooleanSupplier;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
+
+/**
+ * Keeps the worker threads running once startup is done, and stops the application
+ * in a fixed order.
+ * <p>
+ * {@link #run()} is called by the main thread and parks between health checks, so
+ * it uses no CPU. A worker that fails its check is restarted by its factory once its
+ * old thread has exited, after a backoff that doubles with every consecutive failure
+ * up to the policy's maximum, so a fault that persists (an unplugged UART) costs a
+ * restart every few seconds instead of a busy loop. A worker that stays healthy for
+ * the maximum backoff is considered recovered and starts over at the initial
+ * backoff. Workers that cannot be restarted are only watched, and logged when they
+ * fail.
+ * <p>
+ * {@link #shutdown()} runs the shutdown steps in the order they were added, each on
+ * its own thread with a timeout, so a step blocked in I/O cannot keep the later ones,
+ * and the outputs, from being made safe.
+ *
+ * @author lazygamer1111
+ * @version 1.0
+ * @since 2026-10-17
+ */
+public class Supervisor {
+    private static final Logger log = LoggerFactory.getLogger(Supervisor.class);
+
+    /**
+     * When and how often a failed worker is restarted.
+     *
+     * @param initialBackoffNanos delay before the first restart after a failure
+     * @param maxBackoffNanos     upper bound of the doubling delay, also how long a worker
+     *                            must stay healthy before its failures are forgotten
+     */
+    public record RestartPolicy(long initialBackoffNanos, long maxBackoffNanos) {
+        /** Only watch the worker, never restart it */
+        public static final RestartPolicy NEVER = new RestartPolicy(-1, -1);
+
+        /**
+         * @param initialMillis delay before the first restart in milliseconds
+         * @param maxMillis     maximum delay in milliseconds
+         * @return a policy restarting with exponential backoff
+         */
+        public static RestartPolicy backoff(long initialMillis, long maxMillis) {
+            if (initialMillis <= 0 || maxMillis < initialMillis) {
+                throw new IllegalArgumentException("Backoff must be 0 < initial <= max, got " + initialMillis + " and " + maxMillis);
+            }
+            return new RestartPolicy(initialMillis * 1_000_000L, maxMillis * 1_000_000L);
+        }
+
+        boolean restarts() {
+            return initialBackoffNanos > 0;
+        }
+
+        /**
+         * @param failures consecutive failures before this one
+         * @return the delay before the next restart in nanoseconds
+         */
+        long backoffNanos(int failures) {
+            long backoff = initialBackoffNanos;
+            for (int i = 0; i < failures && backoff < maxBackoffNanos; i++) {
+                backoff <<= 1;
+            }
+            return Math.min(backoff, maxBackoffNanos);
+        }
+    }
+
+    private final long checkNanos;
+    private final long stepTimeoutMillis;
+    private final List<Worker<?>> workers = new CopyOnWriteArrayList<>();
+    private final List<Step> steps = new ArrayList<>();
+    private volatile boolean stopped;
+    private volatile Thread runner;
+
+    /**
+     * @param checkMillis       time between health checks in milliseconds
+     * @param stepTimeoutMillis how long each shutdown step may take in milliseconds
+     */
+    public Supervisor(long checkMillis, long stepTimeoutMillis) {
+        this.checkNanos = checkMillis * 1_000_000L;
+        this.stepTimeoutMillis = stepTimeoutMillis;
+    }
+
+    /**
+     * Starts a thread and restarts it whenever it stops.
+     *
+     * @param name    the worker name
+     * @param thread  the first thread, not yet started
+     * @param restart creates a replacement from the thread that stopped
+     * @param policy  when to restart
+     * @param <T>     the thread type
+     */
+    public <T extends Thread> void supervise(String name, T thread, UnaryOperator<T> restart, RestartPolicy policy) {
+        supervise(name, thread, Thread::isAlive, restart, policy);
+    }
+
+    /**
+     * Starts a thread and restarts it whenever it fails a health check. An unhealthy
+     * thread that is still running is interrupted, and only replaced once it exited.
+     *
+     * @param name    the worker name
+     * @param thread  the first thread, not yet started
+     * @param healthy the health check, must be false once the thread stopped
+     * @param restart creates a replacement from the thread that stopped
+     * @param policy  when to restart
+     * @param <T>     the thread type
+     */
+    public <T extends Thread> void supervise(String name, T thread, Predicate<T> healthy, UnaryOperator<T> restart, RestartPolicy policy) {
+        Worker<T> worker = new Worker<>(name, thread, healthy, restart, policy);
+        thread.start();
+        worker.startedAt = System.nanoTime();
+        workers.add(worker);
+    }
+
+    /**
+     * Watches a component that runs on its own and cannot be restarted, such as the
+     * control scheduler's threads.
+     *
+     * @param name    the worker name
+     * @param healthy the health check
+     */
+    public void watch(String name, BooleanSupplier healthy) {
+        workers.add(new Worker<Thread>(name, null, ignored -> healthy.getAsBoolean(), null, RestartPolicy.NEVER));
+    }
+
+    /**
+     * Adds a shutdown step, run after the steps added before it.
+     *
+     * @param name   the step name
+     * @param action the work
+     */
+    public synchronized void onShutdown(String name, Startup.Action action) {
+        steps.add(new Step(name, action));
+    }
+
+    /**
+     * Checks the workers until {@link #shutdown()} is called, parked in between.
+     */
+    public void run() {
+        runner = Thread.currentThread();
+        while (!stopped) {
+            LockSupport.parkNanos(this, checkNanos);
+            if (Thread.interrupted()) {
+                return;
+            }
+            // Shutdown holds the lock while interrupting, so no replacement starts after it
+            synchronized (this) {
+                if (stopped) {
+                    return;
+                }
+                long now = System.nanoTime();
+                for (Worker<?> worker : workers) {
+                    worker.check(now);
+                }
+            }
+        }
+    }
+
+    /**
+     * Stops supervising, interrupts the supervised threads and runs the shutdown
+     * steps in order. Meant for the shutdown hook.
+     */
+    public void shutdown() {
+        List<Step> order;
+        synchronized (this) {
+            stopped = true;
+            for (Worker<?> worker : workers) {
+                if (worker.thread != null) {
+                    worker.thread.interrupt();
+                }
+            }
+            order = new ArrayList<>(steps);
+        }
+        Thread main = runner;
+        if (main != null) {
+            LockSupport.unpark(main);
+        }
+        for (Step step : order) {
+            Thread thread = new Thread(() -> {
+                try {
+                    step.action.run();
+                } catch (Exception e) {
+                    log.error("Shutdown step {} failed: {}", step.name, e.getMessage(), e);
+                }
+            }, "Shutdown " + step.name);
+            thread.setDaemon(true);
+            long start = System.nanoTime();
+            thread.start();
+            try {
+                thread.join(stepTimeoutMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            if (thread.isAlive()) {
+                log.error("Shutdown step {} did not finish within {} ms, continuing", step.name, stepTimeoutMillis);
+            } else {
+                log.info("Shutdown step {} done in {} ms", step.name, (System.nanoTime() - start) / 1_000_000);
+            }
+        }
+    }
+
+    /**
+     * @return the worker names, in the order they were added
+     */
+    public List<String> names() {
+        List<String> names = new ArrayList<>();
+        for (Worker<?> worker : workers) {
+            names.add(worker.name);
+        }
+        return names;
+    }
+
+    /**
+     * @param name a worker name
+     * @return whether the worker passed its last health check
+     */
+    public boolean healthy(String name) {
+        return get(name).healthy;
+    }
+
+    /**
+     * @param name a worker name
+     * @return how often the worker was restarted
+     */
+    public long restarts(String name) {
+        return get(name).restarts.get();
+    }
+
+    private Worker<?> get(String name) {
+        for (Worker<?> worker : workers) {
+            if (worker.name.equals(name)) {
+                return worker;
+            }
+        }
+        throw new IllegalArgumentException("Unknown worker " + name);
+    }
+
+    /**
+     * A supervised thread. Only the supervising thread changes it after registration;
+     * the metrics read {@link #healthy} and {@link #restarts}.
+     */
+    private static class Worker<T extends Thread> {
+        final String name;
+        final Predicate<T> check;
+        final UnaryOperator<T> restart;
+        final RestartPolicy policy;
+        final AtomicLong restarts = new AtomicLong();
+        volatile T thread;
+        volatile boolean healthy = true;
+        long startedAt;
+        /** Consecutive failures without a healthy period in between */
+        int failures;
+        /** Whether a replacement is scheduled, due at {@link #restartAt} */
+        boolean pending;
+        long restartAt;
+
+        Worker(String name, T thread, Predicate<T> check, UnaryOperator<T> restart, RestartPolicy policy) {
+            this.name = name;
+            this.thread = thread;
+            this.check = check;
+            this.restart = restart;
+            this.policy = policy;
+        }
+
+        void check(long now) {
+            T current = thread;
+            if (check.test(current)) {
+                if (!healthy) {
+                    log.info("{} is healthy again", name);
+                    healthy = true;
+                }
+                if (failures > 0 && now - startedAt > policy.maxBackoffNanos()) {
+                    failures = 0;
+                }
+                return;
+            }
+
+            if (healthy) {
+                healthy = false;
+                log.error("{} failed its health check{}", name, policy.restarts() ? "" : " and is not restarted");
+            }
+            if (!policy.restarts()) {
+                return;
+            }
+            if (!pending) {
+                long backoff = policy.backoffNanos(failures++);
+                pending = true;
+                restartAt = now + backoff;
+                log.warn("Restarting {} in {} ms", name, backoff / 1_000_000);
+            }
+            if (now - restartAt < 0) {
+                return;
+            }
+            if (current.isAlive()) {
+                // Two readers on one port would split its bytes, so wait for the old one to exit
+                current.interrupt();
+                return;
+            }
+
+            T next = restart.apply(current);
+            thread = next;
+            next.start();
+            startedAt = System.nanoTime();
+            pending = false;
+            restarts.incrementAndGet();
+            log.warn("{} restarted after {} consecutive failure(s)", name, failures);
+        }
+    }
+
+    private record Step(String name, Startup.Action action) {
+    }
+}
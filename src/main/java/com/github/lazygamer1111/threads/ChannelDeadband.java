@@ -0,0 +1,66 @@
+package com.github.lazygamer1111.threads;
+
+import com.github.lazygamer1111.config.LiveSettings;
+import com.github.lazygamer1111.config.Settings;
+import com.github.lazygamer1111.dataTypes.ControllerSnapshot;
+
+/**
+ * Suppresses control outputs when the controller input did not meaningfully change.
+ * <p>
+ * Each channel has its own threshold in iBUS units (microseconds of pulse width),
+ * read from the live {@link Settings} on every frame, so changed thresholds apply
+ * without a restart.
+ * A frame counts as changed when any channel moved by more than its threshold from
+ * the last accepted frame, or when the last accepted frame is older than the refresh
+ * interval, so outputs are still rewritten periodically. Not thread safe: every
+ * control stage owns its own instance.
+ *
+ * @author lazygamer1111
+ * @version 1.0
+ * @since 2026-10-17
+ */
+public class ChannelDeadband {
+    private final LiveSettings settings;
+    private final int[] accepted = new int[ControllerSnapshot.CHANNELS];
+    private final long refreshNanos;
+    private long acceptedAt;
+    private boolean primed = false;
+
+    /**
+     * @param settings     supplies the per-channel thresholds
+     * @param refreshNanos the longest time an unchanged output is suppressed
+     */
+    public ChannelDeadband(LiveSettings settings, long refreshNanos) {
+        this.settings = settings;
+        this.refreshNanos = refreshNanos;
+    }
+
+    /**
+     * Checks a frame against the last accepted one and accepts it if it changed.
+     *
+     * @param channels the channel values
+     * @param now      the current {@link System#nanoTime()}
+     * @return true if the output should be written
+     */
+    public boolean changed(int[] channels, long now) {
+        boolean changed = !primed || now - acceptedAt >= refreshNanos;
+        Settings current = settings.get();
+        for (int i = 0; i < accepted.length && !changed; i++) {
+            changed = Math.abs(channels[i] - accepted[i]) > current.deadband(i);
+        }
+        if (changed) {
+            System.arraycopy(channels, 0, accepted, 0, accepted.length);
+            acceptedAt = now;
+            primed = true;
+        }
+        return changed;
+    }
+
+    /**
+     * Forgets the last accepted frame, so the next one is always written.
+     * Called when an output was overridden, e.g. by the failsafe.
+     */
+    public void reset() {
+        primed = false;
+    }
+}
@@ -0,0 +1,377 @@
+package com.github.lazygamer1111.threads;
+
+import com.github.lazygamer1111.metrics.Histogram;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Deadline-based periodic executor for the control loop.
+ * <p>
+ * Every task gets a dedicated thread and a long-lived {@link PeriodicTask} instance.
+ * Deadlines are absolute ({@code start + n * period}), so execution time and wake-up
+ * latency do not accumulate into drift. The thread parks until shortly before each
+ * deadline and can optionally busy-spin the last few microseconds for a precise
+ * start. Per task it records start jitter, execution time, overruns and skipped
+ * periods.
+ * <p>
+ * A task can instead be triggered by input ({@link ScheduledTask#triggeredBy}): it then
+ * runs as soon as a new controller frame is signalled, at most once per minimum
+ * interval, and falls back to running once per period when no frames arrive.
+ *
+ * @author lazygamer1111
+ * @version 1.0
+ * @since 2026-10-17
+ */
+public class ControlScheduler {
+    private static final Logger log = LoggerFactory.getLogger(ControlScheduler.class);
+
+    /**
+     * What to do when a tick ends after the next deadline has already passed.
+     */
+    public enum OverrunPolicy {
+        /** Drop the missed periods and continue at the next deadline in the future */
+        SKIP,
+        /** Run the missed periods back-to-back until the schedule is caught up */
+        CATCH_UP
+    }
+
+    private final List<ScheduledTask> tasks = new ArrayList<>();
+
+    /**
+     * Registers a task. Settings can be changed on the returned handle until
+     * {@link #start()} is called.
+     *
+     * @param name        the task name, also used as thread name
+     * @param task        the task body
+     * @param periodNanos the period in nanoseconds
+     * @return the handle holding the task's settings and statistics
+     */
+    public ScheduledTask schedule(String name, PeriodicTask task, long periodNanos) {
+        ScheduledTask scheduled = new ScheduledTask(name, task, periodNanos);
+        tasks.add(scheduled);
+        return scheduled;
+    }
+
+    /**
+     * Starts all registered tasks.
+     */
+    public void start() {
+        for (ScheduledTask task : tasks) {
+            task.thread.start();
+        }
+    }
+
+    /**
+     * Stops all tasks and waits for their current tick to finish. Can be called again
+     * to wait longer for a task stuck in a tick.
+     *
+     * @param timeoutMillis how long to wait for all task threads together
+     * @return true if every task thread has exited; if not, a task may still write its
+     * outputs, so nothing else may
+     */
+    public boolean shutdown(long timeoutMillis) {
+        for (ScheduledTask task : tasks) {
+            task.thread.interrupt();
+        }
+        long deadline = System.nanoTime() + timeoutMillis * 1_000_000L;
+        for (ScheduledTask task : tasks) {
+            long remaining = (deadline - System.nanoTime()) / 1_000_000L;
+            if (remaining <= 0) {
+                break;
+            }
+            try {
+                task.thread.join(remaining);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        return stopped();
+    }
+
+    /**
+     * @return true if no task thread is running, also before {@link #start()}
+     */
+    public boolean stopped() {
+        for (ScheduledTask task : tasks) {
+            if (task.thread.isAlive()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return the registered tasks
+     */
+    public List<ScheduledTask> tasks() {
+        return tasks;
+    }
+
+    /**
+     * A task registered with the scheduler, with its settings and statistics.
+     */
+    public static class ScheduledTask {
+        private final String name;
+        private final PeriodicTask task;
+        private final long periodNanos;
+        private final Thread thread;
+        private long spinNanos = 0;
+        private OverrunPolicy overrunPolicy = OverrunPolicy.SKIP;
+        private FrameNotifier trigger = null;
+        private long minIntervalNanos = 0;
+
+        /** Tick start minus deadline, or minus frame receive time for triggered ticks, in nanoseconds */
+        private final Histogram jitter = new Histogram();
+
+        /** Duration of every tick, in nanoseconds */
+        private final Histogram executionTime = new Histogram();
+
+        /** Time between the starts of consecutive ticks, in nanoseconds */
+        private final Histogram interval = new Histogram();
+        private long lastStart = 0;
+
+        private final AtomicLong ticks = new AtomicLong();
+        private final AtomicLong triggeredTicks = new AtomicLong();
+        private final AtomicLong overruns = new AtomicLong();
+        private final AtomicLong skippedPeriods = new AtomicLong();
+        private final AtomicLong errors = new AtomicLong();
+
+        private ScheduledTask(String name, PeriodicTask task, long periodNanos) {
+            this.name = name;
+            this.task = task;
+            this.periodNanos = periodNanos;
+            this.thread = new Thread(this::run, name);
+        }
+
+        /**
+         * Sets the thread priority. The JVM only applies it on Linux when started with
+         * {@code -XX:ThreadPriorityPolicy=1} as root.
+         *
+         * @param priority a {@link Thread} priority
+         * @return this task
+         */
+        public ScheduledTask priority(int priority) {
+            thread.setPriority(priority);
+            return this;
+        }
+
+        /**
+         * Sets how long before each deadline to stop parking and busy-spin instead.
+         * Trades CPU time for start precision; 0 disables spinning.
+         *
+         * @param spinNanos the spin window in nanoseconds
+         * @return this task
+         */
+        public ScheduledTask spinNanos(long spinNanos) {
+            this.spinNanos = spinNanos;
+            return this;
+        }
+
+        /**
+         * Sets what happens when a tick overruns into the next period.
+         *
+         * @param overrunPolicy the policy
+         * @return this task
+         */
+        public ScheduledTask overrunPolicy(OverrunPolicy overrunPolicy) {
+            this.overrunPolicy = overrunPolicy;
+            return this;
+        }
+
+        /**
+         * Runs the task whenever {@code notifier} signals a new frame instead of on a
+         * fixed period. The period becomes the minimum refresh: without new frames the
+         * task still runs once per period, so failsafe checks keep working.
+         *
+         * @param notifier         the notifier the input thread signals
+         * @param minIntervalNanos the shortest time between two ticks, limiting the output rate
+         * @return this task
+         */
+        public ScheduledTask triggeredBy(FrameNotifier notifier, long minIntervalNanos) {
+            this.trigger = notifier;
+            this.minIntervalNanos = minIntervalNanos;
+            notifier.register(thread);
+            return this;
+        }
+
+        private void run() {
+            if (trigger != null) {
+                runTriggered();
+                return;
+            }
+            log.info("{} running every {} ns", name, periodNanos);
+            long deadline = System.nanoTime();
+            while (waitUntil(deadline)) {
+                long start = System.nanoTime();
+                jitter.record(start - deadline);
+                long end = runTick(start);
+
+                deadline += periodNanos;
+                if (end - deadline > 0) {
+                    overruns.incrementAndGet();
+                    if (overrunPolicy == OverrunPolicy.SKIP) {
+                        long missed = (end - deadline) / periodNanos + 1;
+                        skippedPeriods.addAndGet(missed);
+                        deadline += missed * periodNanos;
+                    }
+                }
+            }
+            log.info("{} stopped", name);
+        }
+
+        private void runTriggered() {
+            log.info("{} running on new frames, at least every {} ns and at most every {} ns", name, periodNanos, minIntervalNanos);
+            long seen = trigger.generation();
+            long last = System.nanoTime() - minIntervalNanos;
+            while (true) {
+                long refreshAt = last + periodNanos;
+                long current = trigger.await(seen, refreshAt);
+                boolean triggered = current != seen;
+                // Rate limit, then take every frame that arrived meanwhile as handled by this tick
+                if (!waitUntil(triggered ? last + minIntervalNanos : refreshAt)) {
+                    break;
+                }
+                seen = trigger.generation();
+
+                long start = System.nanoTime();
+                if (triggered) {
+                    jitter.record(start - trigger.signalledAt());
+                    triggeredTicks.incrementAndGet();
+                } else {
+                    jitter.record(start - refreshAt);
+                }
+                runTick(start);
+                last = start;
+            }
+            log.info("{} stopped", name);
+        }
+
+        /**
+         * Runs one tick and records its execution time and the interval since the previous one.
+         *
+         * @return the {@link System#nanoTime()} at which the tick ended
+         */
+        private long runTick(long start) {
+            if (lastStart != 0) {
+                interval.record(start - lastStart);
+            }
+            lastStart = start;
+            try {
+                task.tick(start);
+            } catch (Exception e) {
+                errors.incrementAndGet();
+                log.error("{} tick failed", name, e);
+            }
+            long end = System.nanoTime();
+            executionTime.record(end - start);
+            ticks.incrementAndGet();
+            return end;
+        }
+
+        /**
+         * Parks until {@code spinNanos} before the deadline, then spins until it.
+         *
+         * @return false if the thread was interrupted
+         */
+        private boolean waitUntil(long deadline) {
+            while (true) {
+                if (Thread.interrupted()) {
+                    return false;
+                }
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    return true;
+                }
+                if (remaining > spinNanos) {
+                    LockSupport.parkNanos(remaining - spinNanos);
+                } else {
+                    Thread.onSpinWait();
+                }
+            }
+        }
+
+        /**
+         * @return the task name
+         */
+        public String name() {
+            return name;
+        }
+
+        /**
+         * @return the period in nanoseconds
+         */
+        public long periodNanos() {
+            return periodNanos;
+        }
+
+        /**
+         * @return true while the task's thread is running
+         */
+        public boolean alive() {
+            return thread.isAlive();
+        }
+
+        /**
+         * @return the histogram of tick start minus deadline, or minus frame receive time
+         * for triggered ticks, in nanoseconds
+         */
+        public Histogram jitter() {
+            return jitter;
+        }
+
+        /**
+         * @return the histogram of tick durations, in nanoseconds
+         */
+        public Histogram executionTime() {
+            return executionTime;
+        }
+
+        /**
+         * @return the histogram of time between tick starts, the actual loop period, in nanoseconds
+         */
+        public Histogram interval() {
+            return interval;
+        }
+
+        /**
+         * @return the number of completed ticks
+         */
+        public long ticks() {
+            return ticks.get();
+        }
+
+        /**
+         * @return the number of ticks started by a new frame rather than the refresh period
+         */
+        public long triggeredTicks() {
+            return triggeredTicks.get();
+        }
+
+        /**
+         * @return the number of ticks that ended after the next deadline
+         */
+        public long overruns() {
+            return overruns.get();
+        }
+
+        /**
+         * @return the number of periods dropped by {@link OverrunPolicy#SKIP}
+         */
+        public long skippedPeriods() {
+            return skippedPeriods.get();
+        }
+
+        /**
+         * @return the number of ticks that threw an exception
+         */
+        public long errors() {
+            return errors.get();
+        }
+    }
+}
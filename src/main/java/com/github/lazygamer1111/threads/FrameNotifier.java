@@ -0,0 +1,81 @@
+package com.github.lazygamer1111.threads;
+
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Wakes the control stages when a new controller frame has been published.
+ * <p>
+ * The producer bumps a generation counter and unparks every registered waiter; it
+ * never blocks and does not allocate. Waiters remember the last generation they saw
+ * and park until it changes or their deadline passes, so signals that arrive while
+ * a stage is busy are coalesced instead of queued.
+ *
+ * @author lazygamer1111
+ * @version 1.0
+ * @since 2026-10-17
+ */
+public class FrameNotifier {
+    private final AtomicLong generation = new AtomicLong();
+    private volatile long signalledAt;
+    private final CopyOnWriteArrayList<Thread> waiters = new CopyOnWriteArrayList<>();
+
+    /**
+     * Registers a thread to be unparked on every signal.
+     *
+     * @param waiter the thread that calls {@link #await(long, long)}
+     */
+    public void register(Thread waiter) {
+        waiters.add(waiter);
+    }
+
+    /**
+     * Announces a new frame.
+     *
+     * @param timestamp the {@link System#nanoTime()} at which the frame was received
+     */
+    public void signal(long timestamp) {
+        signalledAt = timestamp;
+        generation.incrementAndGet();
+        for (Thread waiter : waiters) {
+            LockSupport.unpark(waiter);
+        }
+    }
+
+    /**
+     * Parks until a signal newer than {@code seen} arrives, the deadline passes or the
+     * thread is interrupted.
+     *
+     * @param seen     the generation the caller has already handled
+     * @param deadline the {@link System#nanoTime()} to give up at
+     * @return the current generation; equal to {@code seen} if no new frame arrived
+     */
+    public long await(long seen, long deadline) {
+        while (true) {
+            long current = generation.get();
+            if (current != seen || Thread.currentThread().isInterrupted()) {
+                return current;
+            }
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                return current;
+            }
+            LockSupport.parkNanos(this, remaining);
+        }
+    }
+
+    /**
+     * @return the number of signals so far
+     */
+    public long generation() {
+        return generation.get();
+    }
+
+    /**
+     * @return the receive timestamp passed with the latest signal
+     */
+    public long signalledAt() {
+        return signalledAt;
+    }
+}
@@ -1,6 +1,9 @@
 package com.github.lazygamer1111.threads;
 
 import com.github.lazygamer1111.components.output.Servo;
+import com.github.lazygamer1111.dataTypes.ControllerSnapshot;
+import com.github.lazygamer1111.mixer.ChannelCurves;
+import com.github.lazygamer1111.mixer.Mixer;
 import com.pi4j.Pi4J;
 import com.pi4j.context.Context;
 import com.pi4j.io.gpio.digital.DigitalOutput;
@@ -12,21 +15,59 @@ import com.pi4j.io.pwm.PwmType;
 import com.pi4j.plugin.gpiod.provider.gpio.digital.GpioDDigitalInputProvider;
 import com.pi4j.plugin.gpiod.provider.gpio.digital.GpioDDigitalOutputProvider;
 import com.pi4j.plugin.linuxfs.provider.pwm.LinuxFsPwmProvider;
-import org.quartz.Job;
-import org.quartz.JobExecutionContext;
-import org.quartz.JobExecutionException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.time.Instant;
 
 /**
- * The type Io thread.
+ * Control task that steers the servo from the controller snapshot, through one
+ * output of a {@link Mixer}.
+ * Run periodically by the {@link ControlScheduler}.
  */
-public class IOJob implements Job {
-    private Servo servo = null;
+public class IOJob implements PeriodicTask {
+    /** Servo angle output while the controller input is stale: wheels straight */
+    public static final double FAILSAFE_ANGLE = 45;
+
+    private final Servo servo;
+    private final InputWatchdog watchdog;
     private final Logger logger = LoggerFactory.getLogger(IOJob.class);
-    private volatile int[] controllerData;
+    private final ControllerSnapshot controllerData;
+    private final ControllerSnapshot frame = new ControllerSnapshot();
+
+    /** Skips servo updates for unchanged input, null to write every tick */
+    private final ChannelDeadband deadband;
+
+    private final ChannelCurves curves;
+    private final Mixer mixer;
+    private final int output;
+
+    public IOJob(ControllerSnapshot controllerData, Servo servo, InputWatchdog watchdog) {
+        this(controllerData, servo, watchdog, null);
+    }
+
+    public IOJob(ControllerSnapshot controllerData, Servo servo, InputWatchdog watchdog, ChannelDeadband deadband) {
+        this(controllerData, servo, watchdog, deadband, null, Mixer.defaults(), "servo");
+    }
+
+    /**
+     * @param curves shapes the channels before they are mixed, null to not shape them
+     * @param mixer  maps the channels to the servo angle
+     * @param output the name of the mixer output that drives the servo
+     */
+    public IOJob(ControllerSnapshot controllerData, Servo servo, InputWatchdog watchdog, ChannelDeadband deadband,
+                 ChannelCurves curves, Mixer mixer, String output) {
+        this.controllerData = controllerData;
+        this.servo = servo;
+        this.watchdog = watchdog;
+        this.deadband = deadband;
+        this.curves = curves;
+        this.mixer = mixer;
+        this.output = mixer.output(output);
+        if (this.output < 0) {
+            throw new IllegalArgumentException("No mixer output named " + output);
+        }
+    }
 
 //    public IOJob(int[] controllerData) {
 //        this.controllerData = controllerData;
@@ -89,30 +130,24 @@ public class IOJob implements Job {
 //    }
 
     @Override
-    public void execute(JobExecutionContext jobExecutionContext) throws JobExecutionException {
-        double servoThing = controllerData[2] - 1000;
+    public void tick(long now) {
+        controllerData.copyTo(frame);
+        if (curves != null) {
+            curves.apply(frame.channels);
+        }
+        if (!watchdog.fresh(frame, now)) {
+            servo.setAngle(FAILSAFE_ANGLE);
+            if (deadband != null) {
+                deadband.reset();
+            }
+        } else if (deadband == null || deadband.changed(frame.channels, now)) {
 //             logger.debug(Arrays.toString(controllerData));
-        long now = Instant.now().toEpochMilli();
 //             logger.debug("Time between send = {}", now - last);
-        servoThing *= 90;
-        servoThing /= 1000;
-        if (servoThing > 0) {
-            servo.setAngle(90-servoThing);
+            int rule = mixer.rule(output, frame.channels);
+            if (rule >= 0) {
+                servo.setAngle(mixer.value(output, rule, frame.channels), frame, now);
+            }
         }
-        now = Instant.now().toEpochMilli();
 //             logger.debug("Time to after servo = {}", now - last);
-        try {
-            Thread.sleep(21);
-        } catch (InterruptedException e) {
-            throw new RuntimeException(e);
-        }
-    }
-
-    public void setControllerData(int[] controllerData) {
-        this.controllerData = controllerData;
-    }
-
-    public void setServo(Servo servo) {
-        this.servo = servo;
     }
 }
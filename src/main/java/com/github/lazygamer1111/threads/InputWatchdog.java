@@ -0,0 +1,126 @@
+package com.github.lazygamer1111.threads;
+
+import com.github.lazygamer1111.dataTypes.ControllerSnapshot;
+import com.github.lazygamer1111.metrics.Histogram;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Frame-age deadline check for a control stage.
+ * <p>
+ * Every control tick passes the controller frame it is about to act on to
+ * {@link #fresh(ControllerSnapshot, long)}. If the frame is older than the deadline,
+ * or no frame has arrived yet, the stage must output its failsafe value on that same
+ * tick. The age of every frame acted on is recorded in a histogram, so the worst
+ * case reaction time to a dead link is a measured number.
+ * <p>
+ * One instance is shared by all executions of a job; it is only touched by the
+ * thread running that job at a time.
+ *
+ * @author lazygamer1111
+ * @version 1.0
+ * @since 2026-10-17
+ */
+public class InputWatchdog {
+    private final Logger log;
+
+    /** The control stage name */
+    private final String stage;
+
+    /** Maximum frame age in nanoseconds before the failsafe output is used */
+    private final long deadlineNanos;
+
+    /** Age of the controller frame at every tick, in nanoseconds */
+    private final Histogram frameAge = new Histogram();
+
+    /** Number of ticks that used the failsafe output */
+    private final AtomicLong missedTicks = new AtomicLong();
+
+    /** Number of times the stage switched from live input to failsafe */
+    private final AtomicLong failsafeEntries = new AtomicLong();
+
+    private volatile boolean failsafe = false;
+
+    /**
+     * Creates a watchdog.
+     *
+     * @param stage         the control stage name, used in log messages and metrics
+     * @param deadlineNanos the maximum frame age in nanoseconds
+     */
+    public InputWatchdog(String stage, long deadlineNanos) {
+        this.stage = stage;
+        this.log = LoggerFactory.getLogger(InputWatchdog.class.getName() + "." + stage);
+        this.deadlineNanos = deadlineNanos;
+    }
+
+    /**
+     * Checks whether a frame is young enough to act on.
+     *
+     * @param frame the frame the stage is about to use
+     * @param now   the current {@link System#nanoTime()}
+     * @return true if the frame may be used, false if the failsafe output must be used
+     */
+    public boolean fresh(ControllerSnapshot frame, long now) {
+        boolean fresh = frame.sequence != 0 && now - frame.timestamp <= deadlineNanos;
+        if (frame.sequence != 0) {
+            frameAge.record(now - frame.timestamp);
+        }
+
+        if (!fresh) {
+            missedTicks.incrementAndGet();
+            if (!failsafe) {
+                failsafe = true;
+                failsafeEntries.incrementAndGet();
+                log.warn("Controller input older than {} ns, switching to failsafe", deadlineNanos);
+            }
+        } else if (failsafe) {
+            failsafe = false;
+            log.info("Controller input recovered");
+        }
+        return fresh;
+    }
+
+    /**
+     * @return the control stage name
+     */
+    public String stage() {
+        return stage;
+    }
+
+    /**
+     * @return the configured deadline in nanoseconds
+     */
+    public long deadlineNanos() {
+        return deadlineNanos;
+    }
+
+    /**
+     * @return whether the last tick used the failsafe output
+     */
+    public boolean inFailsafe() {
+        return failsafe;
+    }
+
+    /**
+     * @return the number of ticks that used the failsafe output
+     */
+    public long missedTicks() {
+        return missedTicks.get();
+    }
+
+    /**
+     * @return the number of transitions from live input to failsafe
+     */
+    public long failsafeEntries() {
+        return failsafeEntries.get();
+    }
+
+    /**
+     * @return the histogram of frame ages at each tick, in nanoseconds
+     */
+    public Histogram frameAge() {
+        return frameAge;
+    }
+}
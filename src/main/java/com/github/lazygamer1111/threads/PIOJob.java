@@ -1,47 +1,138 @@
 package com.github.lazygamer1111.threads;
 
-import com.github.lazygamer1111.components.output.ESC;
-import org.quartz.Job;
-import org.quartz.JobExecutionContext;
-import org.quartz.JobExecutionException;
+import com.github.lazygamer1111.components.output.ESCGroup;
+import com.github.lazygamer1111.dataTypes.ControllerSnapshot;
+import com.github.lazygamer1111.mixer.ChannelCurves;
+import com.github.lazygamer1111.mixer.Mixer;
+import com.github.lazygamer1111.recorder.FlightRecorder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-public class PIOJob implements Job {
-    private volatile int[] controllerData;
-    private ESC esc;
+import java.util.Arrays;
+
+/**
+ * Control task that sends the throttles from the controller snapshot to the ESCs,
+ * all motors of the group in one batch per tick. Each motor is driven by its own
+ * {@link Mixer} output; a motor whose rules do not match keeps its last throttle,
+ * and nothing is sent if no motor matched.
+ * Run periodically by the {@link ControlScheduler}.
+ */
+public class PIOJob implements PeriodicTask {
+    /** Throttle output while the controller input is stale: motor stopped */
+    public static final int FAILSAFE_THROTTLE = 0;
+
+    private final ControllerSnapshot controllerData;
+    private final ControllerSnapshot frame = new ControllerSnapshot();
+    private final ESCGroup esc;
+    private final InputWatchdog watchdog;
     private final Logger log = LoggerFactory.getLogger(this.getClass());
 
-    @Override
-    public void execute(JobExecutionContext c) throws JobExecutionException {
-        int throttle = (controllerData[2] - 1000);
-
-        try {
-            if (controllerData[9] == 1000) {
-                esc.sendFrame(0, true);
-            } else if (controllerData[8] == 2000) {
-                esc.sendFrame(throttle, false);
-            } else if (controllerData[8] == 1000) {
-                esc.sendFrame(throttle + 1024, false);
-            } else if (controllerData[8] == 1500) {
-                esc.sendFrame(0, false);
-            }
-        } catch (Exception e) {
-            log.error("Failed to send frame!", e);
-        }
+    /** Skips ESC frames for unchanged input, null to send every tick */
+    private final ChannelDeadband deadband;
 
-        try {
-            Thread.sleep(10);
-        } catch (InterruptedException e) {
-            throw new RuntimeException(e);
-        }
+    /** Records every tick, null to not record */
+    private final FlightRecorder recorder;
+
+    private final ChannelCurves curves;
+    private final Mixer mixer;
+
+    /** Mixer output index per motor */
+    private final int[] outputs;
+
+    /** Throttle last staged per motor */
+    private final int[] throttles;
+
+    public PIOJob(ControllerSnapshot controllerData, ESCGroup esc, InputWatchdog watchdog) {
+        this(controllerData, esc, watchdog, null, null);
     }
 
-    public void setControllerData(int[] controllerData) {
-        this.controllerData = controllerData;
+    public PIOJob(ControllerSnapshot controllerData, ESCGroup esc, InputWatchdog watchdog, ChannelDeadband deadband, FlightRecorder recorder) {
+        this(controllerData, esc, watchdog, deadband, recorder, null, Mixer.defaults());
     }
 
-    public void setESC(ESC esc) {
+    /**
+     * @param curves shapes the channels before they are mixed, null to not shape them
+     * @param mixer maps the channels to the throttles; motor {@code m} is driven by the
+     *              output named {@code esc<m>}, or by {@code esc} if there is none
+     */
+    public PIOJob(ControllerSnapshot controllerData, ESCGroup esc, InputWatchdog watchdog, ChannelDeadband deadband,
+                  FlightRecorder recorder, ChannelCurves curves, Mixer mixer) {
+        this.controllerData = controllerData;
         this.esc = esc;
+        this.watchdog = watchdog;
+        this.deadband = deadband;
+        this.recorder = recorder;
+        this.curves = curves;
+        this.mixer = mixer;
+        // Without an ESC there are no motors, and nothing is ever sent
+        int motors = esc == null ? 0 : esc.motors();
+        this.outputs = new int[motors];
+        this.throttles = new int[motors];
+        for (int m = 0; m < outputs.length; m++) {
+            int output = mixer.output("esc" + m);
+            outputs[m] = output >= 0 ? output : mixer.output("esc");
+            if (outputs[m] < 0) {
+                throw new IllegalArgumentException("No mixer output named esc" + m + " or esc");
+            }
+        }
+    }
+
+    @Override
+    public void tick(long now) {
+        controllerData.copyTo(frame);
+        if (curves != null) {
+            curves.apply(frame.channels);
+        }
+        int[] channels = frame.channels;
+
+        // Throttle of motor 0 sent this tick, -1 for none
+        int command = -1;
+        int flags = 0;
+        if (!watchdog.fresh(frame, now)) {
+            command = FAILSAFE_THROTTLE;
+            flags = FlightRecorder.FLAG_FAILSAFE;
+            // Motors without a matching rule after the failsafe must not resume their old throttle
+            Arrays.fill(throttles, FAILSAFE_THROTTLE);
+            if (deadband != null) {
+                deadband.reset();
+            }
+        } else if (deadband == null || deadband.changed(channels, now)) {
+            boolean matched = false;
+            for (int m = 0; m < outputs.length; m++) {
+                int rule = mixer.rule(outputs[m], channels);
+                boolean telemetry = false;
+                if (rule >= 0) {
+                    matched = true;
+                    throttles[m] = (int) Math.round(mixer.value(outputs[m], rule, channels));
+                    // Telemetry comes back on one shared UART, so only one ESC may answer
+                    telemetry = m == 0 && (mixer.flags(rule) & Mixer.FLAG_TELEMETRY) != 0;
+                    if (m == 0) {
+                        command = throttles[m];
+                        flags = telemetry ? FlightRecorder.FLAG_TELEMETRY : 0;
+                    }
+                }
+                esc.set(m, throttles[m], telemetry);
+            }
+            if (matched && command < 0) {
+                command = throttles[0];
+            }
+        }
+
+        // Without motors there is nothing to send, even in failsafe
+        if (command >= 0 && outputs.length > 0) {
+            try {
+                if (flags == FlightRecorder.FLAG_FAILSAFE) {
+                    // Failsafe output was not caused by the stale frame, so it is not traced
+                    esc.sendAll(command, false, null, now);
+                } else {
+                    esc.send(frame, now);
+                }
+            } catch (Exception e) {
+                log.error("Failed to send frame!", e);
+            }
+        }
+        if (recorder != null) {
+            recorder.record(frame, command, flags, now);
+        }
     }
 }
@@ -0,0 +1,21 @@
+package com.github.lazygamer1111.threads;
+
+/**
+ * Body of a periodic control task run by the {@link ControlScheduler}.
+ * <p>
+ * Implementations are long-lived: one instance is created at startup and
+ * {@link #tick(long)} is called once per period on the task's own thread.
+ *
+ * @author lazygamer1111
+ * @version 1.0
+ * @since 2026-10-17
+ */
+public interface PeriodicTask {
+
+    /**
+     * Runs one period of the task. Must not block for longer than the period.
+     *
+     * @param now the {@link System#nanoTime()} at which this tick started
+     */
+    void tick(long now);
+}
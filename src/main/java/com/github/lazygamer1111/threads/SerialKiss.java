@@ -1,52 +1,175 @@
 package com.github.lazygamer1111.threads;
 
-import com.fazecast.jSerialComm.SerialPort;
+import com.github.lazygamer1111.components.input.SerialSource;
+import com.github.lazygamer1111.dataTypes.KissTelemetry;
+import com.github.lazygamer1111.metrics.TelemetryStore;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.nio.ByteBuffer;
-import java.nio.ByteOrder;
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicLong;
 
+/**
+ * KISS ESC telemetry reader.
+ * <p>
+ * Blocks on the telemetry UART ({@code ttyAMA3} on the vehicle) until bytes arrive,
+ * so it uses no CPU between frames. KISS frames carry no start marker, so the
+ * received bytes are scanned with a sliding window: a frame is accepted when its
+ * CRC8 matches, otherwise one byte is skipped and the next position is tried. This
+ * resynchronises after line noise or a partial frame. Decoded values are published
+ * to a shared {@link KissTelemetry} and appended to a {@link TelemetryStore} for
+ * history; the read buffer is reused for the whole run.
+ *
+ * @author lazygamer1111
+ * @version 1.0
+ * @since 2026-10-17
+ */
 public class SerialKiss extends Thread {
 
     Logger log = LoggerFactory.getLogger(this.getClass());
 
+    private final SerialSource source;
+    private final KissTelemetry telemetry;
+    private final TelemetryStore history;
 
-    public void run() {
-        final String portName2 = "ttyAMA3";
-        SerialPort serialPort2 = SerialPort.getCommPort(portName2);
-        serialPort2.setComPortTimeouts(SerialPort.TIMEOUT_NONBLOCKING, 0, 0);
-        serialPort2.setComPortParameters(115200, 8, SerialPort.ONE_STOP_BIT, SerialPort.NO_PARITY);
+    /** Number of valid frames decoded */
+    private final AtomicLong frames;
+
+    /** Number of times an expected frame failed its CRC */
+    private final AtomicLong crcErrors;
+
+    /** Number of times the reader found a valid frame again after losing alignment */
+    private final AtomicLong resyncs;
+
+    /** Number of bytes skipped while searching for a valid frame */
+    private final AtomicLong droppedBytes;
+
+    /**
+     * Creates a KISS telemetry reader.
+     *
+     * @param source    the telemetry UART
+     * @param telemetry the shared telemetry to publish decoded frames to
+     */
+    public SerialKiss(SerialSource source, KissTelemetry telemetry) {
+        this(source, telemetry, null);
+    }
 
+    /**
+     * Creates a KISS telemetry reader that also records every frame.
+     *
+     * @param source    the telemetry UART
+     * @param telemetry the shared telemetry to publish decoded frames to
+     * @param history   the store to append decoded frames to, or null
+     */
+    public SerialKiss(SerialSource source, KissTelemetry telemetry, TelemetryStore history) {
+        this(source, telemetry, history, new AtomicLong(), new AtomicLong(), new AtomicLong(), new AtomicLong());
+    }
+
+    /**
+     * Creates a replacement for a reader that stopped, reading the same UART and
+     * continuing its counters.
+     *
+     * @param previous the reader to replace, must have terminated
+     */
+    public SerialKiss(SerialKiss previous) {
+        this(previous.source, previous.telemetry, previous.history,
+                previous.frames, previous.crcErrors, previous.resyncs, previous.droppedBytes);
+    }
+
+    private SerialKiss(SerialSource source, KissTelemetry telemetry, TelemetryStore history,
+                       AtomicLong frames, AtomicLong crcErrors, AtomicLong resyncs, AtomicLong droppedBytes) {
+        super("KISS Telemetry");
+        this.source = source;
+        this.telemetry = telemetry;
+        this.history = history;
+        this.frames = frames;
+        this.crcErrors = crcErrors;
+        this.resyncs = resyncs;
+        this.droppedBytes = droppedBytes;
+    }
+
+    public void run() {
         try {
-            serialPort2.openPort();
+            source.open();
             log.debug("Open serial port");
 
-            ByteBuffer buffer = ByteBuffer.allocate(10);
+            byte[] buffer = new byte[64];
+            int length = 0;
+            boolean synced = true;
 
-            while (true) {
-                int bytes = serialPort2.bytesAvailable();
-//                log.info("Bytes available: " + serialPort2.bytesAvailable());
-                if (serialPort2.bytesAvailable() >= 10) {
-                    serialPort2.readBytes(buffer.array(), 10);
-                    deserializeKiss(buffer);
-                    buffer.clear();
+            while (!isInterrupted()) {
+                int n = source.read(buffer, length, buffer.length - length);
+                if (n < 0) {
+                    break;
                 }
+                long now = System.nanoTime();
+                length += n;
+
+                int pos = 0;
+                while (length - pos >= KissTelemetry.FRAME_LENGTH) {
+                    if (KissTelemetry.isValid(buffer, pos)) {
+                        telemetry.publish(buffer, pos, now);
+                        if (history != null) {
+                            // This thread is the only writer, so reading the fields back is safe
+                            history.append(telemetry);
+                        }
+                        frames.incrementAndGet();
+                        if (!synced) {
+                            resyncs.incrementAndGet();
+                            synced = true;
+                        }
+                        pos += KissTelemetry.FRAME_LENGTH;
+                    } else {
+                        if (synced) {
+                            crcErrors.incrementAndGet();
+                            synced = false;
+                        }
+                        droppedBytes.incrementAndGet();
+                        pos++;
+                    }
+                }
+
+                // Keep the incomplete tail for the next read
+                System.arraycopy(buffer, pos, buffer, 0, length - pos);
+                length -= pos;
             }
+        } catch (IOException e) {
+            log.error(e.getMessage(), e);
         } finally {
-            serialPort2.closePort();
+            try {
+                source.close();
+            } catch (IOException e) {
+                log.error(e.getMessage(), e);
+            }
             log.info("Close serial port");
         }
     }
 
+    /**
+     * @return the number of valid frames decoded
+     */
+    public long frames() {
+        return frames.get();
+    }
 
-    private void deserializeKiss(ByteBuffer buffer){
-        buffer.order(ByteOrder.BIG_ENDIAN);
+    /**
+     * @return the number of times an expected frame failed its CRC
+     */
+    public long crcErrors() {
+        return crcErrors.get();
+    }
+
+    /**
+     * @return the number of times alignment was regained after a CRC error
+     */
+    public long resyncs() {
+        return resyncs.get();
+    }
 
-        log.info("Temp: {}", buffer.get());
-        log.info("Voltage: {}", buffer.getShort() * 0.01);
-        log.info("Current: {}", buffer.getShort() * 0.01);
-        log.info("Consumption: {}", buffer.getShort() * 0.01);
-        log.info("ERPM: {}", buffer.getShort() * 100);
+    /**
+     * @return the number of bytes skipped while resynchronising
+     */
+    public long droppedBytes() {
+        return droppedBytes.get();
     }
 }
@@ -1,9 +1,10 @@
 package com.github.lazygamer1111.threads;
 
-import com.fazecast.jSerialComm.SerialPort;
+import com.github.lazygamer1111.components.input.SerialSource;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 
@@ -11,32 +12,40 @@ public class SerialTelem extends Thread {
 
     Logger log = LoggerFactory.getLogger(this.getClass());
 
+    private final SerialSource source;
 
-    public void run() {
-        final String portName2 = "ttyAMA4";
-        SerialPort serialPort2 = SerialPort.getCommPort(portName2);
-        serialPort2.setComPortTimeouts(SerialPort.TIMEOUT_NONBLOCKING, 0, 0);
-        serialPort2.setComPortParameters(115200, 8, SerialPort.ONE_STOP_BIT, SerialPort.NO_PARITY);
+    public SerialTelem(SerialSource source) {
+        this.source = source;
+    }
 
+    public void run() {
         try {
-            serialPort2.openPort();
+            source.open();
             log.debug("Open serial port");
 
             ByteBuffer buffer = ByteBuffer.allocate(10);
 
-            while (true) {
-                int bytes = serialPort2.bytesAvailable();
-                if (bytes > 0) {
-                    log.info("Bytes available: {}", serialPort2.bytesAvailable());
+            // Block until bytes arrive instead of polling available() and logging every pass
+            while (!isInterrupted()) {
+                int bytes = source.read(buffer.array(), 0, buffer.capacity());
+                if (bytes < 0) {
+                    break;
                 }
+                log.debug("Received {} bytes", bytes);
 //                log.info("Bytes available: " + serialPort2.bytesAvailable());
 //                if (serialPort2.bytesAvailable() >= 10) {
 //                    serialPort2.readBytes(buffer.array(), 10);
 //                    buffer.clear();
 //                }
             }
+        } catch (IOException e) {
+            log.error(e.getMessage(), e);
         } finally {
-            serialPort2.closePort();
+            try {
+                source.close();
+            } catch (IOException e) {
+                log.error(e.getMessage(), e);
+            }
             log.info("Close serial port");
         }
     }
@@ -1,25 +1,26 @@
 package com.github.lazygamer1111.threads;
 
 import com.fazecast.jSerialComm.SerialPort;
+import com.github.lazygamer1111.components.input.IBusParser;
+import com.github.lazygamer1111.components.input.SerialSource;
+import com.github.lazygamer1111.dataTypes.ControllerSnapshot;
+import com.github.lazygamer1111.metrics.Histogram;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.nio.ByteBuffer;
-import java.nio.ByteOrder;
-import java.time.Instant;
-import java.util.Arrays;
-
 /**
  * Serial Communication Thread for reading controller data.
  * 
  * This thread is responsible for establishing and maintaining a serial connection
  * to a controller device (likely an Arduino or similar microcontroller) and
  * continuously reading controller input data. The data is read from the serial port,
- * deserialized from a binary format, and stored in a shared array that can be
- * accessed by other threads.
+ * parsed as iBUS frames by an {@link IBusParser}, and every frame that passes the
+ * checksum is published as a whole to a shared {@link ControllerSnapshot}, stamped
+ * with the time it was received and the time it was decoded, and numbered, so its
+ * latency can be traced to the outputs. Corrupt frames are dropped without touching it.
  * 
  * The thread runs in an infinite loop, reading data packets from the serial port
- * and updating the shared controller data array.
+ * and updating the shared controller snapshot.
  * 
  * @author lazygamer1111
  * @version 1.0
@@ -27,18 +28,31 @@ import java.util.Arrays;
  */
 public class SerialThread extends Thread {
     /**
-     * Shared controller data array accessed by multiple threads.
-     * This array is updated with the latest controller input values
+     * Shared controller snapshot accessed by multiple threads.
+     * This thread is its only writer and publishes every valid frame
      * read from the serial port.
      */
-    private volatile int[] controllerData;
-    
+    private final ControllerSnapshot controllerData;
+
+    /**
+     * The byte source the controller frames are read from.
+     */
+    private final SerialSource source;
+
+    /**
+     * Parser that finds and validates iBUS frames in the received bytes.
+     */
+    private final IBusParser parser;
+
+    /**
+     * Signalled after every batch of valid frames, wakes input-triggered control stages.
+     */
+    private final FrameNotifier notifier;
+
     /**
-     * Temporary array used during deserialization.
-     * This array holds the deserialized data before it is copied
-     * to the shared controllerData array.
+     * Time between consecutive reads that produced valid frames, in nanoseconds.
      */
-    private int[] temp = new int[14];
+    private final Histogram frameInterval;
     
     /**
      * Logger for this class.
@@ -46,15 +60,45 @@ public class SerialThread extends Thread {
     Logger log = LoggerFactory.getLogger(this.getClass());
     
     /**
-     * Constructs a new Serial Thread with the specified controller data array.
+     * Constructs a new Serial Thread with the specified controller snapshot.
      * 
-     * This thread will read controller data from a serial port and store it
-     * in the provided array, which is shared with other threads.
+     * This thread will read controller data from a serial port and publish it
+     * to the provided snapshot, which is shared with other threads.
+     *
+     * @param data   the shared controller snapshot to be updated with values from the serial port
+     * @param source the serial source to read controller frames from
+     */
+    public SerialThread(ControllerSnapshot data, SerialSource source) {
+        this(data, source, new FrameNotifier());
+    }
+
+    /**
+     * Constructs a new Serial Thread that also signals every new frame.
+     *
+     * @param data     the shared controller snapshot to be updated with values from the serial port
+     * @param source   the serial source to read controller frames from
+     * @param notifier the notifier to signal after publishing new frames
+     */
+    public SerialThread(ControllerSnapshot data, SerialSource source, FrameNotifier notifier) {
+        this(data, source, notifier, new IBusParser(), new Histogram());
+    }
+
+    /**
+     * Constructs a replacement for a thread that stopped, reading the same source and
+     * continuing its parser and statistics, so the frame counters keep counting up.
      *
-     * @param data the shared controller data array to be updated with values from the serial port
+     * @param previous the thread to replace, must have terminated
      */
-    public SerialThread(int[] data) {
+    public SerialThread(SerialThread previous) {
+        this(previous.controllerData, previous.source, previous.notifier, previous.parser, previous.frameInterval);
+    }
+
+    private SerialThread(ControllerSnapshot data, SerialSource source, FrameNotifier notifier, IBusParser parser, Histogram frameInterval) {
         controllerData = data;
+        this.source = source;
+        this.notifier = notifier;
+        this.parser = parser;
+        this.frameInterval = frameInterval;
     }
 
 
@@ -68,8 +112,9 @@ public class SerialThread extends Thread {
      * The method performs the following steps:
      * 1. Sets the thread name for easier identification
      * 2. Lists available serial ports for debugging
-     * 3. Opens and configures the serial port (ttyAMA0)
-     * 4. Continuously reads data packets, deserializes them, and updates the shared array
+     * 3. Opens the serial source (ttyAMA0 on the vehicle)
+     * 4. Continuously reads bytes, publishes every valid frame to the shared snapshot
+     *    and signals the frame notifier
      */
     public void run() {
         // Set thread name for easier identification in logs
@@ -80,82 +125,55 @@ public class SerialThread extends Thread {
             log.debug("Comm Ports: {}", commPort.getSystemPortName());
         }
 
-        // Configure serial port (Raspberry Pi UART port)
-        final String portName = "ttyAMA0";
-        SerialPort serialPort = SerialPort.getCommPort(portName);
-        serialPort.setComPortTimeouts(SerialPort.TIMEOUT_READ_BLOCKING, 0, 0);
-        serialPort.setComPortParameters(115200, 8, SerialPort.ONE_STOP_BIT, SerialPort.NO_PARITY);
-
-        // Open the serial port
-        serialPort.openPort();
-        log.debug("Open serial port");
-        
         try {
-            // Allocate buffers for reading data
-            ByteBuffer buffer = ByteBuffer.allocate(64);  // Main data buffer
-            ByteBuffer size = ByteBuffer.allocate(1);     // Size byte buffer
-            long last = Instant.now().toEpochMilli();
-            
+            // Open the serial source
+            source.open();
+            log.debug("Open serial port {}", source.name());
+
             // Main data reading loop
+            long lastReceived = 0;
             while (true) {
-                // Clear buffer for new data
-                buffer.clear();
-                
-                // Read packet size byte first
-                serialPort.readBytes(size.array(), 1);
-                
-                // Read the rest of the packet based on size
-                serialPort.readBytes(buffer.array(), size.get(0)-1);
-                size.clear();
-                
-                // Set buffer to little-endian byte order (matches controller data format)
-                buffer.order(ByteOrder.LITTLE_ENDIAN);
-
-                // Deserialize the data and update the shared array
-                temp = deserialize(buffer);
-                System.arraycopy(temp, 0, controllerData, 0, temp.length);
+                // Block until bytes arrive, then decode every complete frame
+                if (parser.fill(source) < 0) {
+                    throw new IllegalStateException(source.name() + " closed");
+                }
+                long received = System.nanoTime();
+                boolean published = false;
+                while (parser.next()) {
+                    controllerData.publish(parser.channels(), received, System.nanoTime());
+                    published = true;
+                }
+                if (published) {
+                    notifier.signal(received);
+                    if (lastReceived != 0) {
+                        frameInterval.record(received - lastReceived);
+                    }
+                    lastReceived = received;
+                }
             }
         } catch (Exception e) {
             log.error(e.getMessage(), e);
         }
         
         // Close the serial port if the loop exits
-        serialPort.closePort();
+        try {
+            source.close();
+        } catch (Exception e) {
+            log.error(e.getMessage(), e);
+        }
     }
 
     /**
-     * Deserializes controller data from a binary buffer.
-     * 
-     * This method reads a binary data packet from the provided buffer and
-     * converts it into an array of integer values representing controller inputs.
-     * The method expects a specific packet format starting with a header byte (0x40)
-     * followed by a series of 16-bit values.
-     *
-     * @param buffer the ByteBuffer containing the binary data packet
-     * @return an array of integer values representing controller inputs
+     * @return the parser, for its good, bad and resync frame counters
      */
-    private int[] deserialize(ByteBuffer buffer){
-        // Ensure buffer is in little-endian byte order
-        buffer.order(ByteOrder.LITTLE_ENDIAN);
-        
-        // Create array to hold deserialized data
-        int[] controllerData = new int[14];
-        
-        // Read the header byte
-        byte start = buffer.get();
-
-        // Process the packet based on the header byte
-        switch (start){
-            case 0x40:  // Standard controller data packet
-                // Read 14 short values (28 bytes) and convert to unsigned int
-                for (int i = 0; i < 28; i+=2) {
-                    controllerData[i/2] = Short.toUnsignedInt(buffer.getShort());
-                }
-                buffer.clear();
-                return controllerData;
-        }
+    public IBusParser parser() {
+        return parser;
+    }
 
-        // Return empty array if header byte is not recognized
-        return controllerData;
+    /**
+     * @return the histogram of time between received frames, in nanoseconds
+     */
+    public Histogram frameInterval() {
+        return frameInterval;
     }
 }
@@ -0,0 +1,134 @@
+package com.github.lazygamer1111.components.input;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IBusParserTest {
+
+    /** Encodes an iBUS servo frame the way a FlySky receiver sends it */
+    private static byte[] frame(int first) {
+        byte[] frame = new byte[IBusParser.FRAME_LENGTH];
+        frame[0] = 0x20;
+        frame[1] = 0x40;
+        for (int c = 0; c < IBusParser.CHANNELS; c++) {
+            int value = first + c;
+            frame[2 + c * 2] = (byte) value;
+            frame[3 + c * 2] = (byte) (value >> 8);
+        }
+        int checksum = 0xFFFF;
+        for (int i = 0; i < IBusParser.FRAME_LENGTH - 2; i++) {
+            checksum -= frame[i] & 0xFF;
+        }
+        frame[30] = (byte) checksum;
+        frame[31] = (byte) (checksum >> 8);
+        return frame;
+    }
+
+    private static int[] expected(int first) {
+        int[] channels = new int[IBusParser.CHANNELS];
+        for (int c = 0; c < channels.length; c++) {
+            channels[c] = first + c;
+        }
+        return channels;
+    }
+
+    private static void write(IBusParser parser, byte[] bytes) {
+        assertEquals(bytes.length, parser.write(bytes, 0, bytes.length));
+    }
+
+    @Test
+    void decodesConsecutiveFrames() {
+        IBusParser parser = new IBusParser();
+        write(parser, frame(1000));
+        write(parser, frame(1500));
+
+        assertTrue(parser.next());
+        assertArrayEquals(expected(1000), parser.channels());
+        assertTrue(parser.next());
+        assertArrayEquals(expected(1500), parser.channels());
+        assertFalse(parser.next());
+        assertEquals(2, parser.goodFrames());
+        assertEquals(0, parser.badFrames());
+        assertEquals(0, parser.resyncs());
+    }
+
+    @Test
+    void frameSplitAcrossReadsIsDecodedOnceComplete() {
+        IBusParser parser = new IBusParser();
+        byte[] frame = frame(1200);
+        for (int i = 0; i < frame.length - 1; i++) {
+            parser.write(frame, i, 1);
+            assertFalse(parser.next(), "decoded after " + (i + 1) + " bytes");
+        }
+        parser.write(frame, frame.length - 1, 1);
+        assertTrue(parser.next());
+        assertArrayEquals(expected(1200), parser.channels());
+        assertEquals(0, parser.skippedBytes());
+    }
+
+    @Test
+    void resyncsAfterLeadingGarbage() {
+        IBusParser parser = new IBusParser();
+        write(parser, new byte[] {0x01, 0x20, 0x7F, 0x20});
+        write(parser, frame(1100));
+
+        assertTrue(parser.next());
+        assertArrayEquals(expected(1100), parser.channels());
+        assertEquals(4, parser.skippedBytes());
+        assertEquals(1, parser.resyncs());
+    }
+
+    @Test
+    void corruptFrameIsDroppedAndTheNextOneFound() {
+        IBusParser parser = new IBusParser();
+        byte[] corrupt = frame(1300);
+        corrupt[10] ^= 0x04;
+        write(parser, corrupt);
+        write(parser, frame(1400));
+
+        assertTrue(parser.next());
+        assertArrayEquals(expected(1400), parser.channels());
+        assertFalse(parser.next());
+        assertEquals(1, parser.goodFrames());
+        assertEquals(1, parser.badFrames());
+        assertEquals(IBusParser.FRAME_LENGTH, parser.skippedBytes());
+    }
+
+    @Test
+    void headerInsideTruncatedFrameIsFound() {
+        IBusParser parser = new IBusParser();
+        // A frame cut off after 12 bytes, directly followed by a complete one
+        byte[] truncated = frame(1600);
+        parser.write(truncated, 0, 12);
+        write(parser, frame(1700));
+
+        assertTrue(parser.next());
+        assertArrayEquals(expected(1700), parser.channels());
+        assertEquals(12, parser.skippedBytes());
+    }
+
+    @Test
+    void keepsDecodingAcrossRingWrapAround() {
+        IBusParser parser = new IBusParser();
+        byte[] noise = {0x55, 0x20, 0x40};
+        for (int i = 0; i < 100; i++) {
+            write(parser, frame(1000 + i));
+            if (i % 7 == 0) {
+                write(parser, noise);
+            }
+            assertTrue(parser.next(), "frame " + i);
+            assertArrayEquals(expected(1000 + i), parser.channels());
+        }
+        assertEquals(100, parser.goodFrames());
+    }
+
+    @Test
+    void writeStopsWhenTheBufferIsFull() {
+        IBusParser parser = new IBusParser();
+        byte[] lots = new byte[1024];
+        int copied = parser.write(lots, 0, lots.length);
+        assertTrue(copied < lots.length);
+        assertEquals(0, parser.write(lots, 0, 1));
+    }
+}
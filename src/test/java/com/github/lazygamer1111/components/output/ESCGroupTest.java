@@ -0,0 +1,289 @@
+package com.github.lazygamer1111.components.output;
+
+import com.github.lazygamer1111.dataTypes.PIOFrame;
+import com.github.lazygamer1111.sim.FakePioHelper;
+import com.github.lazygamer1111.sim.FrameGenerator;
+import com.github.lazygamer1111.sim.SimHardware;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ESCGroupTest {
+    private static final long CONFIRM_NANOS = 1_000_000_000L;
+
+    /** Messages that may await a reply, as in ESCGroup */
+    private static final int WINDOW = 16;
+
+    @TempDir
+    Path dir;
+
+    private ESCGroup group;
+    private Thread helper;
+    private DataInputStream commands;
+    private OutputStream replies;
+
+    @AfterEach
+    void close() throws Exception {
+        if (group != null) {
+            group.close();
+        }
+        if (helper != null) {
+            helper.interrupt();
+            helper.join(1000);
+        }
+        if (replies != null) {
+            replies.close();
+            commands.close();
+        }
+    }
+
+    private File fifo(String name) throws IOException {
+        File file = dir.resolve(name).toFile();
+        SimHardware.mkfifo(file);
+        return file;
+    }
+
+    /**
+     * Starts a group of {@code motors} ESCs against the simulator's fake PIO helper.
+     */
+    private ESCGroup simulated(int motors, boolean binary, long protoDelayMillis) throws IOException {
+        File command = fifo("command");
+        File telemetry = fifo("telemetry");
+        FakePioHelper fake = new FakePioHelper(command, telemetry, fifo("kiss"),
+                new FrameGenerator(dir.resolve("ibus").toFile(), 100), binary).protoDelay(protoDelayMillis);
+        helper = fake;
+        fake.start();
+        group = new ESCGroup(new int[motors], 300, telemetry, command);
+        return group;
+    }
+
+    /**
+     * Starts a one-motor group against a helper that accepts protocol 2 and then
+     * leaves the replies to the test, through {@link #commands} and {@link #replies}.
+     */
+    private ESCGroup scripted() throws Exception {
+        File command = fifo("command");
+        File telemetry = fifo("telemetry");
+        CompletableFuture<Void> handshake = CompletableFuture.runAsync(() -> {
+            try {
+                replies = new FileOutputStream(telemetry);
+                commands = new DataInputStream(new FileInputStream(command));
+                byte[] buf = new byte[64];
+                commands.read(buf);
+                replies.write("OK 0\n".getBytes(StandardCharsets.UTF_8));
+                commands.read(buf);
+                replies.write("OK 2\n".getBytes(StandardCharsets.UTF_8));
+                replies.flush();
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        });
+        group = new ESCGroup(new int[] {4}, 300, telemetry, command);
+        handshake.get(1, TimeUnit.SECONDS);
+        return group;
+    }
+
+    /** Reads the next batch the group sent and returns its sequence number */
+    private int nextSeq() throws IOException {
+        byte[] rx = new byte[PIOFrame.batchLength(1)];
+        commands.readFully(rx);
+        PIOFrame frame = new PIOFrame();
+        assertTrue(frame.decodeBatch(rx, 0, new int[1], new int[1], new int[1]));
+        return frame.seq;
+    }
+
+    private void answer(int command, int seq) throws IOException {
+        byte[] tx = new byte[PIOFrame.LENGTH];
+        PIOFrame.encode(tx, 0, command, 0, 1, 0, seq);
+        replies.write(tx);
+        replies.flush();
+    }
+
+    private static void awaitInFlight(ESCGroup group, int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + CONFIRM_NANOS;
+        while (group.inFlight() != expected && System.nanoTime() - deadline < 0) {
+            Thread.sleep(1);
+        }
+        assertEquals(expected, group.inFlight());
+    }
+
+    @Test
+    void batchesAllMotorsIntoOneMessage() throws IOException {
+        ESCGroup group = simulated(3, true, 0);
+        assertEquals(3, group.motors());
+        for (int m = 0; m < 3; m++) {
+            group.set(m, 100 + m, false);
+        }
+        assertTrue(group.sendConfirmed(CONFIRM_NANOS));
+
+        assertEquals(1, group.sentFrames());
+        assertEquals(0, group.inFlight());
+        assertEquals(102, group.lastThrottle(2));
+    }
+
+    @Test
+    void fallsBackToTextWhenBinaryIsRefused() throws IOException {
+        ESCGroup group = simulated(2, false, 0);
+        group.set(0, 300, false);
+        group.set(1, 400, false);
+        assertTrue(group.sendConfirmed(CONFIRM_NANOS));
+        group.sendAll(0, false, null, System.nanoTime());
+
+        assertEquals(0, group.sentFrames());
+        assertEquals(0, group.lastThrottle(1));
+    }
+
+    @Test
+    void lateAcceptanceIsTheNegotiatedProtocol() throws IOException {
+        // PROTO 1 is sent after 500 ms, but the helper is binary once it answers OK 2
+        ESCGroup group = simulated(2, true, 700);
+        group.set(0, 50, false);
+        group.set(1, 60, false);
+        assertTrue(group.sendConfirmed(CONFIRM_NANOS));
+
+        assertEquals(1, group.sentFrames());
+        assertEquals(0, group.corruptReplies());
+    }
+
+    @Test
+    void lateRefusalIsMatchedToItsOwnRequest() throws IOException {
+        // The ERR for PROTO 2 arrives after PROTO 1 was sent and must not answer it
+        ESCGroup group = simulated(1, false, 700);
+        for (int i = 0; i < 10; i++) {
+            group.set(0, i, false);
+            assertTrue(group.sendConfirmed(CONFIRM_NANOS));
+        }
+        assertEquals(0, group.sentFrames());
+        assertEquals(9, group.lastThrottle());
+    }
+
+    @Test
+    void sequenceNumbersWrapAround() throws Exception {
+        ESCGroup group = scripted();
+        group.set(0, 1, false);
+        int expected = 1;
+        // Past the 16-bit wrap, keeping the window full so retire has to handle it too
+        for (int i = 0; i < WINDOW; i++) {
+            group.send(null, 0);
+        }
+        for (int i = 0; i < 0x10000 + 100; i++) {
+            int seq = nextSeq();
+            assertEquals(expected, seq);
+            expected = (expected + 1) & 0xFFFF;
+            answer(PIOFrame.OK, seq);
+            while (group.inFlight() == WINDOW) {
+                Thread.onSpinWait();
+            }
+            group.send(null, 0);
+        }
+        assertEquals(0, group.overruns());
+        assertEquals(0, group.timeouts());
+        assertEquals(0x10000 + 116, group.sentFrames());
+    }
+
+    @Test
+    void fullWindowIsAnOverrun() throws Exception {
+        ESCGroup group = scripted();
+        group.set(0, 1, false);
+        for (int i = 0; i < WINDOW; i++) {
+            group.send(null, 0);
+        }
+        assertEquals(16, group.inFlight());
+        group.send(null, 0);
+        assertEquals(1, group.overruns());
+        assertEquals(16, group.sentFrames());
+
+        // A reply retires everything up to its sequence number
+        for (int i = 1; i <= 16; i++) {
+            assertEquals(i, nextSeq());
+        }
+        answer(PIOFrame.OK, 4);
+        awaitInFlight(group, 12);
+        group.send(null, 0);
+        assertEquals(1, group.overruns());
+        assertEquals(13, group.inFlight());
+    }
+
+    @Test
+    void unansweredMessagesTimeOut() throws Exception {
+        ESCGroup group = scripted();
+        group.set(0, 1, false);
+        for (int i = 0; i < WINDOW; i++) {
+            group.send(null, 0);
+        }
+        Thread.sleep(150);
+        group.send(null, 0);
+
+        assertEquals(0, group.overruns());
+        assertEquals(1, group.timeouts());
+        assertEquals(17, group.sentFrames());
+        assertEquals(16, group.inFlight());
+    }
+
+    @Test
+    void sendConfirmedWaitsForWindowRoomAndReply() throws Exception {
+        ESCGroup group = scripted();
+        group.set(0, 1, false);
+        for (int i = 0; i < WINDOW; i++) {
+            group.send(null, 0);
+            nextSeq();
+        }
+        group.set(0, 0, false);
+        CompletableFuture<Boolean> confirmed = CompletableFuture.supplyAsync(() -> {
+            try {
+                return group.sendConfirmed(CONFIRM_NANOS);
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        });
+        Thread.sleep(20);
+        assertFalse(confirmed.isDone());
+        assertEquals(16, group.sentFrames());
+
+        answer(PIOFrame.OK, 16);
+        int seq = nextSeq();
+        assertEquals(17, seq);
+        Thread.sleep(20);
+        assertFalse(confirmed.isDone());
+        answer(PIOFrame.OK, seq);
+
+        assertTrue(confirmed.get(1, TimeUnit.SECONDS));
+        assertEquals(0, group.overruns());
+        assertEquals(0, group.inFlight());
+        assertEquals(0, group.lastThrottle());
+    }
+
+    @Test
+    void sendConfirmedReportsRejectionAndSilence() throws Exception {
+        ESCGroup group = scripted();
+        group.set(0, 1, false);
+        CompletableFuture<Boolean> confirmed = CompletableFuture.supplyAsync(() -> {
+            try {
+                return group.sendConfirmed(CONFIRM_NANOS);
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        });
+        answer(PIOFrame.ERR, nextSeq());
+        assertFalse(confirmed.get(1, TimeUnit.SECONDS));
+        assertEquals(1, group.rejectedFrames());
+
+        long start = System.nanoTime();
+        assertFalse(group.sendConfirmed(50_000_000L));
+        assertTrue(System.nanoTime() - start >= 50_000_000L);
+        assertEquals(1, group.inFlight());
+    }
+}
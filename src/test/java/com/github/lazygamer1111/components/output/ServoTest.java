@@ -0,0 +1,70 @@
+package com.github.lazygamer1111.components.output;
+
+import com.github.lazygamer1111.sim.SimHardware;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ServoTest {
+    @TempDir
+    Path root;
+
+    private SysfsPwm pwm;
+    private Servo servo;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        SimHardware.createPwmTree(root);
+        pwm = new SysfsPwm(root, 0, 2);
+        // The vehicle's servo: 0 to 90 degrees over 1 to 2 ms at 50 Hz
+        servo = new Servo(pwm, 0d, 90d, 1d / 1000d, 2d / 1000d, 50);
+    }
+
+    private String dutyCycle() throws IOException {
+        return Files.readString(pwm.path().resolve("duty_cycle"));
+    }
+
+    @Test
+    void configuresPeriodAndEnablesOutput() throws IOException {
+        assertEquals("20000000\n", Files.readString(pwm.path().resolve("period")));
+        assertEquals("1\n", Files.readString(pwm.path().resolve("enable")));
+    }
+
+    @Test
+    void writesDutyCyclePerAngle() throws IOException {
+        double[] angles = {0, 22.5, 45, 67.5, 90, 30.04, 30.06};
+        String[] expected = {"1000000\n", "1250000\n", "1500000\n", "1750000\n", "2000000\n", "1333333\n", "1334444\n"};
+        for (int i = 0; i < angles.length; i++) {
+            servo.setAngle(angles[i]);
+            assertEquals(expected[i], dutyCycle(), "angle " + angles[i]);
+            assertEquals(angles[i], servo.angle(), 0);
+        }
+    }
+
+    @Test
+    void skipsWritesThatWouldNotChangeTheOutput() throws IOException {
+        servo.setAngle(45);
+        long writes = pwm.writes();
+
+        servo.setAngle(45);
+        servo.setAngle(45.04);
+        assertEquals(writes, pwm.writes());
+        assertEquals(2, servo.suppressedWrites());
+
+        servo.setAngle(46);
+        assertEquals(writes + 1, pwm.writes());
+        assertEquals("1511111\n", dutyCycle());
+    }
+
+    @Test
+    void rejectsAnglesOutsideTheRange() {
+        assertThrows(IllegalArgumentException.class, () -> servo.setAngle(-1));
+        assertThrows(IllegalArgumentException.class, () -> servo.setAngle(90.5));
+    }
+}
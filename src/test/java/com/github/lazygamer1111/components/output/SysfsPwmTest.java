@@ -0,0 +1,117 @@
+package com.github.lazygamer1111.components.output;
+
+import com.github.lazygamer1111.sim.SimHardware;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SysfsPwmTest {
+    @TempDir
+    Path root;
+
+    private String read(String channel, String attribute) throws IOException {
+        return Files.readString(root.resolve("pwmchip0").resolve(channel).resolve(attribute));
+    }
+
+    @Test
+    void writesPeriodEnableAndDutyCycle() throws IOException {
+        SimHardware.createPwmTree(root);
+        try (SysfsPwm pwm = new SysfsPwm(root, 0, 2)) {
+            assertEquals(root.resolve("pwmchip0/pwm2"), pwm.path());
+
+            pwm.period(20_000_000);
+            pwm.enable(true);
+            assertEquals("20000000\n", read("pwm2", "period"));
+            assertEquals("1\n", read("pwm2", "enable"));
+
+            pwm.writeDutyCycle(SysfsPwm.format(1_500_000));
+            assertEquals("1500000\n", read("pwm2", "duty_cycle"));
+            pwm.enable(false);
+            assertEquals("0\n", read("pwm2", "enable"));
+        }
+    }
+
+    @Test
+    void shorterValueReplacesLongerOne() throws IOException {
+        SimHardware.createPwmTree(root);
+        try (SysfsPwm pwm = new SysfsPwm(root, 0, 1)) {
+            pwm.writeDutyCycle(SysfsPwm.format(10_000_000));
+            pwm.writeDutyCycle(SysfsPwm.format(999_999));
+            assertEquals("999999\n", read("pwm1", "duty_cycle"));
+            assertEquals(2, pwm.writes());
+        }
+    }
+
+    @Test
+    void formattedBufferCanBeWrittenAgain() throws IOException {
+        SimHardware.createPwmTree(root);
+        try (SysfsPwm pwm = new SysfsPwm(root, 0, 0)) {
+            var high = SysfsPwm.format(2_000_000);
+            var low = SysfsPwm.format(1_000_000);
+            pwm.writeDutyCycle(high);
+            pwm.writeDutyCycle(low);
+            pwm.writeDutyCycle(high);
+            assertEquals("2000000\n", read("pwm0", "duty_cycle"));
+        }
+    }
+
+    @Test
+    void exportsChannelThatIsNotExportedYet() throws Exception {
+        SimHardware.createPwmTree(root);
+        Path chip = root.resolve("pwmchip0");
+        Path channel = chip.resolve("pwm3");
+        for (String attribute : new String[] {"period", "duty_cycle", "enable", "polarity"}) {
+            Files.delete(channel.resolve(attribute));
+        }
+        Files.delete(channel);
+
+        // Stands in for the kernel: creates the channel once its number is written to export
+        Thread kernel = new Thread(() -> {
+            try {
+                while (!Files.readString(chip.resolve("export")).equals("3\n")) {
+                    Thread.sleep(1);
+                }
+                Files.createDirectories(channel);
+                Files.writeString(channel.resolve("duty_cycle"), "0\n");
+            } catch (IOException | InterruptedException e) {
+                throw new RuntimeException(e);
+            }
+        });
+        kernel.start();
+
+        try (SysfsPwm pwm = new SysfsPwm(root, 0, 3)) {
+            assertEquals(channel, pwm.path());
+            pwm.writeDutyCycle(SysfsPwm.format(1_000_000));
+            assertEquals("1000000\n", read("pwm3", "duty_cycle"));
+        }
+        kernel.join();
+    }
+
+    @Test
+    void failsWhenExportDoesNotCreateTheChannel() throws IOException {
+        SimHardware.createPwmTree(root);
+        assertThrows(IOException.class, () -> new SysfsPwm(root, 0, 7));
+        assertFalse(Files.exists(root.resolve("pwmchip0/pwm7/duty_cycle")));
+    }
+
+    @Test
+    void keepsWritingAfterAnInterrupt() throws IOException {
+        SimHardware.createPwmTree(root);
+        try (SysfsPwm pwm = new SysfsPwm(root, 0, 2)) {
+            // The control thread is interrupted at shutdown, before the failsafe angle is written
+            Thread.currentThread().interrupt();
+            try {
+                pwm.writeDutyCycle(SysfsPwm.format(1_200_000));
+            } finally {
+                assertTrue(Thread.interrupted());
+            }
+            pwm.writeDutyCycle(SysfsPwm.format(1_500_000));
+            assertEquals("1500000\n", read("pwm2", "duty_cycle"));
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.github.lazygamer1111.dataTypes;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ControllerSnapshotTest {
+
+    @Test
+    void copiesThePublishedFrame() {
+        ControllerSnapshot shared = new ControllerSnapshot();
+        ControllerSnapshot copy = new ControllerSnapshot();
+        shared.copyTo(copy);
+        assertEquals(0, copy.sequence);
+
+        int[] frame = new int[ControllerSnapshot.CHANNELS];
+        for (int c = 0; c < frame.length; c++) {
+            frame[c] = 1000 + c;
+        }
+        shared.publish(frame, 42, 43);
+        shared.copyTo(copy);
+
+        assertArrayEquals(frame, copy.channels);
+        assertEquals(1, copy.sequence);
+        assertEquals(42, copy.timestamp);
+        assertEquals(43, copy.parsedAt);
+    }
+
+    @Test
+    void readersNeverSeeATornFrame() throws InterruptedException {
+        ControllerSnapshot shared = new ControllerSnapshot();
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicReference<String> failure = new AtomicReference<>();
+        int frames = 2_000_000;
+
+        // Every frame has all channels and the timestamp set to its number, so a mix of two frames shows
+        Thread writer = new Thread(() -> {
+            int[] frame = new int[ControllerSnapshot.CHANNELS];
+            for (int n = 1; n <= frames; n++) {
+                Arrays.fill(frame, n);
+                shared.publish(frame, n, n);
+            }
+            running.set(false);
+        });
+
+        Thread[] readers = new Thread[2];
+        long[] reads = new long[readers.length];
+        for (int r = 0; r < readers.length; r++) {
+            int index = r;
+            readers[r] = new Thread(() -> {
+                ControllerSnapshot copy = new ControllerSnapshot();
+                long lastSequence = 0;
+                while (running.get() && failure.get() == null) {
+                    shared.copyTo(copy);
+                    reads[index]++;
+                    for (int c = 0; c < ControllerSnapshot.CHANNELS; c++) {
+                        if (copy.channels[c] != copy.timestamp) {
+                            failure.set("Torn frame: channel " + c + " is " + copy.channels[c] + " in frame " + copy.timestamp);
+                        }
+                    }
+                    if (copy.sequence != copy.timestamp || copy.parsedAt != copy.timestamp) {
+                        failure.set("Frame " + copy.timestamp + " has sequence " + copy.sequence + " and parsedAt " + copy.parsedAt);
+                    }
+                    if (copy.sequence < lastSequence) {
+                        failure.set("Sequence went back from " + lastSequence + " to " + copy.sequence);
+                    }
+                    lastSequence = copy.sequence;
+                }
+            });
+        }
+
+        for (Thread reader : readers) {
+            reader.start();
+        }
+        writer.start();
+        writer.join();
+        for (Thread reader : readers) {
+            reader.join();
+        }
+
+        assertNull(failure.get(), failure.get());
+        for (long count : reads) {
+            assertTrue(count > 0);
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.github.lazygamer1111.dataTypes;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PIOFrameTest {
+
+    @Test
+    void crcMatchesReferenceCheckValue() {
+        byte[] data = "123456789".getBytes(StandardCharsets.US_ASCII);
+        // CRC-8/SMBUS (poly 0x07, init 0) check value
+        assertEquals(0xF4, CRC8.compute(data, 0, data.length));
+    }
+
+    @Test
+    void crcOfRangeIgnoresSurroundingBytes() {
+        byte[] data = {(byte) 0xFF, 1, 2, 3, (byte) 0xFF};
+        assertEquals(CRC8.compute(new byte[] {1, 2, 3}, 0, 3), CRC8.compute(data, 1, 3));
+        assertEquals(0, CRC8.compute(data, 0, 0));
+    }
+
+    @Test
+    void frameRoundTrip() {
+        byte[] buf = new byte[PIOFrame.LENGTH + 3];
+        PIOFrame.encode(buf, 3, PIOFrame.THROTTLE, 7, 0xBEEF, PIOFrame.FLAG_TELEMETRY, 0xFFFE);
+
+        assertEquals(PIOFrame.SYNC, buf[3]);
+        PIOFrame frame = new PIOFrame();
+        assertTrue(frame.decode(buf, 3));
+        assertEquals(PIOFrame.THROTTLE, frame.command);
+        assertEquals(7, frame.id);
+        assertEquals(0xBEEF, frame.value);
+        assertEquals(0xFFFE, frame.seq);
+        assertTrue(frame.telemetry());
+    }
+
+    @Test
+    void frameWithBadCrcOrHeaderIsRejectedAndLeavesFields() {
+        byte[] buf = new byte[PIOFrame.LENGTH];
+        PIOFrame frame = new PIOFrame();
+        PIOFrame.encode(buf, 0, PIOFrame.OK, 1, 48, 0, 5);
+        assertTrue(frame.decode(buf, 0));
+
+        PIOFrame.encode(buf, 0, PIOFrame.ERR, 2, 99, 0, 6);
+        buf[4] ^= 0x01;
+        assertFalse(frame.decode(buf, 0));
+        assertEquals(PIOFrame.OK, frame.command);
+        assertEquals(5, frame.seq);
+
+        PIOFrame.encode(buf, 0, PIOFrame.ERR, 2, 99, 0, 6);
+        buf[0] = 0;
+        assertFalse(frame.decode(buf, 0));
+        PIOFrame.encode(buf, 0, PIOFrame.ERR, 2, 99, 0, 6);
+        buf[1] = PIOFrame.BATCH_VERSION;
+        assertFalse(frame.decode(buf, 0));
+    }
+
+    @Test
+    void everySingleBitFlipIsDetected() {
+        byte[] buf = new byte[PIOFrame.LENGTH];
+        PIOFrame frame = new PIOFrame();
+        for (int bit = 0; bit < PIOFrame.LENGTH * 8; bit++) {
+            PIOFrame.encode(buf, 0, PIOFrame.THROTTLE, 3, 1234, 0, 42);
+            buf[bit / 8] ^= (byte) (1 << (bit % 8));
+            assertFalse(frame.decode(buf, 0), "bit " + bit);
+        }
+    }
+
+    @Test
+    void batchRoundTrip() {
+        int[] ids = {0, 1, 2};
+        int[] values = {0, 1047, 2047};
+        int[] flags = {PIOFrame.FLAG_TELEMETRY, 0, 0};
+        byte[] buf = new byte[1 + PIOFrame.batchLength(PIOFrame.MAX_BATCH)];
+
+        int length = PIOFrame.encodeBatch(buf, 1, ids, values, flags, ids.length, 300);
+        assertEquals(PIOFrame.batchLength(3), length);
+
+        int[] outIds = new int[PIOFrame.MAX_BATCH];
+        int[] outValues = new int[PIOFrame.MAX_BATCH];
+        int[] outFlags = new int[PIOFrame.MAX_BATCH];
+        PIOFrame frame = new PIOFrame();
+        assertTrue(frame.decodeBatch(buf, 1, outIds, outValues, outFlags));
+        assertEquals(PIOFrame.BATCH, frame.command);
+        assertEquals(3, frame.value);
+        assertEquals(300, frame.seq);
+        for (int i = 0; i < ids.length; i++) {
+            assertEquals(ids[i], outIds[i]);
+            assertEquals(values[i], outValues[i]);
+            assertEquals(flags[i], outFlags[i]);
+        }
+
+        buf[1 + length - 2] ^= 0x10;
+        assertFalse(frame.decodeBatch(buf, 1, outIds, outValues, outFlags));
+    }
+
+    @Test
+    void batchWithTooManyEntriesIsRejected() {
+        byte[] buf = new byte[PIOFrame.batchLength(PIOFrame.MAX_BATCH) + 8];
+        int[] none = new int[PIOFrame.MAX_BATCH + 1];
+        PIOFrame.encodeBatch(buf, 0, none, none, none, PIOFrame.MAX_BATCH + 1, 1);
+        assertFalse(new PIOFrame().decodeBatch(buf, 0, none, none, none));
+    }
+}
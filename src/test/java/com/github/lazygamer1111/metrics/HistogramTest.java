@@ -0,0 +1,102 @@
+package com.github.lazygamer1111.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HistogramTest {
+
+    /** Every small value, both sides of every power of two, the top of the range and a random spread */
+    private static List<Long> values() {
+        List<Long> values = new ArrayList<>();
+        for (long v = 0; v <= 4096; v++) {
+            values.add(v);
+        }
+        for (int exponent = 12; exponent < 63; exponent++) {
+            long power = 1L << exponent;
+            values.add(power - 1);
+            values.add(power);
+            values.add(power + 1);
+            values.add(power + (power >>> 3) - 1);
+            values.add(power + (power >>> 3));
+        }
+        values.add(Long.MAX_VALUE - 1);
+        values.add(Long.MAX_VALUE);
+        Random random = new Random(42);
+        for (int i = 0; i < 10_000; i++) {
+            values.add((random.nextLong() & Long.MAX_VALUE) >>> random.nextInt(63));
+        }
+        return values;
+    }
+
+    @Test
+    void everyValueFallsWithinItsBucket() {
+        for (long value : values()) {
+            int bucket = Histogram.bucketOf(value);
+            assertTrue(bucket >= 0 && bucket < Histogram.BUCKETS, "bucket " + bucket + " of " + value);
+            assertTrue(value <= Histogram.upperBound(bucket), value + " above bucket " + bucket);
+            if (bucket > 0) {
+                assertTrue(value > Histogram.upperBound(bucket - 1), value + " below bucket " + bucket);
+            }
+        }
+    }
+
+    @Test
+    void bucketsAreContiguousUpToLongMaxValue() {
+        assertEquals(0, Histogram.upperBound(0));
+        for (int bucket = 1; bucket < Histogram.BUCKETS; bucket++) {
+            long lower = Histogram.upperBound(bucket - 1) + 1;
+            assertTrue(lower > 0, "bucket " + bucket + " overflows");
+            assertEquals(bucket, Histogram.bucketOf(lower));
+            assertEquals(bucket, Histogram.bucketOf(Histogram.upperBound(bucket)));
+        }
+        assertEquals(Long.MAX_VALUE, Histogram.upperBound(Histogram.BUCKETS - 1));
+        assertEquals(Histogram.BUCKETS - 1, Histogram.bucketOf(Long.MAX_VALUE));
+    }
+
+    @Test
+    void reportedValueIsWithinTwelveAndAHalfPercent() {
+        for (long value : values()) {
+            long reported = Histogram.upperBound(Histogram.bucketOf(value));
+            // reported - value <= value / 8, without rounding
+            assertTrue((reported - value) * Histogram.SUB_BUCKETS <= value, value + " reported as " + reported);
+        }
+    }
+
+    @Test
+    void percentileIsTheUpperBoundOfItsBucket() {
+        Histogram histogram = new Histogram();
+        assertEquals(0, histogram.percentile(0.5));
+        for (long v = 1; v <= 1000; v++) {
+            histogram.record(v);
+        }
+        assertEquals(1000, histogram.count());
+        assertEquals(500_500, histogram.sum());
+
+        assertEquals(Histogram.upperBound(Histogram.bucketOf(500)), histogram.percentile(0.5));
+        long p99 = histogram.percentile(0.99);
+        assertTrue(p99 >= 990 && (p99 - 990) * Histogram.SUB_BUCKETS <= 990, "p99 " + p99);
+        assertEquals(1, histogram.percentile(0));
+        // Never above the largest recorded value, though its bucket reaches 1023
+        assertEquals(1000, histogram.percentile(1));
+        assertEquals(1000, histogram.max());
+    }
+
+    @Test
+    void percentileNearLongMaxValue() {
+        Histogram histogram = new Histogram();
+        histogram.record(-5);
+        histogram.record(Long.MAX_VALUE - 1);
+        histogram.record(Long.MAX_VALUE);
+
+        assertEquals(1, histogram.bucketCount(0));
+        assertEquals(2, histogram.bucketCount(Histogram.BUCKETS - 1));
+        assertEquals(0, histogram.percentile(0.2));
+        assertEquals(Long.MAX_VALUE, histogram.percentile(0.5));
+        assertEquals(Long.MAX_VALUE, histogram.percentile(1));
+    }
+}
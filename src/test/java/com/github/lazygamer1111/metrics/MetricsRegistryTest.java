@@ -0,0 +1,122 @@
+package com.github.lazygamer1111.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MetricsRegistryTest {
+    private static final long MICRO = 1_000L;
+    private static final long SECOND = 1_000_000_000L;
+
+    /** Bucket lines of one histogram, in order, as {bound in ns or -1 for +Inf, count} */
+    private static List<long[]> buckets(String scrape, String name) {
+        List<long[]> buckets = new ArrayList<>();
+        String prefix = name + "_bucket{le=\"";
+        for (String line : scrape.split("\n")) {
+            if (line.startsWith(prefix)) {
+                String le = line.substring(prefix.length(), line.indexOf('"', prefix.length()));
+                long bound = le.equals("+Inf") ? -1 : Math.round(Double.parseDouble(le) * 1e9);
+                buckets.add(new long[] {bound, Long.parseLong(line.substring(line.lastIndexOf(' ') + 1))});
+            }
+        }
+        return buckets;
+    }
+
+    private static long value(String scrape, String series) {
+        for (String line : scrape.split("\n")) {
+            if (line.startsWith(series + " ")) {
+                return Long.parseLong(line.substring(series.length() + 1));
+            }
+        }
+        throw new AssertionError(series + " not in scrape");
+    }
+
+    @Test
+    void histogramBucketsAreCumulativeUpToCount() {
+        MetricsRegistry registry = new MetricsRegistry("test_");
+        Histogram latency = registry.timer("latency_seconds", "Latency", null);
+        long[] values = {0, 500, 1023, 1500, 20 * MICRO, 20 * MICRO, 3 * SECOND, 60 * SECOND};
+        for (long value : values) {
+            latency.record(value);
+        }
+
+        String scrape = registry.scrape();
+        assertTrue(scrape.contains("# TYPE test_latency_seconds histogram\n"));
+        List<long[]> buckets = buckets(scrape, "test_latency_seconds");
+        assertEquals(1L << 10, buckets.get(0)[0]);
+        assertEquals(-1, buckets.get(buckets.size() - 1)[0]);
+
+        long previousBound = 0;
+        long previousCount = 0;
+        for (long[] bucket : buckets) {
+            assertTrue(bucket[1] >= previousCount, "bucket le " + bucket[0] + " not cumulative");
+            if (bucket[0] != -1) {
+                assertTrue(bucket[0] > previousBound);
+                previousBound = bucket[0];
+                long below = 0;
+                for (long value : values) {
+                    if (value < bucket[0]) {
+                        below++;
+                    }
+                }
+                assertEquals(below, bucket[1], "bucket le " + bucket[0]);
+            }
+            previousCount = bucket[1];
+        }
+        // 60 s is past the last bound and only counted in +Inf
+        assertEquals(values.length - 1, buckets.get(buckets.size() - 2)[1]);
+        assertEquals(values.length, previousCount);
+        assertEquals(values.length, value(scrape, "test_latency_seconds_count"));
+        assertTrue(scrape.contains("test_latency_seconds_sum 63.000043023\n"));
+    }
+
+    @Test
+    void infBucketMatchesCountWhileRecording() throws InterruptedException {
+        MetricsRegistry registry = new MetricsRegistry("test_");
+        Histogram latency = registry.timer("latency_seconds", "Latency", "task=\"IOJob\"");
+        AtomicBoolean stop = new AtomicBoolean();
+        Thread writer = new Thread(() -> {
+            long value = 1;
+            while (!stop.get()) {
+                latency.record(value);
+                value = value * 31 % (100 * SECOND);
+            }
+        });
+        writer.start();
+        try {
+            String inf = "test_latency_seconds_bucket{task=\"IOJob\",le=\"+Inf\"}";
+            String count = "test_latency_seconds_count{task=\"IOJob\"}";
+            for (int i = 0; i < 200; i++) {
+                String scrape = registry.scrape();
+                assertEquals(value(scrape, inf), value(scrape, count));
+            }
+        } finally {
+            stop.set(true);
+            writer.join();
+        }
+    }
+
+    @Test
+    void rendersCountersAndGauges() {
+        MetricsRegistry registry = new MetricsRegistry("test_");
+        LongAdder frames = registry.counter("frames_total", "Frames", "esc=\"0\"");
+        registry.counter("frames_total", "Frames", "esc=\"1\"", () -> 7);
+        registry.gauge("queue_depth", "Queue depth", null, () -> 2.5);
+        frames.add(3);
+
+        String scrape = registry.scrape();
+        assertEquals("# HELP test_frames_total Frames\n"
+                + "# TYPE test_frames_total counter\n"
+                + "test_frames_total{esc=\"0\"} 3\n"
+                + "test_frames_total{esc=\"1\"} 7\n"
+                + "# HELP test_queue_depth Queue depth\n"
+                + "# TYPE test_queue_depth gauge\n"
+                + "test_queue_depth 2.5\n", scrape);
+        assertThrows(IllegalArgumentException.class, () -> registry.gauge("frames_total", "Frames", null, () -> 0));
+    }
+}
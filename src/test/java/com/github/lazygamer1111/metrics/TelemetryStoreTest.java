@@ -0,0 +1,115 @@
+package com.github.lazygamer1111.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TelemetryStoreTest {
+
+    private static int[] sample(int value) {
+        int[] values = new int[TelemetryStore.FIELDS];
+        Arrays.fill(values, value);
+        return values;
+    }
+
+    @Test
+    void rangeReturnsEntriesInTheTimeWindow() {
+        TelemetryStore store = new TelemetryStore(16, 16, 16);
+        for (int i = 0; i < 10; i++) {
+            store.append(1000 + i, sample(i));
+        }
+        long[] times = new long[16];
+        int[] avg = new int[16];
+
+        int n = store.raw().range(1003, 1007, TelemetryStore.VOLTAGE, times, null, null, avg);
+        assertEquals(4, n);
+        for (int i = 0; i < n; i++) {
+            assertEquals(1003 + i, times[i]);
+            assertEquals(3 + i, avg[i]);
+        }
+    }
+
+    @Test
+    void rangeOnlyReturnsRetainedEntries() {
+        TelemetryStore store = new TelemetryStore(8, 8, 8);
+        for (int i = 0; i < 20; i++) {
+            store.append(i, sample(i));
+        }
+        long[] times = new long[32];
+        int n = store.raw().range(0, 100, TelemetryStore.ERPM, times, null, null, null);
+
+        // The oldest slot is left out, it is the next one the writer overwrites
+        assertEquals(store.raw().capacity() - 1, n);
+        assertEquals(20 - n, times[0]);
+        assertEquals(19, times[n - 1]);
+    }
+
+    @Test
+    void aggregatedTiersKeepMinMaxAvgPerInterval() {
+        TelemetryStore store = new TelemetryStore(64, 64, 64);
+        // Two samples in the first 100 ms interval, one in the next, which closes the first
+        store.append(10_000_000L, sample(4));
+        store.append(90_000_000L, sample(8));
+        store.append(150_000_000L, sample(1));
+
+        int[] min = new int[4];
+        int[] max = new int[4];
+        int[] avg = new int[4];
+        long[] times = new long[4];
+        int n = store.fine().range(0, Long.MAX_VALUE, TelemetryStore.CURRENT, times, min, max, avg);
+        assertEquals(1, n);
+        assertEquals(0, times[0]);
+        assertEquals(4, min[0]);
+        assertEquals(8, max[0]);
+        assertEquals(6, avg[0]);
+    }
+
+    @Test
+    void concurrentReaderNeverSeesAnOverwrittenEntry() throws InterruptedException {
+        // A small ring so the writer laps the reader constantly
+        TelemetryStore store = new TelemetryStore(16, 16, 16);
+        TelemetryStore.Series raw = store.raw();
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicReference<String> failure = new AtomicReference<>();
+        int samples = 3_000_000;
+
+        // Every sample has all columns set to its timestamp, so an entry mixing two samples shows
+        Thread writer = new Thread(() -> {
+            int[] values = new int[TelemetryStore.FIELDS];
+            for (int t = 1; t <= samples; t++) {
+                Arrays.fill(values, t);
+                store.append(t, values);
+            }
+            running.set(false);
+        });
+
+        Thread reader = new Thread(() -> {
+            long[] times = new long[raw.capacity()];
+            int[][] columns = new int[TelemetryStore.FIELDS][raw.capacity()];
+            while (running.get() && failure.get() == null) {
+                int n = 0;
+                for (int f = 0; f < TelemetryStore.FIELDS && failure.get() == null; f++) {
+                    n = raw.range(0, Long.MAX_VALUE, f, times, null, null, columns[f]);
+                    for (int i = 0; i < n; i++) {
+                        if (columns[f][i] != times[i]) {
+                            failure.set("Entry at " + times[i] + " has " + columns[f][i] + " in column " + f);
+                        }
+                        if (i > 0 && times[i] != times[i - 1] + 1) {
+                            failure.set("Entries " + times[i - 1] + " and " + times[i] + " are not consecutive");
+                        }
+                    }
+                }
+            }
+        });
+
+        reader.start();
+        writer.start();
+        writer.join();
+        reader.join();
+        assertNull(failure.get(), failure.get());
+    }
+}
@@ -0,0 +1,135 @@
+package com.github.lazygamer1111.mixer;
+
+import com.github.lazygamer1111.dataTypes.ControllerSnapshot;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CurveTest {
+
+    private static void assertMonotone(int[] table) {
+        for (int i = 1; i < table.length; i++) {
+            assertTrue(table[i] >= table[i - 1], "table falls at input " + (Curve.MIN + i) + ": " + table[i - 1] + " -> " + table[i]);
+        }
+    }
+
+    @Test
+    void identityMapsEveryInputToItself() {
+        Curve curve = new Curve(0, 0, 1, null);
+        assertTrue(curve.isIdentity());
+        int[] table = curve.bake();
+        assertEquals(Curve.TABLE_SIZE, table.length);
+        for (int i = 0; i < table.length; i++) {
+            assertEquals(Curve.MIN + i, table[i]);
+        }
+    }
+
+    @Test
+    void expoIsMonotoneAndKeepsEndpoints() {
+        for (double expo : new double[] {0.25, 0.5, 1}) {
+            int[] table = new Curve(0, expo, 1, null).bake();
+            assertMonotone(table);
+            assertEquals(Curve.MIN, table[0]);
+            assertEquals(Curve.CENTER, table[Curve.CENTER - Curve.MIN]);
+            assertEquals(Curve.MAX, table[Curve.TABLE_SIZE - 1]);
+            // Softer around the center than linear
+            assertTrue(table[Curve.CENTER - Curve.MIN + 100] < Curve.CENTER + 100);
+        }
+    }
+
+    @Test
+    void deadbandZeroesTheCenterAndKeepsEndpoints() {
+        int[] table = new Curve(50, 0, 1, null).bake();
+        assertMonotone(table);
+        for (int in = Curve.CENTER - 50; in <= Curve.CENTER + 50; in++) {
+            assertEquals(Curve.CENTER, table[in - Curve.MIN]);
+        }
+        assertTrue(table[Curve.CENTER + 51 - Curve.MIN] > Curve.CENTER);
+        assertEquals(Curve.MIN, table[0]);
+        assertEquals(Curve.MAX, table[Curve.TABLE_SIZE - 1]);
+    }
+
+    @Test
+    void rateScalesTheEndpoints() {
+        int[] table = new Curve(0, 0, 0.5, null).bake();
+        assertMonotone(table);
+        assertEquals(Curve.CENTER - 250, table[0]);
+        assertEquals(Curve.CENTER + 250, table[Curve.TABLE_SIZE - 1]);
+    }
+
+    @Test
+    void pointsAreHitAndNeverOvershot() {
+        double[] points = {1000, 1100, 1100, 1800, 2000};
+        int[] table = new Curve(0, 0, 1, points).bake();
+        assertMonotone(table);
+        for (int p = 0; p < points.length; p++) {
+            int in = Curve.MIN + p * (Curve.MAX - Curve.MIN) / (points.length - 1);
+            assertEquals((int) points[p], table[in - Curve.MIN]);
+        }
+        // The flat segment stays flat instead of bulging between equal points
+        for (int in = 1250; in <= 1500; in++) {
+            assertEquals(1100, table[in - Curve.MIN]);
+        }
+    }
+
+    @Test
+    void outputIsClampedToTheChannelRange() {
+        int[] table = new Curve(0, 0, 1, new double[] {800, 2300}).bake();
+        assertMonotone(table);
+        for (int value : table) {
+            assertTrue(value >= Curve.MIN && value <= Curve.MAX, "out of range: " + value);
+        }
+        assertEquals(Curve.MIN, table[0]);
+        assertEquals(Curve.MAX, table[Curve.TABLE_SIZE - 1]);
+    }
+
+    @Test
+    void rejectsOutOfRangeParameters() {
+        assertThrows(IllegalArgumentException.class, () -> new Curve(-1, 0, 1, null));
+        assertThrows(IllegalArgumentException.class, () -> new Curve(500, 0, 1, null));
+        assertThrows(IllegalArgumentException.class, () -> new Curve(0, 1.5, 1, null));
+        assertThrows(IllegalArgumentException.class, () -> new Curve(0, 0, -0.1, null));
+        assertThrows(IllegalArgumentException.class, () -> new Curve(0, 0, 1, new double[] {1500}));
+    }
+
+    @Test
+    void channelCurvesClampInputsAndLeaveOtherChannelsAlone() {
+        ChannelCurves curves = new ChannelCurves();
+        Curve[] set = new Curve[ControllerSnapshot.CHANNELS];
+        set[2] = new Curve(0, 0.5, 1, null);
+        set[3] = new Curve(0, 0, 1, null);
+        curves.update(set);
+        assertTrue(curves.shaped(2));
+        // An identity curve is not baked
+        assertFalse(curves.shaped(3));
+
+        int[] channels = new int[ControllerSnapshot.CHANNELS];
+        channels[2] = 900;
+        channels[3] = 900;
+        curves.apply(channels);
+        assertEquals(Curve.MIN, channels[2]);
+        assertEquals(900, channels[3]);
+
+        channels[2] = 2100;
+        curves.apply(channels);
+        assertEquals(Curve.MAX, channels[2]);
+    }
+
+    @Test
+    void channelCurvesUpdateReplacesTheWholeSet() {
+        ChannelCurves curves = new ChannelCurves();
+        Curve[] set = new Curve[ControllerSnapshot.CHANNELS];
+        set[0] = new Curve(0, 0, 0.5, null);
+        curves.update(set);
+        assertTrue(curves.shaped(0));
+
+        curves.update(new Curve[ControllerSnapshot.CHANNELS]);
+        assertFalse(curves.shaped(0));
+        int[] channels = new int[ControllerSnapshot.CHANNELS];
+        channels[0] = 2000;
+        curves.apply(channels);
+        assertEquals(2000, channels[0]);
+
+        assertThrows(IllegalArgumentException.class, () -> curves.update(new Curve[1]));
+    }
+}
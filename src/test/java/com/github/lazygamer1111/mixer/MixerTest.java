@@ -0,0 +1,143 @@
+package com.github.lazygamer1111.mixer;
+
+import com.github.lazygamer1111.dataTypes.ControllerSnapshot;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MixerTest {
+    private static final int[] SWITCH_POSITIONS = {1000, 1500, 2000};
+
+    private static int[] channels(int ch2, int ch8, int ch9) {
+        int[] channels = new int[ControllerSnapshot.CHANNELS];
+        channels[2] = ch2;
+        channels[8] = ch8;
+        channels[9] = ch9;
+        return channels;
+    }
+
+    private static Mixer single(String rules) {
+        return new Mixer(new String[] {"out"}, new String[] {rules}, new double[] {-10_000}, new double[] {10_000});
+    }
+
+    @Test
+    void defaultEscMatchesHardcodedMapping() {
+        Mixer mixer = Mixer.defaults();
+        int esc = mixer.output("esc");
+        for (int ch2 = 1000; ch2 <= 2000; ch2++) {
+            for (int ch8 : SWITCH_POSITIONS) {
+                for (int ch9 : SWITCH_POSITIONS) {
+                    int[] channels = channels(ch2, ch8, ch9);
+                    int rule = mixer.rule(esc, channels);
+
+                    // The branches PIOJob had before the mixer
+                    int throttle = ch2 - 1000;
+                    int expected;
+                    boolean telemetry = false;
+                    if (ch9 == 1000) {
+                        expected = 0;
+                        telemetry = true;
+                    } else if (ch8 == 2000) {
+                        expected = throttle;
+                    } else if (ch8 == 1000) {
+                        expected = throttle + 1024;
+                    } else {
+                        expected = 0;
+                    }
+
+                    assertTrue(rule >= 0, "no rule for ch2=" + ch2 + " ch8=" + ch8 + " ch9=" + ch9);
+                    assertEquals(expected, (int) Math.round(mixer.value(esc, rule, channels)));
+                    assertEquals(telemetry, (mixer.flags(rule) & Mixer.FLAG_TELEMETRY) != 0);
+                }
+            }
+        }
+    }
+
+    @Test
+    void defaultEscLeavesUnknownSwitchPositionAlone() {
+        Mixer mixer = Mixer.defaults();
+        assertEquals(-1, mixer.rule(mixer.output("esc"), channels(1500, 1200, 2000)));
+    }
+
+    @Test
+    void defaultServoMatchesHardcodedMapping() {
+        Mixer mixer = Mixer.defaults();
+        int servo = mixer.output("servo");
+        assertEquals(-1, mixer.rule(servo, channels(1000, 1500, 1500)));
+        for (int ch2 = 1001; ch2 <= 2000; ch2++) {
+            int[] channels = channels(ch2, 1500, 1500);
+            int rule = mixer.rule(servo, channels);
+            // IOJob before the mixer: 90 - (ch2 - 1000) * 90 / 1000, only if positive
+            double expected = 90 - (ch2 - 1000) * 90d / 1000;
+            assertTrue(rule >= 0);
+            assertEquals(expected, mixer.value(servo, rule, channels), 1e-9);
+        }
+    }
+
+    @Test
+    void parsesConditionsTermsAndFlags() {
+        Mixer mixer = single("ch1 >= 1500 & ch3 != 1000 -> 2*ch1 - ch3*0.5 + 7 telemetry; ch1 < 1500 -> -ch1; 42");
+        int[] channels = new int[ControllerSnapshot.CHANNELS];
+
+        channels[1] = 1600;
+        channels[3] = 1200;
+        int rule = mixer.rule(0, channels);
+        assertEquals(2 * 1600 - 0.5 * 1200 + 7, mixer.value(0, rule, channels), 1e-9);
+        assertEquals(Mixer.FLAG_TELEMETRY, mixer.flags(rule));
+
+        channels[1] = 1400;
+        rule = mixer.rule(0, channels);
+        assertEquals(-1400, mixer.value(0, rule, channels), 1e-9);
+        assertEquals(0, mixer.flags(rule));
+
+        // Neither condition holds, so the rule without one applies
+        channels[1] = 1600;
+        channels[3] = 1000;
+        rule = mixer.rule(0, channels);
+        assertEquals(42, mixer.value(0, rule, channels), 1e-9);
+    }
+
+    @Test
+    void firstMatchingRuleWins() {
+        Mixer mixer = single("ch0 > 1000 -> 1; ch0 > 500 -> 2");
+        int[] channels = new int[ControllerSnapshot.CHANNELS];
+        channels[0] = 1500;
+        assertEquals(1, mixer.value(0, mixer.rule(0, channels), channels), 1e-9);
+        channels[0] = 800;
+        assertEquals(2, mixer.value(0, mixer.rule(0, channels), channels), 1e-9);
+        channels[0] = 100;
+        assertEquals(-1, mixer.rule(0, channels));
+    }
+
+    @Test
+    void valueIsClampedToOutputRange() {
+        Mixer mixer = new Mixer(new String[] {"out"}, new String[] {"ch0"}, new double[] {10}, new double[] {20});
+        int[] channels = new int[ControllerSnapshot.CHANNELS];
+        channels[0] = 5;
+        assertEquals(10, mixer.value(0, mixer.rule(0, channels), channels), 1e-9);
+        channels[0] = 15;
+        assertEquals(15, mixer.value(0, mixer.rule(0, channels), channels), 1e-9);
+        channels[0] = 25;
+        assertEquals(20, mixer.value(0, mixer.rule(0, channels), channels), 1e-9);
+    }
+
+    @Test
+    void rejectsBadRules() {
+        assertThrows(IllegalArgumentException.class, () -> single("ch14"));
+        assertThrows(IllegalArgumentException.class, () -> single("x2 > 1000 -> 1"));
+        assertThrows(IllegalArgumentException.class, () -> single("ch2 ~ 1000 -> 1"));
+        assertThrows(IllegalArgumentException.class, () -> single("ch2 > 1000 ->"));
+        assertThrows(IllegalArgumentException.class, () -> single("ch2 > abc -> 1"));
+        assertThrows(IllegalArgumentException.class, () -> new Mixer(new String[] {"a", "b"}, new String[] {"1"},
+                new double[] {0, 0}, new double[] {1, 1}));
+    }
+
+    @Test
+    void looksUpOutputsByName() {
+        Mixer mixer = Mixer.defaults();
+        assertEquals(2, mixer.outputs());
+        assertEquals("servo", mixer.name(mixer.output("servo")));
+        assertEquals("esc", mixer.name(mixer.output("esc")));
+        assertEquals(-1, mixer.output("esc0"));
+    }
+}
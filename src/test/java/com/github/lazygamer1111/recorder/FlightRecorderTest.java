@@ -0,0 +1,150 @@
+package com.github.lazygamer1111.recorder;
+
+import com.github.lazygamer1111.components.output.Servo;
+import com.github.lazygamer1111.components.output.SysfsPwm;
+import com.github.lazygamer1111.dataTypes.CRC8;
+import com.github.lazygamer1111.dataTypes.ControllerSnapshot;
+import com.github.lazygamer1111.dataTypes.KissTelemetry;
+import com.github.lazygamer1111.sim.SimHardware;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FlightRecorderTest {
+    private static final int RECORDS_PER_SEGMENT = 10;
+    private static final int RECORDS = 25;
+    private static final long MILLI = 1_000_000L;
+
+    @TempDir
+    Path dir;
+
+    private static void awaitSegments(FlightRecorder recorder, long expected) throws InterruptedException {
+        long deadline = System.nanoTime() + 2_000 * MILLI;
+        while (recorder.segments() < expected && System.nanoTime() - deadline < 0) {
+            Thread.sleep(1);
+        }
+        assertTrue(recorder.segments() >= expected, "spare segment not ready");
+        // Counted just before it is handed over as the spare
+        Thread.sleep(10);
+    }
+
+    private static byte[] kissFrame(int temperature, int voltage, int current, int consumption, int erpmHundreds) {
+        byte[] frame = {(byte) temperature, (byte) (voltage >> 8), (byte) voltage, (byte) (current >> 8), (byte) current,
+                (byte) (consumption >> 8), (byte) consumption, (byte) (erpmHundreds >> 8), (byte) erpmHundreds, 0};
+        frame[9] = (byte) CRC8.compute(frame, 0, 9);
+        return frame;
+    }
+
+    private List<Path> segmentFiles() throws IOException {
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir.resolve("log"), "flight-*.fdr")) {
+            stream.forEach(files::add);
+        }
+        files.sort(null);
+        return files;
+    }
+
+    @Test
+    void recordsRotateAndExportToCsv() throws Exception {
+        SimHardware.createPwmTree(dir.resolve("pwm"));
+        Servo servo = new Servo(new SysfsPwm(dir.resolve("pwm"), 0, 2), 0d, 90d, 1d / 1000d, 2d / 1000d, 50);
+        servo.setAngle(30);
+        KissTelemetry telemetry = new KissTelemetry();
+        ControllerSnapshot frame = new ControllerSnapshot();
+        int[] channels = new int[ControllerSnapshot.CHANNELS];
+        channels[13] = 2000;
+
+        long segmentBytes = FlightRecorder.HEADER_LENGTH + (long) RECORDS_PER_SEGMENT * FlightRecorder.RECORD_LENGTH;
+        FlightRecorder recorder = new FlightRecorder(dir.resolve("log"), segmentBytes, 10, servo, telemetry);
+        long start = System.nanoTime();
+        for (int i = 0; i < RECORDS; i++) {
+            if (i > 0 && i % RECORDS_PER_SEGMENT == 0) {
+                // The background thread prepares the next segment; without it the record is dropped
+                awaitSegments(recorder, i / RECORDS_PER_SEGMENT + 1);
+            }
+            if (i == 1) {
+                // Record 0 is written before any telemetry arrived
+                telemetry.publish(kissFrame(40, 1180, 250, 12, 30), 0, start - 5 * MILLI);
+            }
+            long tick = start + i * MILLI;
+            channels[2] = 1000 + i;
+            frame.publish(channels, tick - 2 * MILLI);
+            int flags = (i % 3 == 0 ? FlightRecorder.FLAG_FAILSAFE : 0) | (i % 5 == 0 ? FlightRecorder.FLAG_TELEMETRY : 0);
+            recorder.record(frame, i * 10, flags, tick);
+        }
+        assertEquals(RECORDS, recorder.records());
+        assertEquals(0, recorder.dropped());
+        recorder.close();
+
+        // The unused spare segment is deleted on close
+        List<Path> files = segmentFiles();
+        assertEquals(3, files.size());
+
+        StringWriter csv = new StringWriter();
+        FlightLogExporter.writeHeader(csv);
+        int[] counts = new int[files.size()];
+        for (int f = 0; f < files.size(); f++) {
+            counts[f] = FlightLogExporter.export(files.get(f), csv);
+        }
+        assertArrayEquals(new int[] {10, 10, 5}, counts);
+
+        String[] lines = csv.toString().split("\n");
+        assertEquals(RECORDS + 1, lines.length);
+        String[] header = lines[0].split(",", -1);
+        assertEquals(3 + ControllerSnapshot.CHANNELS + 10, header.length);
+        assertEquals("time_ms", header[0]);
+        assertEquals("ch0", header[3]);
+        assertEquals("throttle", header[17]);
+        assertEquals("erpm", header[26]);
+
+        long now = System.currentTimeMillis();
+        long previousTime = 0;
+        for (int i = 0; i < RECORDS; i++) {
+            String[] fields = lines[i + 1].split(",", -1);
+            assertEquals(header.length, fields.length, "record " + i);
+
+            long time = Long.parseLong(fields[0]);
+            assertTrue(Math.abs(now - time) < 60_000, "record " + i + " time " + time);
+            assertTrue(time >= previousTime);
+            previousTime = time;
+            assertEquals(String.valueOf(i + 1), fields[1]);
+            assertEquals(2.0, Double.parseDouble(fields[2]), 1e-9);
+            assertEquals("0", fields[3]);
+            assertEquals(String.valueOf(1000 + i), fields[5]);
+            assertEquals("2000", fields[16]);
+            assertEquals(String.valueOf(i * 10), fields[17]);
+            assertEquals(i % 5 == 0 ? "1" : "0", fields[18], "telemetry_request of record " + i);
+            assertEquals(i % 3 == 0 ? "1" : "0", fields[19], "failsafe of record " + i);
+            assertEquals(30.0, Double.parseDouble(fields[20]), 1e-6);
+
+            if (i == 0) {
+                assertEquals("", fields[21]);
+                assertEquals("0", fields[22]);
+                assertEquals("0", fields[26]);
+            } else {
+                assertEquals(5.0 + i, Double.parseDouble(fields[21]), 1e-9);
+                assertEquals("40", fields[22]);
+                assertEquals(11.8, Double.parseDouble(fields[23]), 1e-9);
+                assertEquals(2.5, Double.parseDouble(fields[24]), 1e-9);
+                assertEquals("12", fields[25]);
+                assertEquals("3000", fields[26]);
+            }
+        }
+    }
+
+    @Test
+    void rejectsFilesThatAreNotSegments() throws IOException {
+        Path file = dir.resolve("not-a-segment.fdr");
+        Files.write(file, new byte[FlightRecorder.HEADER_LENGTH]);
+        assertThrows(IOException.class, () -> FlightLogExporter.export(file, new StringWriter()));
+    }
+}
@@ -0,0 +1,67 @@
+package com.github.lazygamer1111.startup;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StartupTest {
+
+    @Test
+    void commitAfterTimeoutIsRejected() throws Exception {
+        Startup startup = new Startup();
+        AtomicReference<String> published = new AtomicReference<>();
+        AtomicBoolean committed = new AtomicBoolean(true);
+        AtomicReference<String> seenByDependent = new AtomicReference<>("unset");
+        CountDownLatch done = new CountDownLatch(1);
+        startup.stage("slow", false, 50, () -> {
+            Thread.sleep(200);
+            committed.set(startup.commit("slow", () -> published.set("result")));
+            done.countDown();
+        });
+        startup.stage("user", true, 1000, () -> seenByDependent.set(published.get()), "slow");
+
+        assertTrue(startup.await());
+        assertTrue(done.await(1, TimeUnit.SECONDS));
+        assertEquals(Startup.State.TIMED_OUT, startup.state("slow"));
+        assertFalse(committed.get());
+        assertNull(published.get());
+        assertNull(seenByDependent.get());
+    }
+
+    @Test
+    void commitBeforeTimeoutIsReady() {
+        Startup startup = new Startup();
+        AtomicReference<String> published = new AtomicReference<>();
+        AtomicReference<String> seenByDependent = new AtomicReference<>();
+        startup.stage("slow", false, 50, () -> {
+            assertTrue(startup.commit("slow", () -> published.set("result")));
+            // Still running when the timeout fires, but the result was already handed over
+            Thread.sleep(200);
+        });
+        startup.stage("user", true, 1000, () -> seenByDependent.set(published.get()), "slow");
+
+        assertTrue(startup.await());
+        assertEquals(Startup.State.READY, startup.state("slow"));
+        assertEquals("result", seenByDependent.get());
+    }
+
+    @Test
+    void requiredFailureSkipsDependents() {
+        Startup startup = new Startup();
+        AtomicBoolean ran = new AtomicBoolean();
+        startup.stage("broken", true, 1000, () -> {
+            throw new IllegalStateException("no hardware");
+        });
+        startup.stage("user", false, 1000, () -> ran.set(true), "broken");
+
+        assertFalse(startup.await());
+        assertEquals(Startup.State.FAILED, startup.state("broken"));
+        assertEquals(Startup.State.SKIPPED, startup.state("user"));
+        assertFalse(ran.get());
+    }
+}
@@ -0,0 +1,49 @@
+package com.github.lazygamer1111.threads;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ControlSchedulerTest {
+
+    @Test
+    void shutdownReportsStoppedTasks() throws Exception {
+        ControlScheduler scheduler = new ControlScheduler();
+        CountDownLatch ticked = new CountDownLatch(1);
+        scheduler.schedule("test", now -> ticked.countDown(), 1_000_000L);
+        assertTrue(scheduler.stopped());
+
+        scheduler.start();
+        assertTrue(ticked.await(1, TimeUnit.SECONDS));
+        assertFalse(scheduler.stopped());
+        assertTrue(scheduler.shutdown(1000));
+        assertTrue(scheduler.stopped());
+    }
+
+    @Test
+    void shutdownReportsTaskStuckInTick() throws Exception {
+        ControlScheduler scheduler = new ControlScheduler();
+        CountDownLatch inTick = new CountDownLatch(1);
+        AtomicBoolean release = new AtomicBoolean();
+        scheduler.schedule("stuck", now -> {
+            inTick.countDown();
+            // Ignores interrupts, like a write blocked in native I/O
+            while (!release.get()) {
+                Thread.onSpinWait();
+            }
+        }, 1_000_000L);
+
+        scheduler.start();
+        assertTrue(inTick.await(1, TimeUnit.SECONDS));
+        assertFalse(scheduler.shutdown(50));
+        assertFalse(scheduler.stopped());
+
+        release.set(true);
+        // Called again, it waits for the tick to end
+        assertTrue(scheduler.shutdown(1000));
+    }
+}
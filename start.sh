@@ -1 +1,12 @@
-sudo java -jar build/libs/eindwerk-1.0-SNAPSHOT.jar
\ No newline at end of file
+#!/bin/sh
+# Runs the shaded jar with an AppCDS archive of the classes loaded during startup.
+# The first start after a build does a training run that initializes every subsystem
+# without arming the outputs and writes the archive on exit; later starts map the
+# archive instead of loading and verifying those classes from the jar.
+JAR=build/libs/eindwerk-1.0-SNAPSHOT.jar
+ARCHIVE=build/libs/eindwerk.jsa
+
+if [ ! -f "$ARCHIVE" ] || [ "$JAR" -nt "$ARCHIVE" ]; then
+    sudo java -XX:ArchiveClassesAtExit="$ARCHIVE" -Dstartup.trainArchive=true -jar "$JAR"
+fi
+sudo java -XX:SharedArchiveFile="$ARCHIVE" -jar "$JAR"